@@ -0,0 +1,17 @@
+package com.mediverse.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the signed-in user's {@link com.mediverse.dto.UserPrincipal} into a handler method,
+ * or null on anonymous requests. No query is made.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -3,9 +3,11 @@ package com.mediverse.config;
 import com.mediverse.entity.*;
 import com.mediverse.repository.*;
 import com.mediverse.service.UserService;
+import com.mediverse.util.BusinessIds;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalTime;
 
@@ -30,7 +32,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private UserService userService;
 
+    // One transaction, so the sample rows are written as batched inserts when it commits
     @Override
+    @Transactional
     public void run(String... args) throws Exception {
         // Check if data already exists to avoid duplicates
         if (userRepository.count() > 0) {
@@ -131,8 +135,8 @@ public class DataInitializer implements CommandLineRunner {
         doctor.setWorkingDays("Monday,Tuesday,Wednesday,Thursday,Friday");
         doctor.setBio("Experienced " + specialization + " specialist with " + experience + " years of practice.");
         doctor.setDepartment(department);
-        doctor.setLicenseNumber("LIC" + System.currentTimeMillis());
-        doctor.setDoctorId("DOC" + System.currentTimeMillis());
+        doctor.setLicenseNumber(BusinessIds.next(BusinessIds.LICENSE_PREFIX));
+        doctor.setDoctorId(BusinessIds.next(BusinessIds.DOCTOR_PREFIX));
         doctorRepository.save(doctor);
     }
 
@@ -153,7 +157,7 @@ public class DataInitializer implements CommandLineRunner {
         patient.setAddress("123 Sample St, City, ST 12345");
         patient.setEmergencyContactName("Emergency Contact");
         patient.setEmergencyContactPhone("+1-555-9999");
-        patient.setPatientId("PAT" + System.currentTimeMillis());
+        patient.setPatientId(BusinessIds.next(BusinessIds.PATIENT_PREFIX));
         patientRepository.save(patient);
     }
 }
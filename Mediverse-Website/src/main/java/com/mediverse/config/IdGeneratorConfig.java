@@ -0,0 +1,43 @@
+package com.mediverse.config;
+
+import com.mediverse.util.BusinessIds;
+import com.mediverse.util.IdGenerator;
+import com.mediverse.util.SnowflakeIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorConfig.class);
+
+    /**
+     * Profiles that run a single app node, where node 0 is safe when no node id is configured
+     */
+    static final Profiles SINGLE_NODE = Profiles.of("dev | test | single-node");
+
+    /**
+     * Id generator for business ids. Every app node needs its own mediverse.id.node-id (0-1023).
+     * Only a single-node profile may leave it unset; anywhere else startup fails rather than
+     * risk two nodes issuing the same ids.
+     */
+    @Bean
+    public IdGenerator idGenerator(@Value("${mediverse.id.node-id:-1}") int nodeId, Environment environment) {
+        if (nodeId < 0) {
+            if (!environment.acceptsProfiles(SINGLE_NODE)) {
+                throw new IllegalStateException("mediverse.id.node-id must be set to a value unique to this app node (0-"
+                    + SnowflakeIdGenerator.MAX_NODE_ID + "), or run with a single-node profile");
+            }
+            nodeId = 0;
+            log.info("mediverse.id.node-id is not set, using node 0 for this single-node profile");
+        }
+        IdGenerator generator = new SnowflakeIdGenerator(nodeId);
+        BusinessIds.install(generator);
+        return generator;
+    }
+}
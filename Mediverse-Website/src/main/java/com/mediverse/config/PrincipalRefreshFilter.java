@@ -0,0 +1,75 @@
+package com.mediverse.config;
+
+import com.mediverse.dto.UserPrincipal;
+import com.mediverse.service.PrincipalVersionService;
+import com.mediverse.service.UserDetailsServiceImpl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rebuilds the session's principal when an admin has changed its user since it was built.
+ * Runs before authorization, so a changed role applies to the request that notices it.
+ * A user who was deleted or disabled is signed out.
+ *
+ * Not a bean, so Spring Boot does not also register it as a servlet filter; SecurityConfig
+ * adds it to the security chain.
+ */
+public class PrincipalRefreshFilter extends OncePerRequestFilter {
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final PrincipalVersionService principalVersionService;
+    private final SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
+
+    public PrincipalRefreshFilter(UserDetailsServiceImpl userDetailsService, PrincipalVersionService principalVersionService) {
+        this.userDetailsService = userDetailsService;
+        this.principalVersionService = principalVersionService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                && principalVersionService.isStale(principal)) {
+            refresh(authentication, principal, request, response);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void refresh(Authentication authentication, UserPrincipal principal,
+                         HttpServletRequest request, HttpServletResponse response) {
+        UserPrincipal refreshed;
+        try {
+            refreshed = userDetailsService.loadUserById(principal.getUserId());
+        } catch (UsernameNotFoundException e) {
+            SecurityContextHolder.clearContext();
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                session.invalidate();
+            }
+            return;
+        }
+        refreshed.eraseCredentials();
+
+        UsernamePasswordAuthenticationToken token =
+            UsernamePasswordAuthenticationToken.authenticated(refreshed, null, refreshed.getAuthorities());
+        token.setDetails(authentication.getDetails());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(token);
+        SecurityContextHolder.setContext(context);
+        securityContextRepository.saveContext(context, request, response);
+    }
+}
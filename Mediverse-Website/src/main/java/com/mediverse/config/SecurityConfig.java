@@ -1,5 +1,6 @@
 package com.mediverse.config;
 
+import com.mediverse.service.PrincipalVersionService;
 import com.mediverse.service.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -15,6 +16,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.core.session.SessionRegistryImpl;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 
@@ -26,6 +28,9 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private PrincipalVersionService principalVersionService;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -99,12 +104,14 @@ public class SecurityConfig {
                 .tokenValiditySeconds(86400) // 24 hours
                 .userDetailsService(userDetailsService())
             )
+            // Swap in a fresh principal before authorization when an admin changed the user
+            .addFilterBefore(new PrincipalRefreshFilter(userDetailsService, principalVersionService), AuthorizationFilter.class)
             .csrf(csrf -> csrf
                 // Enable CSRF protection for all state-changing operations
                 .csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse())
                 // Allow form submissions from the same origin
                 .ignoringRequestMatchers(
-                    "/api/**"  // Exclude API endpoints if needed
+                    "/api/**"  // Exclude API endpoints if needed; /patient/api/** still needs the token
                 )
             );
 
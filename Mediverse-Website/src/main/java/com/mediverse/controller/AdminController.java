@@ -1,19 +1,44 @@
 package com.mediverse.controller;
 
+import com.mediverse.dto.AppointmentStatusCounts;
+import com.mediverse.dto.DepartmentAppointmentCount;
 import com.mediverse.entity.*;
+import com.mediverse.service.AdminListService;
+import com.mediverse.service.AppointmentService;
+import com.mediverse.service.ClinicalRecordService;
+import com.mediverse.service.DoctorScheduleService;
+import com.mediverse.service.ExportService;
+import com.mediverse.service.PrincipalVersionService;
+import com.mediverse.service.ReferenceDataService;
+import com.mediverse.service.RescheduleJobService;
+import com.mediverse.service.ScheduleExceptionService;
+import com.mediverse.service.StatisticsService;
 import com.mediverse.service.UserService;
+import com.mediverse.util.ExportFormat;
+import com.mediverse.util.WeeklySchedule;
 import com.mediverse.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequestMapping("/admin")
@@ -37,6 +62,36 @@ public class AdminController {
     @Autowired
     private BranchRepository branchRepository;
 
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AdminListService adminListService;
+
+    @Autowired
+    private DoctorScheduleService doctorScheduleService;
+
+    @Autowired
+    private ScheduleExceptionService scheduleExceptionService;
+
+    @Autowired
+    private RescheduleJobService rescheduleJobService;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private ClinicalRecordService clinicalRecordService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private PrincipalVersionService principalVersionService;
+
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
         // Get dashboard statistics
@@ -59,8 +114,18 @@ public class AdminController {
     // ==================== USER MANAGEMENT ====================
     
     @GetMapping("/users")
-    public String users(Model model) {
-        model.addAttribute("users", userService.findAllUsers());
+    public String users(@RequestParam(required = false) String q,
+                        @RequestParam(required = false) Role role,
+                        @RequestParam(defaultValue = AdminListService.SORT_NEWEST) String sort,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "0") int size,
+                        Model model) {
+        model.addAttribute("page", adminListService.users(role, q, sort, cursor, size));
+        model.addAttribute("q", q);
+        model.addAttribute("role", role);
+        model.addAttribute("sort", sort);
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("roles", Role.values());
         return "admin/users";
     }
 
@@ -104,6 +169,7 @@ public class AdminController {
                 String defaultSpecialization = "General Medicine";
                 Doctor doctor = new Doctor(savedUser, defaultSpecialization);
                 doctorRepository.save(doctor);
+                referenceDataService.evictDoctors();
             }
             
             redirectAttributes.addFlashAttribute("success", "User created successfully!");
@@ -149,6 +215,8 @@ public class AdminController {
                 }
                 
                 userService.updateUser(existingUser);
+                // Names and roles appear on the cached doctor cards
+                referenceDataService.evictDoctors();
                 redirectAttributes.addFlashAttribute("success", "User updated successfully!");
             }
         } catch (Exception e) {
@@ -166,9 +234,16 @@ public class AdminController {
             
             // Delete associated doctor or patient record first
             if (user.getRole() == Role.DOCTOR) {
-                doctorRepository.findByUser(user).ifPresent(doctor -> doctorRepository.delete(doctor));
+                doctorRepository.findByUser(user).ifPresent(doctor -> {
+                    appointmentService.deleteDoctorAppointments(doctor.getId());
+                    doctorRepository.delete(doctor);
+                });
+                referenceDataService.evictDoctors();
             } else if (user.getRole() == Role.PATIENT) {
-                patientRepository.findByUser(user).ifPresent(patient -> patientRepository.delete(patient));
+                patientRepository.findByUser(user).ifPresent(patient -> {
+                    appointmentService.deletePatientAppointments(patient.getId());
+                    patientRepository.delete(patient);
+                });
             }
             
             // Now delete the user
@@ -205,8 +280,19 @@ public class AdminController {
     // ==================== PATIENT MANAGEMENT ====================
     
     @GetMapping("/patients")
-    public String patients(Model model) {
-        model.addAttribute("patients", patientRepository.findAll());
+    public String patients(@RequestParam(required = false) String q,
+                           @RequestParam(required = false) Gender gender,
+                           @RequestParam(defaultValue = AdminListService.SORT_NEWEST) String sort,
+                           @RequestParam(required = false) String cursor,
+                           @RequestParam(defaultValue = "0") int size,
+                           Model model) {
+        model.addAttribute("page", adminListService.patients(gender, q, sort, cursor, size));
+        model.addAttribute("q", q);
+        model.addAttribute("gender", gender);
+        model.addAttribute("sort", sort);
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("genders", Gender.values());
+        model.addAttribute("totalPatients", patientRepository.count());
         return "admin/patients";
     }
 
@@ -215,13 +301,18 @@ public class AdminController {
         Optional<Patient> patientOpt = patientRepository.findById(id);
         if (patientOpt.isPresent()) {
             model.addAttribute("patient", patientOpt.get());
+            model.addAttribute("clinical", clinicalRecordService.profileFor(id));
             return "admin/patient-edit";
         }
         return "redirect:/admin/patients";
     }
 
     @PostMapping("/patients/{id}/edit")
-    public String updatePatient(@PathVariable Long id, @ModelAttribute Patient patient, RedirectAttributes redirectAttributes) {
+    public String updatePatient(@PathVariable Long id, @ModelAttribute Patient patient,
+                                @RequestParam(required = false) String medicalHistory,
+                                @RequestParam(required = false) String allergies,
+                                @RequestParam(required = false) String currentMedications,
+                                RedirectAttributes redirectAttributes) {
         try {
             Optional<Patient> existingPatientOpt = patientRepository.findById(id);
             if (existingPatientOpt.isPresent()) {
@@ -232,11 +323,9 @@ public class AdminController {
                 existingPatient.setAddress(patient.getAddress());
                 existingPatient.setEmergencyContactName(patient.getEmergencyContactName());
                 existingPatient.setEmergencyContactPhone(patient.getEmergencyContactPhone());
-                existingPatient.setMedicalHistory(patient.getMedicalHistory());
-                existingPatient.setAllergies(patient.getAllergies());
-                existingPatient.setCurrentMedications(patient.getCurrentMedications());
                 
                 patientRepository.save(existingPatient);
+                clinicalRecordService.saveProfile(id, medicalHistory, allergies, currentMedications);
                 redirectAttributes.addFlashAttribute("success", "Patient updated successfully!");
             }
         } catch (Exception e) {
@@ -248,7 +337,13 @@ public class AdminController {
     @PostMapping("/patients/{id}/delete")
     public String deletePatient(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
-            patientRepository.deleteById(id);
+            Optional<Patient> patientOpt = patientRepository.findById(id);
+            if (patientOpt.isPresent()) {
+                appointmentService.deletePatientAppointments(id);
+                patientRepository.delete(patientOpt.get());
+                // Signed-in sessions still hold the old patient id
+                principalVersionService.userChanged(patientOpt.get().getUser().getId());
+            }
             redirectAttributes.addFlashAttribute("success", "Patient deleted successfully!");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Error deleting patient: " + e.getMessage());
@@ -256,12 +351,37 @@ public class AdminController {
         return "redirect:/admin/patients";
     }
 
+    @PostMapping("/patients/{id}/appointments/delete")
+    public String deletePatientAppointments(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        try {
+            int deleted = appointmentService.deletePatientAppointments(id);
+            redirectAttributes.addFlashAttribute("success", deleted + " appointments deleted from the patient's history.");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error deleting appointments: " + e.getMessage());
+        }
+        return "redirect:/admin/patients/" + id + "/medical-history";
+    }
+
     // ==================== DOCTOR MANAGEMENT ====================
     
     @GetMapping("/doctors")
-    public String doctors(Model model) {
-        model.addAttribute("doctors", doctorRepository.findAll());
+    public String doctors(@RequestParam(required = false) String q,
+                          @RequestParam(required = false) Long departmentId,
+                          @RequestParam(required = false) Boolean available,
+                          @RequestParam(defaultValue = AdminListService.SORT_NAME) String sort,
+                          @RequestParam(required = false) String cursor,
+                          @RequestParam(defaultValue = "0") int size,
+                          Model model) {
+        model.addAttribute("page", adminListService.doctors(departmentId, available, q, sort, cursor, size));
+        model.addAttribute("q", q);
+        model.addAttribute("departmentId", departmentId);
+        model.addAttribute("available", available);
+        model.addAttribute("sort", sort);
+        model.addAttribute("cursor", cursor);
         model.addAttribute("departments", departmentRepository.findAll());
+        model.addAttribute("totalDoctors", doctorRepository.count());
+        model.addAttribute("availableDoctors", doctorRepository.countByIsAvailableTrue());
+        model.addAttribute("specializationCount", doctorRepository.countDistinctSpecializations());
         return "admin/doctors";
     }
 
@@ -294,7 +414,11 @@ public class AdminController {
                 existingDoctor.setAvailabilityEndTime(doctor.getAvailabilityEndTime());
                 existingDoctor.setIsAvailable(doctor.getIsAvailable());
                 
+                // Compile first so unreadable working days are rejected before anything is saved
+                WeeklySchedule schedule = doctorScheduleService.compile(existingDoctor);
                 doctorRepository.save(existingDoctor);
+                doctorScheduleService.put(existingDoctor, schedule);
+                referenceDataService.evictDoctors();
                 redirectAttributes.addFlashAttribute("success", "Doctor updated successfully!");
             }
         } catch (Exception e) {
@@ -306,7 +430,13 @@ public class AdminController {
     @PostMapping("/doctors/{id}/delete")
     public String deleteDoctor(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
+            Long userId = doctorRepository.findById(id).map(doctor -> doctor.getUser().getId()).orElse(null);
+            appointmentService.deleteDoctorAppointments(id);
             doctorRepository.deleteById(id);
+            // Signed-in sessions still hold the old doctor id
+            principalVersionService.userChanged(userId);
+            doctorScheduleService.evict(id);
+            referenceDataService.evictDoctors();
             redirectAttributes.addFlashAttribute("success", "Doctor deleted successfully!");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Error deleting doctor: " + e.getMessage());
@@ -332,6 +462,7 @@ public class AdminController {
     public String createDepartment(@ModelAttribute Department department, RedirectAttributes redirectAttributes) {
         try {
             departmentRepository.save(department);
+            referenceDataService.evictDepartments();
             redirectAttributes.addFlashAttribute("success", "Department created successfully!");
             return "redirect:/admin/departments";
         } catch (Exception e) {
@@ -381,6 +512,7 @@ public class AdminController {
                 
                 Department savedDept = departmentRepository.save(existingDept);
                 System.out.println("Updated department: " + savedDept.toString());
+                referenceDataService.evictDepartments();
                 
                 redirectAttributes.addFlashAttribute("success", "Department updated successfully!");
             } else {
@@ -399,6 +531,7 @@ public class AdminController {
     public String deleteDepartment(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
             departmentRepository.deleteById(id);
+            referenceDataService.evictDepartments();
             redirectAttributes.addFlashAttribute("success", "Department deleted successfully!");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Error deleting department: " + e.getMessage());
@@ -418,11 +551,7 @@ public class AdminController {
             model.addAttribute("doctors", doctors);
             
             // Get appointment count for this department
-            int appointmentCount = 0;
-            for (Doctor doctor : doctors) {
-                appointmentCount += appointmentRepository.findByDoctorIdOrderByDateAsc(doctor.getId()).size();
-            }
-            model.addAttribute("appointmentCount", appointmentCount);
+            model.addAttribute("appointmentCount", appointmentRepository.countByDepartmentId(id));
             
             return "admin/department-view";
         }
@@ -448,8 +577,27 @@ public class AdminController {
     // ==================== APPOINTMENT MANAGEMENT ====================
     
     @GetMapping("/appointments")
-    public String appointments(Model model) {
-        model.addAttribute("appointments", appointmentRepository.findAll());
+    public String appointments(@RequestParam(required = false) AppointmentStatus status,
+                               @RequestParam(required = false) Long doctorId,
+                               @RequestParam(required = false) String date,
+                               @RequestParam(defaultValue = AdminListService.SORT_LATEST) String sort,
+                               @RequestParam(required = false) String cursor,
+                               @RequestParam(defaultValue = "0") int size,
+                               Model model) {
+        LocalDate day = date != null && !date.isBlank() ? LocalDate.parse(date) : null;
+        model.addAttribute("page", adminListService.appointments(status, doctorId, day, sort, cursor, size));
+        model.addAttribute("status", status);
+        model.addAttribute("doctorId", doctorId);
+        model.addAttribute("date", day);
+        model.addAttribute("sort", sort);
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("statuses", AppointmentStatus.values());
+        model.addAttribute("doctors", doctorRepository.findAllWithUser());
+        AppointmentStatusCounts counts = statisticsService.appointmentCounts();
+        model.addAttribute("totalAppointments", counts.getTotal());
+        model.addAttribute("scheduledCount", counts.getScheduled());
+        model.addAttribute("completedCount", counts.getCompleted());
+        model.addAttribute("cancelledCount", counts.getCancelled());
         return "admin/appointments";
     }
 
@@ -458,6 +606,7 @@ public class AdminController {
         Optional<Appointment> appointmentOpt = appointmentRepository.findById(id);
         if (appointmentOpt.isPresent()) {
             model.addAttribute("appointment", appointmentOpt.get());
+            model.addAttribute("details", clinicalRecordService.detailsFor(id));
             model.addAttribute("doctors", doctorRepository.findAll());
             model.addAttribute("patients", patientRepository.findAll());
             model.addAttribute("statuses", AppointmentStatus.values());
@@ -467,21 +616,21 @@ public class AdminController {
     }
 
     @PostMapping("/appointments/{id}/edit")
-    public String updateAppointment(@PathVariable Long id, @ModelAttribute Appointment appointment, RedirectAttributes redirectAttributes) {
+    public String updateAppointment(@PathVariable Long id, @ModelAttribute Appointment appointment,
+                                    @RequestParam(required = false) String notes,
+                                    @RequestParam(required = false) String diagnosis,
+                                    @RequestParam(required = false) String prescription,
+                                    RedirectAttributes redirectAttributes) {
         try {
-            Optional<Appointment> existingAppOpt = appointmentRepository.findById(id);
-            if (existingAppOpt.isPresent()) {
-                Appointment existingApp = existingAppOpt.get();
-                existingApp.setAppointmentDateTime(appointment.getAppointmentDateTime());
-                existingApp.setStatus(appointment.getStatus());
-                existingApp.setReason(appointment.getReason());
-                existingApp.setNotes(appointment.getNotes());
-                existingApp.setDiagnosis(appointment.getDiagnosis());
-                existingApp.setPrescription(appointment.getPrescription());
-                existingApp.setDurationMinutes(appointment.getDurationMinutes());
-                existingApp.setConsultationFee(appointment.getConsultationFee());
-                
-                appointmentRepository.save(existingApp);
+            if (appointmentRepository.existsById(id)) {
+                appointmentService.updateAppointment(id, existingApp -> {
+                    existingApp.setAppointmentDateTime(appointment.getAppointmentDateTime());
+                    existingApp.setStatus(appointment.getStatus());
+                    existingApp.setReason(appointment.getReason());
+                    existingApp.setDurationMinutes(appointment.getDurationMinutes());
+                    existingApp.setConsultationFee(appointment.getConsultationFee());
+                });
+                clinicalRecordService.saveDetails(id, notes, diagnosis, prescription);
                 redirectAttributes.addFlashAttribute("success", "Appointment updated successfully!");
             }
         } catch (Exception e) {
@@ -493,7 +642,7 @@ public class AdminController {
     @PostMapping("/appointments/{id}/delete")
     public String deleteAppointment(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
-            appointmentRepository.deleteById(id);
+            appointmentService.deleteAppointment(id);
             redirectAttributes.addFlashAttribute("success", "Appointment deleted successfully!");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Error deleting appointment: " + e.getMessage());
@@ -504,11 +653,8 @@ public class AdminController {
     @GetMapping("/appointments/{id}/cancel")
     public String cancelAppointment(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
-            Optional<Appointment> appointmentOpt = appointmentRepository.findById(id);
-            if (appointmentOpt.isPresent()) {
-                Appointment appointment = appointmentOpt.get();
-                appointment.setStatus(AppointmentStatus.CANCELLED);
-                appointmentRepository.save(appointment);
+            if (appointmentRepository.existsById(id)) {
+                appointmentService.updateAppointment(id, appointment -> appointment.setStatus(AppointmentStatus.CANCELLED));
                 redirectAttributes.addFlashAttribute("success", "Appointment cancelled successfully!");
             } else {
                 redirectAttributes.addFlashAttribute("error", "Appointment not found!");
@@ -519,39 +665,202 @@ public class AdminController {
         return "redirect:/admin/appointments";
     }
 
+    @PostMapping("/appointments/bulk-cancel")
+    public String cancelDoctorDay(@RequestParam Long doctorId, @RequestParam String date, RedirectAttributes redirectAttributes) {
+        try {
+            LocalDate day = LocalDate.parse(date);
+            int cancelled = appointmentService.cancelDoctorAppointments(doctorId, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            redirectAttributes.addFlashAttribute("success", cancelled + " appointments cancelled.");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error cancelling appointments: " + e.getMessage());
+        }
+        return "redirect:/admin/appointments?doctorId=" + doctorId + "&date=" + date;
+    }
+
+    @PostMapping("/appointments/bulk-complete")
+    public String completeDoctorDay(@RequestParam Long doctorId, @RequestParam String date, RedirectAttributes redirectAttributes) {
+        try {
+            LocalDate day = LocalDate.parse(date);
+            int completed = appointmentService.completeDoctorAppointments(doctorId, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            redirectAttributes.addFlashAttribute("success", completed + " appointments marked as completed.");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error completing appointments: " + e.getMessage());
+        }
+        return "redirect:/admin/appointments?doctorId=" + doctorId + "&date=" + date;
+    }
+
     @GetMapping("/appointments/{id}/view")
     public String viewAppointment(@PathVariable Long id, Model model) {
         Optional<Appointment> appointmentOpt = appointmentRepository.findById(id);
         if (appointmentOpt.isPresent()) {
             model.addAttribute("appointment", appointmentOpt.get());
+            model.addAttribute("details", clinicalRecordService.detailsFor(id));
             return "admin/appointment-view";
         }
         return "redirect:/admin/appointments";
     }
 
+    // ==================== SCHEDULE EXCEPTIONS ====================
+    
+    @GetMapping("/schedule-exceptions")
+    public String scheduleExceptions(Model model) {
+        model.addAttribute("exceptions", scheduleExceptionService.getUpcoming());
+        model.addAttribute("doctors", doctorRepository.findAll());
+        model.addAttribute("branches", branchRepository.findAll());
+        model.addAttribute("types", ScheduleExceptionType.values());
+        return "admin/schedule-exceptions";
+    }
+
+    @PostMapping("/schedule-exceptions")
+    public String createScheduleException(@RequestParam(required = false) Long doctorId,
+                                          @RequestParam(required = false) Long branchId,
+                                          @RequestParam ScheduleExceptionType type,
+                                          @RequestParam String startsAt,
+                                          @RequestParam String endsAt,
+                                          @RequestParam(required = false) String reason,
+                                          RedirectAttributes redirectAttributes) {
+        try {
+            scheduleExceptionService.add(doctorId, branchId, type,
+                LocalDateTime.parse(startsAt), LocalDateTime.parse(endsAt), reason);
+            redirectAttributes.addFlashAttribute("success", "Schedule exception added successfully!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error adding schedule exception: " + e.getMessage());
+        }
+        return "redirect:/admin/schedule-exceptions";
+    }
+
+    @PostMapping("/schedule-exceptions/{id}/delete")
+    public String deleteScheduleException(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        try {
+            scheduleExceptionService.remove(id);
+            redirectAttributes.addFlashAttribute("success", "Schedule exception removed successfully!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error removing schedule exception: " + e.getMessage());
+        }
+        return "redirect:/admin/schedule-exceptions";
+    }
+
+    // ==================== BULK RESCHEDULE ====================
+    
+    @GetMapping("/reschedule-jobs")
+    public String rescheduleJobs(Model model) {
+        model.addAttribute("jobs", rescheduleJobService.getRecentJobs());
+        model.addAttribute("doctors", doctorRepository.findAll());
+        return "admin/reschedule-jobs";
+    }
+
+    @PostMapping("/reschedule-jobs")
+    public String startRescheduleJob(@RequestParam Long doctorId,
+                                     @RequestParam String from,
+                                     @RequestParam String to,
+                                     @RequestParam(defaultValue = "false") boolean allowOtherDoctors,
+                                     RedirectAttributes redirectAttributes) {
+        try {
+            RescheduleJob job = rescheduleJobService.start(doctorId, LocalDateTime.parse(from), LocalDateTime.parse(to), allowOtherDoctors);
+            redirectAttributes.addFlashAttribute("success", "Reschedule job started for " + job.getTotalCount() + " appointments.");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error starting reschedule job: " + e.getMessage());
+        }
+        return "redirect:/admin/reschedule-jobs";
+    }
+
+    @GetMapping("/reschedule-jobs/{id}/progress")
+    @ResponseBody
+    public Map<String, Object> rescheduleJobProgress(@PathVariable Long id) {
+        RescheduleJob job = rescheduleJobService.getJob(id);
+        return Map.of(
+            "id", job.getId(),
+            "status", job.getStatus().name(),
+            "totalCount", job.getTotalCount(),
+            "movedCount", job.getMovedCount(),
+            "unmovedCount", job.getUnmovedCount(),
+            "percentComplete", job.getPercentComplete());
+    }
+
+    @PostMapping("/reschedule-jobs/{id}/pause")
+    public String pauseRescheduleJob(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        try {
+            rescheduleJobService.pause(id);
+            redirectAttributes.addFlashAttribute("success", "Reschedule job paused.");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error pausing reschedule job: " + e.getMessage());
+        }
+        return "redirect:/admin/reschedule-jobs";
+    }
+
+    @PostMapping("/reschedule-jobs/{id}/resume")
+    public String resumeRescheduleJob(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        try {
+            rescheduleJobService.resume(id);
+            redirectAttributes.addFlashAttribute("success", "Reschedule job resumed.");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error resuming reschedule job: " + e.getMessage());
+        }
+        return "redirect:/admin/reschedule-jobs";
+    }
+
+    // ==================== DATA EXPORT ====================
+    
+    @GetMapping("/export/appointments")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(@RequestParam(required = false) AppointmentStatus status,
+                                                                    @RequestParam(required = false) Long doctorId,
+                                                                    @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                                    @RequestParam(defaultValue = "false") boolean gzip) {
+        return download("appointments", format, gzip, out -> exportService.exportAppointments(status, doctorId, format, out));
+    }
+
+    @GetMapping("/export/patients")
+    public ResponseEntity<StreamingResponseBody> exportPatients(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                                @RequestParam(defaultValue = "false") boolean gzip) {
+        return download("patients", format, gzip, out -> exportService.exportPatients(format, out));
+    }
+
+    @GetMapping("/export/doctors")
+    public ResponseEntity<StreamingResponseBody> exportDoctors(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                               @RequestParam(defaultValue = "false") boolean gzip) {
+        return download("doctors", format, gzip, out -> exportService.exportDoctors(format, out));
+    }
+
+    // The export runs on an async thread once headers are sent, writing straight to the response
+    private ResponseEntity<StreamingResponseBody> download(String name, ExportFormat format, boolean gzip, ExportBody export) {
+        String fileName = name + "-" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream zipped = new GZIPOutputStream(out, 64 * 1024);
+                export.writeTo(zipped);
+                zipped.finish();
+            } else {
+                export.writeTo(out);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+            .body(body);
+    }
+
+    private interface ExportBody {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
     // ==================== REPORTS ====================
     
     @GetMapping("/reports")
     public String reports(Model model) {
-        // Get comprehensive statistics for reports
-        long totalUsers = userService.findAllUsers().size();
-        long totalPatients = userService.countUsersByRole(Role.PATIENT);
-        long totalDoctors = userService.countUsersByRole(Role.DOCTOR);
-        long totalDepartments = departmentRepository.count();
-        long totalAppointments = appointmentRepository.count();
+        // One grouped query each for users, appointments and departments
+        Map<Role, Long> usersByRole = statisticsService.userCountsByRole();
+        AppointmentStatusCounts appointmentCounts = statisticsService.appointmentCounts();
+        List<DepartmentAppointmentCount> departmentTotals = statisticsService.departmentTotals();
         
-        long scheduledAppointments = appointmentRepository.countByStatus(AppointmentStatus.SCHEDULED);
-        long completedAppointments = appointmentRepository.countByStatus(AppointmentStatus.COMPLETED);
-        long cancelledAppointments = appointmentRepository.countByStatus(AppointmentStatus.CANCELLED);
-        
-        model.addAttribute("totalUsers", totalUsers);
-        model.addAttribute("totalPatients", totalPatients);
-        model.addAttribute("totalDoctors", totalDoctors);
-        model.addAttribute("totalDepartments", totalDepartments);
-        model.addAttribute("totalAppointments", totalAppointments);
-        model.addAttribute("scheduledAppointments", scheduledAppointments);
-        model.addAttribute("completedAppointments", completedAppointments);
-        model.addAttribute("cancelledAppointments", cancelledAppointments);
+        model.addAttribute("totalUsers", usersByRole.values().stream().mapToLong(Long::longValue).sum());
+        model.addAttribute("totalPatients", usersByRole.get(Role.PATIENT));
+        model.addAttribute("totalDoctors", usersByRole.get(Role.DOCTOR));
+        model.addAttribute("totalDepartments", departmentTotals.size());
+        model.addAttribute("totalAppointments", appointmentCounts.getTotal());
+        model.addAttribute("scheduledAppointments", appointmentCounts.getScheduled());
+        model.addAttribute("completedAppointments", appointmentCounts.getCompleted());
+        model.addAttribute("cancelledAppointments", appointmentCounts.getCancelled());
+        model.addAttribute("departmentTotals", departmentTotals);
         
         return "admin/reports";
     }
@@ -584,8 +893,12 @@ public class AdminController {
         if (patientOpt.isPresent()) {
             Patient patient = patientOpt.get();
             model.addAttribute("patient", patient);
-            // Get patient's appointments for medical history
-            model.addAttribute("appointments", appointmentRepository.findByPatientIdOrderByDateDesc(patient.getId()));
+            model.addAttribute("clinical", clinicalRecordService.profileFor(id));
+            // Get patient's appointments for medical history, with their diagnoses in one more query
+            List<Appointment> appointments = appointmentRepository.findByPatientIdOrderByDateDesc(patient.getId());
+            model.addAttribute("appointments", appointments);
+            model.addAttribute("detailsByAppointment",
+                clinicalRecordService.detailsFor(appointments.stream().map(Appointment::getId).toList()));
             return "admin/patient-medical-history";
         }
         return "redirect:/admin/patients";
@@ -1,13 +1,18 @@
 package com.mediverse.controller;
 
+import com.mediverse.config.CurrentUser;
+import com.mediverse.dto.AppointmentStatusCounts;
+import com.mediverse.dto.AppointmentSummary;
+import com.mediverse.dto.PatientVisitSummary;
+import com.mediverse.dto.UserPrincipal;
 import com.mediverse.entity.Appointment;
 import com.mediverse.entity.Doctor;
-import com.mediverse.entity.User;
 import com.mediverse.repository.AppointmentRepository;
 import com.mediverse.repository.DoctorRepository;
-import com.mediverse.service.UserService;
+import com.mediverse.service.StatisticsService;
+import com.mediverse.service.TodayQueueService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,8 +25,7 @@ import java.util.Optional;
 @RequestMapping("/doctor")
 public class DoctorController {
 
-    @Autowired
-    private UserService userService;
+    private static final int DASHBOARD_ROWS = 10;
 
     @Autowired
     private AppointmentRepository appointmentRepository;
@@ -29,151 +33,86 @@ public class DoctorController {
     @Autowired
     private DoctorRepository doctorRepository;
 
-    @GetMapping("/dashboard")
-    public String dashboard(Model model, Authentication authentication) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("DOCTOR")) {
-            return "redirect:/login?error=unauthorized";
-        }
+    @Autowired
+    private StatisticsService statisticsService;
 
-        User currentUser = userOptional.get();
-        
-        // Get the Doctor entity for this user
-        Optional<Doctor> doctorOptional = doctorRepository.findByUserId(currentUser.getId());
-        if (doctorOptional.isEmpty()) {
+    @Autowired
+    private TodayQueueService todayQueueService;
+
+    @GetMapping("/dashboard")
+    public String dashboard(Model model, @CurrentUser UserPrincipal user) {
+        if (user.getDoctorId() == null) {
             return "redirect:/login?error=doctor_not_found";
         }
-        
-        Doctor doctor = doctorOptional.get();
 
-        // Get doctor's appointments using the correct doctor ID
-        List<Appointment> doctorAppointments = appointmentRepository.findByDoctorIdOrderByDateAsc(doctor.getId());
-        
-        // Get today's appointments
-        List<Appointment> todaysAppointments = appointmentRepository.findTodaysAppointments();
-        
-        // Calculate status counts
-        long completedCount = doctorAppointments.stream()
-            .filter(apt -> "COMPLETED".equals(apt.getStatus().name()))
-            .count();
+        // Narrow read-only rows for the tables, latest first; counts from the database
+        List<AppointmentSummary> recentAppointments = appointmentRepository
+            .findSummariesByDoctorId(user.getDoctorId(), PageRequest.of(0, DASHBOARD_ROWS));
+        List<AppointmentSummary> todaysAppointments = todayQueueService.today(user.getDoctorId());
         
-        long scheduledCount = doctorAppointments.stream()
-            .filter(apt -> "SCHEDULED".equals(apt.getStatus().name()))
-            .count();
+        AppointmentStatusCounts counts = statisticsService.appointmentCountsForDoctor(user.getDoctorId());
         
-        model.addAttribute("user", currentUser);
-        model.addAttribute("doctor", doctor);
-        model.addAttribute("appointments", doctorAppointments);
+        model.addAttribute("user", user);
+        model.addAttribute("appointments", recentAppointments);
         model.addAttribute("todaysAppointments", todaysAppointments);
-        model.addAttribute("totalAppointments", doctorAppointments.size());
+        model.addAttribute("totalAppointments", counts.getTotal());
         model.addAttribute("todaysCount", todaysAppointments.size());
-        model.addAttribute("completedCount", completedCount);
-        model.addAttribute("scheduledCount", scheduledCount);
+        model.addAttribute("completedCount", counts.getCompleted());
+        model.addAttribute("scheduledCount", counts.getScheduled());
         
         return "doctor/dashboard";
     }
     
     @GetMapping("/appointments")
-    public String appointments(Model model, Authentication authentication) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("DOCTOR")) {
-            return "redirect:/login?error=unauthorized";
-        }
-
-        User currentUser = userOptional.get();
-        
-        // Get the Doctor entity for this user
-        Optional<Doctor> doctorOptional = doctorRepository.findByUserId(currentUser.getId());
-        if (doctorOptional.isEmpty()) {
+    public String appointments(Model model, @CurrentUser UserPrincipal user) {
+        if (user.getDoctorId() == null) {
             return "redirect:/login?error=doctor_not_found";
         }
+        List<Appointment> doctorAppointments = appointmentRepository.findByDoctorIdOrderByDateAsc(user.getDoctorId());
         
-        Doctor doctor = doctorOptional.get();
-        List<Appointment> doctorAppointments = appointmentRepository.findByDoctorIdOrderByDateAsc(doctor.getId());
-        
-        model.addAttribute("user", currentUser);
-        model.addAttribute("doctor", doctor);
+        model.addAttribute("user", user);
         model.addAttribute("appointments", doctorAppointments);
         
         return "doctor/appointments";
     }
     
     @GetMapping("/schedule")
-    public String schedule(Model model, Authentication authentication) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("DOCTOR")) {
-            return "redirect:/login?error=unauthorized";
-        }
-
-        User currentUser = userOptional.get();
-        model.addAttribute("user", currentUser);
+    public String schedule(Model model, @CurrentUser UserPrincipal user) {
+        model.addAttribute("user", user);
         
         return "doctor/schedule";
     }
     
     @GetMapping("/patients")
-    public String patients(Model model, Authentication authentication) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("DOCTOR")) {
-            return "redirect:/login?error=unauthorized";
-        }
-
-        User currentUser = userOptional.get();
-        
-        // Get the Doctor entity for this user
-        Optional<Doctor> doctorOptional = doctorRepository.findByUserId(currentUser.getId());
-        if (doctorOptional.isEmpty()) {
+    public String patients(Model model, @CurrentUser UserPrincipal user) {
+        if (user.getDoctorId() == null) {
             return "redirect:/login?error=doctor_not_found";
         }
         
-        Doctor doctor = doctorOptional.get();
-        
-        // Get unique patients from appointments
-        List<Appointment> doctorAppointments = appointmentRepository.findByDoctorIdOrderByDateAsc(doctor.getId());
+        // One row per patient with visit count and latest visit, grouped in the database
+        List<PatientVisitSummary> patients = statisticsService.patientVisitsForDoctor(user.getDoctorId());
         
-        // Calculate unique patients count
-        long uniquePatientsCount = doctorAppointments.stream()
-            .map(apt -> apt.getPatient().getId())
-            .distinct()
-            .count();
-        
-        model.addAttribute("user", currentUser);
-        model.addAttribute("doctor", doctor);
-        model.addAttribute("appointments", doctorAppointments);
-        model.addAttribute("uniquePatientsCount", uniquePatientsCount);
-        model.addAttribute("patientVisitCount", 1); // This would need to be calculated per patient
+        model.addAttribute("user", user);
+        model.addAttribute("patients", patients);
+        model.addAttribute("uniquePatientsCount", patients.size());
+        model.addAttribute("totalAppointments", statisticsService.appointmentCountsForDoctor(user.getDoctorId()).getTotal());
+        model.addAttribute("thisMonthCount", statisticsService.appointmentsThisMonthForDoctor(user.getDoctorId()));
         
         return "doctor/patients";
     }
     
     @GetMapping("/profile")
-    public String profile(Model model, Authentication authentication) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("DOCTOR")) {
-            return "redirect:/login?error=unauthorized";
-        }
-
-        User currentUser = userOptional.get();
-        
-        // Get the Doctor entity for this user
-        Optional<Doctor> doctorOptional = doctorRepository.findByUserId(currentUser.getId());
+    public String profile(Model model, @CurrentUser UserPrincipal user) {
+        // The page shows account and practice details the principal does not carry
+        Optional<Doctor> doctorOptional = user.getDoctorId() != null
+            ? doctorRepository.findById(user.getDoctorId()) : Optional.empty();
         if (doctorOptional.isEmpty()) {
             return "redirect:/login?error=doctor_not_found";
         }
         
         Doctor doctor = doctorOptional.get();
         
-        model.addAttribute("user", currentUser);
+        model.addAttribute("user", doctor.getUser());
         model.addAttribute("doctor", doctor);
         
         return "doctor/profile";
@@ -1,11 +1,9 @@
 package com.mediverse.controller;
 
-import com.mediverse.entity.Department;
+import com.mediverse.dto.ReferenceSnapshot;
 import com.mediverse.entity.Doctor;
-import com.mediverse.entity.Branch;
-import com.mediverse.repository.DepartmentRepository;
 import com.mediverse.repository.DoctorRepository;
-import com.mediverse.repository.BranchRepository;
+import com.mediverse.service.ReferenceSnapshotService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -18,26 +16,22 @@ import java.util.List;
 public class HomeController {
 
     @Autowired
-    private DepartmentRepository departmentRepository;
+    private ReferenceSnapshotService referenceSnapshotService;
 
     @Autowired
     private DoctorRepository doctorRepository;
 
-    @Autowired
-    private BranchRepository branchRepository;
-
     @GetMapping({"/", "/home"})
     public String home(Model model) {
         // Get some statistics for the home page
-        List<Department> departments = departmentRepository.findActiveDepartmentsOrderByName();
-        List<Doctor> doctors = doctorRepository.findAvailableDoctors();
-        List<Branch> branches = branchRepository.findActiveBranchesOrderByName();
+        ReferenceSnapshot snapshot = referenceSnapshotService.current();
         
-        model.addAttribute("departmentCount", departments.size());
-        model.addAttribute("doctorCount", doctors.size());
-        model.addAttribute("branchCount", branches.size());
-        model.addAttribute("featuredDepartments", departments.stream().limit(6).toList());
-        model.addAttribute("featuredDoctors", doctors.stream().limit(8).toList());
+        model.addAttribute("departmentCount", snapshot.getDepartments().size());
+        model.addAttribute("doctorCount", snapshot.getDoctors().size());
+        model.addAttribute("branchCount", snapshot.getBranches().size());
+        model.addAttribute("featuredDepartments", snapshot.getDepartments().stream().limit(6).toList());
+        model.addAttribute("featuredDoctors", snapshot.getDoctors().stream().limit(8).toList());
+        model.addAttribute("doctorCounts", snapshot.getDoctorCountsByDepartment());
         
         return "index";
     }
@@ -49,8 +43,7 @@ public class HomeController {
 
     @GetMapping("/services")
     public String services(Model model) {
-        List<Department> departments = departmentRepository.findActiveDepartmentsOrderByName();
-        model.addAttribute("departments", departments);
+        model.addAttribute("departments", referenceSnapshotService.current().getDepartments());
         return "services";
     }
 
@@ -63,18 +56,19 @@ public class HomeController {
     public String doctors(Model model, @RequestParam(required = false) Long departmentId, 
                          @RequestParam(required = false) String search) {
         List<Doctor> doctors;
-        List<Department> departments = departmentRepository.findActiveDepartmentsOrderByName();
+        ReferenceSnapshot snapshot = referenceSnapshotService.current();
         
         if (departmentId != null) {
-            doctors = doctorRepository.findAvailableDoctorsByDepartment(departmentId);
+            doctors = snapshot.getDoctorsInDepartment(departmentId);
         } else if (search != null && !search.trim().isEmpty()) {
+            // Free-text searches go to the database
             doctors = doctorRepository.findByNameContaining(search.trim());
         } else {
-            doctors = doctorRepository.findAvailableDoctors();
+            doctors = snapshot.getDoctors();
         }
         
         model.addAttribute("doctors", doctors);
-        model.addAttribute("departments", departments);
+        model.addAttribute("departments", snapshot.getDepartments());
         model.addAttribute("selectedDepartmentId", departmentId);
         model.addAttribute("searchTerm", search);
         return "doctors";
@@ -82,22 +76,16 @@ public class HomeController {
 
     @GetMapping("/departments")
     public String departments(Model model) {
-        List<Department> departments = departmentRepository.findActiveDepartmentsOrderByName();
-        
-        // Add doctor count for each department
-        for (Department department : departments) {
-            List<Doctor> deptDoctors = doctorRepository.findAvailableDoctorsByDepartment(department.getId());
-            department.setDoctorCount(deptDoctors.size()); // We'll need to add this field to Department entity
-        }
+        ReferenceSnapshot snapshot = referenceSnapshotService.current();
         
-        model.addAttribute("departments", departments);
+        model.addAttribute("departments", snapshot.getDepartments());
+        model.addAttribute("doctorCounts", snapshot.getDoctorCountsByDepartment());
         return "departments";
     }
 
     @GetMapping("/branches")
     public String branches(Model model) {
-        List<Branch> branches = branchRepository.findActiveBranchesOrderByName();
-        model.addAttribute("branches", branches);
+        model.addAttribute("branches", referenceSnapshotService.current().getBranches());
         return "branches";
     }
 }
@@ -1,6 +1,15 @@
 package com.mediverse.controller;
 
+import com.mediverse.config.CurrentUser;
 import com.mediverse.dto.AppointmentBookingDTO;
+import com.mediverse.dto.AppointmentStatusCounts;
+import com.mediverse.dto.AppointmentSummary;
+import com.mediverse.dto.AvailableSlotDTO;
+import com.mediverse.dto.DoctorAvailabilityDTO;
+import com.mediverse.dto.DoctorOptionDTO;
+import com.mediverse.dto.SlotHoldDTO;
+import com.mediverse.dto.UserPrincipal;
+import com.mediverse.dto.WaitlistEntryDTO;
 import com.mediverse.entity.Appointment;
 import com.mediverse.entity.AppointmentStatus;
 import com.mediverse.entity.Department;
@@ -8,15 +17,22 @@ import com.mediverse.entity.Doctor;
 import com.mediverse.entity.Patient;
 import com.mediverse.entity.User;
 import com.mediverse.repository.AppointmentRepository;
-import com.mediverse.repository.DepartmentRepository;
 import com.mediverse.repository.DoctorRepository;
 import com.mediverse.repository.PatientRepository;
 import com.mediverse.service.AppointmentService;
+import com.mediverse.service.PrincipalVersionService;
+import com.mediverse.service.ClinicalRecordService;
+import com.mediverse.service.ReferenceDataService;
+import com.mediverse.service.ReferenceSnapshotService;
+import com.mediverse.service.SlotHoldService;
+import com.mediverse.service.SlotSearchService;
+import com.mediverse.service.StatisticsService;
 import com.mediverse.service.UserService;
+import com.mediverse.service.WaitlistService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -34,6 +50,10 @@ import java.util.Optional;
 @RequestMapping("/patient")
 public class PatientController {
 
+    private static final int MAX_AVAILABILITY_DAYS = 31;
+    private static final int MAX_NEXT_SLOTS = 50;
+    private static final int DASHBOARD_ROWS = 5;
+
     @Autowired
     private UserService userService;
 
@@ -47,78 +67,72 @@ public class PatientController {
     private DoctorRepository doctorRepository;
     
     @Autowired
-    private DepartmentRepository departmentRepository;
+    private PatientRepository patientRepository;
     
     @Autowired
-    private PatientRepository patientRepository;
+    private SlotSearchService slotSearchService;
+    
+    @Autowired
+    private SlotHoldService slotHoldService;
+    
+    @Autowired
+    private WaitlistService waitlistService;
 
-    @GetMapping("/dashboard")
-    public String dashboard(Model model, Authentication authentication) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("PATIENT")) {
-            return "redirect:/login?error=unauthorized";
-        }
+    @Autowired
+    private StatisticsService statisticsService;
 
-        User currentUser = userOptional.get();
+    @Autowired
+    private ReferenceDataService referenceDataService;
 
-        // Get the patient entity first
-        Optional<Patient> patientOptional = patientRepository.findByUserId(currentUser.getId());
-        if (patientOptional.isEmpty()) {
+    @Autowired
+    private ReferenceSnapshotService referenceSnapshotService;
+
+    @Autowired
+    private ClinicalRecordService clinicalRecordService;
+
+    @Autowired
+    private PrincipalVersionService principalVersionService;
+
+    @GetMapping("/dashboard")
+    public String dashboard(Model model, @CurrentUser UserPrincipal user) {
+        if (user.getPatientId() == null) {
             return "redirect:/login?error=patient_not_found";
         }
+
+        List<AppointmentSummary> recentAppointments = appointmentRepository
+            .findSummariesByPatientId(user.getPatientId(), PageRequest.of(0, DASHBOARD_ROWS));
         
-        Patient patient = patientOptional.get();
-        List<Appointment> patientAppointments = appointmentRepository.findByPatientIdOrderByDateDesc(patient.getId());
+        AppointmentStatusCounts counts = statisticsService.appointmentCountsForPatient(user.getPatientId());
         
-        model.addAttribute("user", currentUser);
-        model.addAttribute("appointments", patientAppointments);
-        model.addAttribute("totalAppointments", patientAppointments.size());
+        model.addAttribute("user", user);
+        model.addAttribute("appointments", recentAppointments);
+        model.addAttribute("totalAppointments", counts.getTotal());
+        model.addAttribute("scheduledCount", counts.getScheduled());
+        model.addAttribute("completedCount", counts.getCompleted());
         
         return "patient/dashboard";
     }
     
     @GetMapping("/appointments")
-    public String appointments(Model model, Authentication authentication) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("PATIENT")) {
-            return "redirect:/login?error=unauthorized";
-        }
-
-        User currentUser = userOptional.get();
-        
-        // Get the patient entity first
-        Optional<Patient> patientOptional = patientRepository.findByUserId(currentUser.getId());
-        if (patientOptional.isEmpty()) {
+    public String appointments(Model model, @CurrentUser UserPrincipal user) {
+        if (user.getPatientId() == null) {
             return "redirect:/login?error=patient_not_found";
         }
+
+        List<Appointment> patientAppointments = appointmentRepository.findByPatientIdOrderByDateDesc(user.getPatientId());
         
-        Patient patient = patientOptional.get();
-        List<Appointment> patientAppointments = appointmentRepository.findByPatientIdOrderByDateDesc(patient.getId());
-        
-        model.addAttribute("user", currentUser);
+        model.addAttribute("user", user);
         model.addAttribute("appointments", patientAppointments);
         
         return "patient/appointments";
     }
     
     @GetMapping("/book-appointment")
-    public String bookAppointment(Model model, Authentication authentication) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
+    public String bookAppointment(Model model, @CurrentUser UserPrincipal user) {
+        List<Department> departments = referenceDataService.allDepartments();
+        List<Doctor> doctors = referenceDataService.allDoctors();
         
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("PATIENT")) {
-            return "redirect:/login?error=unauthorized";
-        }
-
-        User currentUser = userOptional.get();
-        List<Department> departments = departmentRepository.findAll();
-        List<Doctor> doctors = doctorRepository.findAll();
-        
-        model.addAttribute("user", currentUser);
+        model.addAttribute("user", user);
         model.addAttribute("departments", departments);
         model.addAttribute("doctors", doctors);
         model.addAttribute("appointmentBooking", new AppointmentBookingDTO());
@@ -129,30 +143,21 @@ public class PatientController {
     @PostMapping("/book-appointment")
     public String processBookAppointment(@Valid @ModelAttribute("appointmentBooking") AppointmentBookingDTO bookingDTO,
                                        BindingResult bindingResult,
-                                       Authentication authentication,
+                                       @CurrentUser UserPrincipal user,
                                        Model model,
                                        RedirectAttributes redirectAttributes) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("PATIENT")) {
-            return "redirect:/login?error=unauthorized";
-        }
-
-        User currentUser = userOptional.get();
-        
         if (bindingResult.hasErrors()) {
-            List<Department> departments = departmentRepository.findAll();
-            List<Doctor> doctors = doctorRepository.findAll();
+            List<Department> departments = referenceDataService.allDepartments();
+            List<Doctor> doctors = referenceDataService.allDoctors();
             
-            model.addAttribute("user", currentUser);
+            model.addAttribute("user", user);
             model.addAttribute("departments", departments);
             model.addAttribute("doctors", doctors);
             return "patient/book-appointment";
         }
         
         try {
-            Appointment appointment = appointmentService.bookAppointment(bookingDTO, currentUser.getEmail());
+            Appointment appointment = appointmentService.bookAppointment(bookingDTO, user.getUsername());
             redirectAttributes.addFlashAttribute("successMessage", 
                 "Appointment booked successfully! Your appointment ID is: " + appointment.getId());
             return "redirect:/patient/appointments";
@@ -164,72 +169,175 @@ public class PatientController {
     
     @GetMapping("/api/doctors/{departmentId}")
     @ResponseBody
-    public ResponseEntity<List<Doctor>> getDoctorsByDepartment(@PathVariable Long departmentId) {
-        List<Doctor> doctors = doctorRepository.findByDepartmentId(departmentId);
-        return ResponseEntity.ok(doctors);
+    public ResponseEntity<List<DoctorOptionDTO>> getDoctorsByDepartment(@PathVariable Long departmentId) {
+        return ResponseEntity.ok(referenceSnapshotService.current().getDoctorOptionsInDepartment(departmentId));
     }
     
     @GetMapping("/api/doctors/{doctorId}/slots")
     @ResponseBody
     public ResponseEntity<List<LocalTime>> getAvailableSlots(@PathVariable Long doctorId, 
-                                                           @RequestParam String date) {
+                                                           @RequestParam String date,
+                                                           @RequestParam(required = false) Integer duration) {
         try {
             LocalDate appointmentDate = LocalDate.parse(date);
-            List<LocalTime> slots = appointmentService.getAvailableSlots(doctorId, appointmentDate);
+            int durationMinutes = AppointmentService.durationOrDefault(duration);
+            List<LocalTime> slots = appointmentService.getAvailableSlots(doctorId, appointmentDate, durationMinutes);
             return ResponseEntity.ok(slots);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
-    @GetMapping("/profile")
-    public String profile(Model model, Authentication authentication) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("PATIENT")) {
-            return "redirect:/login?error=unauthorized";
+    @GetMapping("/api/availability")
+    @ResponseBody
+    public ResponseEntity<List<DoctorAvailabilityDTO>> getAvailabilityGrid(@RequestParam(required = false) Long departmentId,
+                                                                          @RequestParam(required = false) List<Long> doctorIds,
+                                                                          @RequestParam String from,
+                                                                          @RequestParam String to,
+                                                                          @RequestParam(required = false) Integer duration) {
+        try {
+            LocalDate fromDate = LocalDate.parse(from);
+            LocalDate toDate = LocalDate.parse(to);
+            if (toDate.isBefore(fromDate) || toDate.isAfter(fromDate.plusDays(MAX_AVAILABILITY_DAYS - 1))) {
+                return ResponseEntity.badRequest().build();
+            }
+            int durationMinutes = AppointmentService.durationOrDefault(duration);
+            return ResponseEntity.ok(appointmentService.getAvailabilityGrid(departmentId, doctorIds, fromDate, toDate, durationMinutes));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/api/slots/next")
+    @ResponseBody
+    public ResponseEntity<List<AvailableSlotDTO>> getEarliestSlots(@RequestParam(required = false) Long departmentId,
+                                                                  @RequestParam(required = false) String specialization,
+                                                                  @RequestParam(required = false) List<Long> doctorIds,
+                                                                  @RequestParam(required = false) String from,
+                                                                  @RequestParam(required = false) Integer duration,
+                                                                  @RequestParam(defaultValue = "5") int limit) {
+        try {
+            LocalDateTime fromDateTime = from != null ? LocalDateTime.parse(from) : LocalDateTime.now();
+            int durationMinutes = AppointmentService.durationOrDefault(duration);
+            int cappedLimit = Math.min(Math.max(limit, 1), MAX_NEXT_SLOTS);
+            return ResponseEntity.ok(slotSearchService.findEarliestSlots(departmentId, specialization, doctorIds, fromDateTime,
+                durationMinutes, cappedLimit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
         }
+    }
 
-        User currentUser = userOptional.get();
-        model.addAttribute("user", currentUser);
-        
-        // Find or create patient record
-        Optional<Patient> patientOptional = patientRepository.findByUser(currentUser);
+    // Unlike /api/**, POST and DELETE under /patient/api need the CSRF token; the pages
+    // send it from the _csrf and _csrf_header meta tags
+    @PostMapping("/api/holds")
+    @ResponseBody
+    public ResponseEntity<?> placeHold(@RequestParam Long doctorId,
+                                       @RequestParam String date,
+                                       @RequestParam String time,
+                                       @RequestParam(required = false) Integer duration,
+                                       @CurrentUser UserPrincipal user) {
+        LocalDateTime slotStart;
+        int durationMinutes;
+        try {
+            slotStart = LocalDateTime.of(LocalDate.parse(date), LocalTime.parse(time));
+            durationMinutes = AppointmentService.durationOrDefault(duration);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            SlotHoldDTO hold = appointmentService.placeHold(doctorId, slotStart, durationMinutes, user.getEmail());
+            return ResponseEntity.ok(hold);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+    
+    @DeleteMapping("/api/holds/{holdId}")
+    @ResponseBody
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdId, @CurrentUser UserPrincipal user) {
+        if (slotHoldService.release(holdId, user.getEmail())) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
+    @GetMapping("/api/waitlist")
+    @ResponseBody
+    public ResponseEntity<List<WaitlistEntryDTO>> getWaitlist(@CurrentUser UserPrincipal user) {
+        return ResponseEntity.ok(waitlistService.getPatientEntries(user.getEmail()));
+    }
+    
+    @PostMapping("/api/waitlist")
+    @ResponseBody
+    public ResponseEntity<?> joinWaitlist(@RequestParam Long doctorId,
+                                          @RequestParam String earliestDate,
+                                          @RequestParam String latestDate,
+                                          @CurrentUser UserPrincipal user) {
+        LocalDate earliest;
+        LocalDate latest;
+        try {
+            earliest = LocalDate.parse(earliestDate);
+            latest = LocalDate.parse(latestDate);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(waitlistService.join(user.getEmail(), doctorId, earliest, latest));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @DeleteMapping("/api/waitlist/{id}")
+    @ResponseBody
+    public ResponseEntity<String> leaveWaitlist(@PathVariable Long id, @CurrentUser UserPrincipal user) {
+        try {
+            waitlistService.leave(id, user.getEmail());
+            return ResponseEntity.ok("Removed from waitlist");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/profile")
+    public String profile(Model model, @CurrentUser UserPrincipal user) {
+        // The page shows account details the principal does not carry, so load the user row
+        Optional<Patient> patientOptional = user.getPatientId() != null
+            ? patientRepository.findById(user.getPatientId()) : Optional.empty();
         if (patientOptional.isPresent()) {
+            model.addAttribute("user", patientOptional.get().getUser());
             model.addAttribute("patient", patientOptional.get());
+            model.addAttribute("clinical", clinicalRecordService.profileFor(patientOptional.get().getId()));
         } else {
             // Create a new patient record if it doesn't exist
+            model.addAttribute("user", currentUser(user));
             model.addAttribute("patient", new Patient());
+            model.addAttribute("clinical", clinicalRecordService.profileFor(null));
         }
         
         return "patient/profile";
     }
     
     @GetMapping("/profile/edit")
-    public String editProfile(Model model, Authentication authentication) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("PATIENT")) {
-            return "redirect:/login?error=unauthorized";
-        }
-
-        User currentUser = userOptional.get();
-        model.addAttribute("user", currentUser);
-        
+    public String editProfile(Model model, @CurrentUser UserPrincipal user) {
         // Find or create patient record
-        Optional<Patient> patientOptional = patientRepository.findByUser(currentUser);
+        Optional<Patient> patientOptional = user.getPatientId() != null
+            ? patientRepository.findById(user.getPatientId()) : Optional.empty();
         Patient patient;
+        User currentUser;
         if (patientOptional.isPresent()) {
             patient = patientOptional.get();
+            currentUser = patient.getUser();
         } else {
             // Create a new patient record if it doesn't exist
+            currentUser = currentUser(user);
             patient = new Patient();
             patient.setUser(currentUser);
             patient.setPatientId("PAT" + String.format("%06d", currentUser.getId()));
         }
+        model.addAttribute("user", currentUser);
         model.addAttribute("patient", patient);
+        model.addAttribute("clinical", clinicalRecordService.profileFor(patient.getId()));
         
         return "patient/profile-edit";
     }
@@ -237,25 +345,23 @@ public class PatientController {
     @PostMapping("/profile/edit")
     public String updateProfile(@Valid @ModelAttribute Patient patient, 
                               BindingResult result,
-                              Authentication authentication,
+                              @RequestParam(required = false) String medicalHistory,
+                              @RequestParam(required = false) String allergies,
+                              @RequestParam(required = false) String currentMedications,
+                              @CurrentUser UserPrincipal user,
                               RedirectAttributes redirectAttributes) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("PATIENT")) {
-            return "redirect:/login?error=unauthorized";
-        }
-
-        User currentUser = userOptional.get();
-        
         try {
             // Find existing patient record or create new one
-            Optional<Patient> existingPatientOptional = patientRepository.findByUser(currentUser);
+            Optional<Patient> existingPatientOptional = user.getPatientId() != null
+                ? patientRepository.findById(user.getPatientId()) : Optional.empty();
             Patient existingPatient;
+            User currentUser;
             
             if (existingPatientOptional.isPresent()) {
                 existingPatient = existingPatientOptional.get();
+                currentUser = existingPatient.getUser();
             } else {
+                currentUser = currentUser(user);
                 existingPatient = new Patient();
                 existingPatient.setUser(currentUser);
                 existingPatient.setPatientId("PAT" + String.format("%06d", currentUser.getId()));
@@ -267,9 +373,6 @@ public class PatientController {
             existingPatient.setBloodGroup(patient.getBloodGroup());
             existingPatient.setEmergencyContactName(patient.getEmergencyContactName());
             existingPatient.setEmergencyContactPhone(patient.getEmergencyContactPhone());
-            existingPatient.setMedicalHistory(patient.getMedicalHistory());
-            existingPatient.setAllergies(patient.getAllergies());
-            existingPatient.setCurrentMedications(patient.getCurrentMedications());
             existingPatient.setAddress(patient.getAddress());
             
             // Update user information
@@ -277,7 +380,12 @@ public class PatientController {
             
             // Save both user and patient
             userService.updateUser(currentUser);
-            patientRepository.save(existingPatient);
+            Patient savedPatient = patientRepository.save(existingPatient);
+            clinicalRecordService.saveProfile(savedPatient.getId(), medicalHistory, allergies, currentMedications);
+            if (user.getPatientId() == null) {
+                // Pick up the new patient id on the next request
+                principalVersionService.userChanged(user.getUserId());
+            }
             
             redirectAttributes.addFlashAttribute("success", "Profile updated successfully!");
             return "redirect:/patient/profile";
@@ -289,24 +397,15 @@ public class PatientController {
     }
     
     @GetMapping("/edit-appointment/{id}")
-    public String editAppointment(@PathVariable Long id, Model model, Authentication authentication) {
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("PATIENT")) {
-            return "redirect:/login?error=unauthorized";
-        }
-
-        User currentUser = userOptional.get();
-        Optional<Patient> patientOptional = patientRepository.findByUserId(currentUser.getId());
-        if (patientOptional.isEmpty()) {
+    public String editAppointment(@PathVariable Long id, Model model, @CurrentUser UserPrincipal user) {
+        if (user.getPatientId() == null) {
             return "redirect:/login?error=patient_not_found";
         }
         
         // Get the appointment and verify it belongs to the patient
         Optional<Appointment> appointmentOptional = appointmentRepository.findById(id);
         if (appointmentOptional.isEmpty() || 
-            !appointmentOptional.get().getPatient().getId().equals(patientOptional.get().getId())) {
+            !appointmentOptional.get().getPatient().getId().equals(user.getPatientId())) {
             return "redirect:/patient/appointments?error=appointment_not_found";
         }
         
@@ -316,8 +415,8 @@ public class PatientController {
             return "redirect:/patient/appointments?error=cannot_edit_completed_or_cancelled";
         }
         
-        List<Department> departments = departmentRepository.findAll();
-        List<Doctor> doctors = doctorRepository.findAll();
+        List<Department> departments = referenceDataService.allDepartments();
+        List<Doctor> doctors = referenceDataService.allDoctors();
         
         // Create DTO for the form
         AppointmentBookingDTO bookingDTO = new AppointmentBookingDTO();
@@ -326,7 +425,7 @@ public class PatientController {
         bookingDTO.setAppointmentTime(appointment.getAppointmentDateTime().toLocalTime());
         bookingDTO.setReason(appointment.getReason());
         
-        model.addAttribute("user", currentUser);
+        model.addAttribute("user", user);
         model.addAttribute("departments", departments);
         model.addAttribute("doctors", doctors);
         model.addAttribute("appointmentBooking", bookingDTO);
@@ -342,7 +441,7 @@ public class PatientController {
                                   @RequestParam("appointmentTime") @DateTimeFormat(pattern = "HH:mm") LocalTime appointmentTime,
                                   @RequestParam("reason") String reason,
                                   @RequestParam(value = "notes", required = false) String notes,
-                                  Authentication authentication,
+                                  @CurrentUser UserPrincipal user,
                                   RedirectAttributes redirectAttributes) {
         
         // Convert string ID to Long
@@ -354,23 +453,14 @@ public class PatientController {
             return "redirect:/patient/appointments";
         }
         
-        String email = authentication.getName();
-        Optional<User> userOptional = userService.findByEmail(email);
-        
-        if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("PATIENT")) {
-            return "redirect:/login?error=unauthorized";
-        }
-
-        User currentUser = userOptional.get();
-        Optional<Patient> patientOptional = patientRepository.findByUserId(currentUser.getId());
-        if (patientOptional.isEmpty()) {
+        if (user.getPatientId() == null) {
             return "redirect:/login?error=patient_not_found";
         }
         
         // Get the existing appointment
         Optional<Appointment> existingAppointmentOptional = appointmentRepository.findById(id);
         if (existingAppointmentOptional.isEmpty() || 
-            !existingAppointmentOptional.get().getPatient().getId().equals(patientOptional.get().getId())) {
+            !existingAppointmentOptional.get().getPatient().getId().equals(user.getPatientId())) {
             return "redirect:/patient/appointments?error=appointment_not_found";
         }
         
@@ -381,20 +471,22 @@ public class PatientController {
         }
         
         try {
-            // Update the appointment
-            existingAppointment.setDoctor(doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new RuntimeException("Doctor not found")));
+            Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new RuntimeException("Doctor not found"));
                 
             // Combine date and time into a single LocalDateTime
             LocalDateTime appointmentDateTime = LocalDateTime.of(
                 appointmentDate, 
                 appointmentTime
             );
-            existingAppointment.setAppointmentDateTime(appointmentDateTime);
-            existingAppointment.setReason(reason);
-            existingAppointment.setUpdatedAt(LocalDateTime.now());
             
-            appointmentRepository.save(existingAppointment);
+            // Update the appointment
+            appointmentService.updateAppointment(id, appointment -> {
+                appointment.setDoctor(doctor);
+                appointment.setAppointmentDateTime(appointmentDateTime);
+                appointment.setReason(reason);
+                appointment.setUpdatedAt(LocalDateTime.now());
+            });
             
             redirectAttributes.addFlashAttribute("successMessage", "Appointment updated successfully!");
             return "redirect:/patient/appointments";
@@ -409,15 +501,9 @@ public class PatientController {
     @ResponseBody
     public ResponseEntity<String> cancelAppointment(
             @PathVariable("id") Long id,
-            Authentication authentication) {
+            @CurrentUser UserPrincipal user) {
         
         try {
-            String email = authentication.getName();
-            Optional<User> userOptional = userService.findByEmail(email);
-            
-            if (userOptional.isEmpty() || !userOptional.get().getRole().name().equals("PATIENT")) {
-                return ResponseEntity.status(401).body("Unauthorized access");
-            }
             
             // Get the appointment and verify it belongs to the patient
             Optional<Appointment> appointmentOptional = appointmentRepository.findById(id);
@@ -426,7 +512,7 @@ public class PatientController {
             }
             
             Appointment appointment = appointmentOptional.get();
-            if (!appointment.getPatient().getUser().getEmail().equals(email)) {
+            if (user.getPatientId() == null || !appointment.getPatient().getId().equals(user.getPatientId())) {
                 return ResponseEntity.status(403).body("You don't have permission to cancel this appointment");
             }
             
@@ -436,9 +522,10 @@ public class PatientController {
             }
             
             // Update the appointment status to CANCELLED
-            appointment.setStatus(AppointmentStatus.CANCELLED);
-            appointment.setUpdatedAt(LocalDateTime.now());
-            appointmentRepository.save(appointment);
+            appointmentService.updateAppointment(id, scheduled -> {
+                scheduled.setStatus(AppointmentStatus.CANCELLED);
+                scheduled.setUpdatedAt(LocalDateTime.now());
+            });
             
             return ResponseEntity.ok("Appointment cancelled successfully");
             
@@ -446,4 +533,9 @@ public class PatientController {
             return ResponseEntity.status(500).body("Error cancelling appointment: " + e.getMessage());
         }
     }
+
+    private User currentUser(UserPrincipal user) {
+        return userService.findById(user.getUserId())
+            .orElseThrow(() -> new RuntimeException("User not found"));
+    }
 }
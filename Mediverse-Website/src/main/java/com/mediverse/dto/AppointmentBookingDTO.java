@@ -6,6 +6,8 @@ import com.mediverse.util.LocalTimeDeserializer;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 
 import java.time.LocalDate;
@@ -34,6 +36,10 @@ public class AppointmentBookingDTO {
     
     private Long departmentId; // Optional, for filtering doctors
     
+    @Min(value = 5, message = "Appointment length must be at least 5 minutes")
+    @Max(value = 480, message = "Appointment length cannot exceed 8 hours")
+    private Integer durationMinutes; // Optional, standard slot length when empty
+    
     // Constructors
     public AppointmentBookingDTO() {}
     
@@ -92,4 +98,12 @@ public class AppointmentBookingDTO {
     public void setDepartmentId(Long departmentId) {
         this.departmentId = departmentId;
     }
+    
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+    
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
 }
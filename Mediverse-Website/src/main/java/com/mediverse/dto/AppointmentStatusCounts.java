@@ -0,0 +1,46 @@
+package com.mediverse.dto;
+
+import com.mediverse.entity.AppointmentStatus;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appointment totals per status, built from a single GROUP BY query.
+ * Statuses with no appointments count as zero.
+ */
+public class AppointmentStatusCounts {
+    
+    private final Map<AppointmentStatus, Long> counts = new EnumMap<>(AppointmentStatus.class);
+    private final long total;
+    
+    public AppointmentStatusCounts(List<StatusCount> rows) {
+        long sum = 0;
+        for (StatusCount row : rows) {
+            counts.put(row.getStatus(), row.getTotal());
+            sum += row.getTotal();
+        }
+        this.total = sum;
+    }
+    
+    public long get(AppointmentStatus status) {
+        return counts.getOrDefault(status, 0L);
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public long getScheduled() {
+        return get(AppointmentStatus.SCHEDULED);
+    }
+    
+    public long getCompleted() {
+        return get(AppointmentStatus.COMPLETED);
+    }
+    
+    public long getCancelled() {
+        return get(AppointmentStatus.CANCELLED);
+    }
+}
@@ -0,0 +1,50 @@
+package com.mediverse.dto;
+
+import com.mediverse.entity.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row for appointment lists and dashboards: only the columns those views show,
+ * selected as scalars so no entities are loaded or tracked for dirty checking
+ */
+public interface AppointmentSummary {
+    
+    Long getId();
+    
+    String getAppointmentId();
+    
+    LocalDateTime getAppointmentDateTime();
+    
+    AppointmentStatus getStatus();
+    
+    String getReason();
+    
+    Long getPatientId();
+    
+    String getPatientCode();
+    
+    String getPatientFirstName();
+    
+    String getPatientLastName();
+    
+    String getPatientEmail();
+    
+    Long getDoctorId();
+    
+    String getDoctorFirstName();
+    
+    String getDoctorLastName();
+    
+    String getDoctorSpecialization();
+    
+    String getDepartmentName();
+    
+    default String getPatientName() {
+        return getPatientFirstName() + " " + getPatientLastName();
+    }
+    
+    default String getDoctorName() {
+        return getDoctorFirstName() + " " + getDoctorLastName();
+    }
+}
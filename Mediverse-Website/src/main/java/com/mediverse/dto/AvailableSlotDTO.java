@@ -0,0 +1,57 @@
+package com.mediverse.dto;
+
+import java.time.LocalDateTime;
+
+public class AvailableSlotDTO {
+    
+    private Long doctorId;
+    
+    private String doctorName;
+    
+    private String specialization;
+    
+    private LocalDateTime slotStart;
+    
+    // Constructors
+    public AvailableSlotDTO() {}
+    
+    public AvailableSlotDTO(Long doctorId, String doctorName, String specialization, LocalDateTime slotStart) {
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.specialization = specialization;
+        this.slotStart = slotStart;
+    }
+    
+    // Getters and Setters
+    public Long getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public String getDoctorName() {
+        return doctorName;
+    }
+    
+    public void setDoctorName(String doctorName) {
+        this.doctorName = doctorName;
+    }
+    
+    public String getSpecialization() {
+        return specialization;
+    }
+    
+    public void setSpecialization(String specialization) {
+        this.specialization = specialization;
+    }
+    
+    public LocalDateTime getSlotStart() {
+        return slotStart;
+    }
+    
+    public void setSlotStart(LocalDateTime slotStart) {
+        this.slotStart = slotStart;
+    }
+}
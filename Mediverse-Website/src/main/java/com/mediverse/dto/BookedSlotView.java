@@ -0,0 +1,15 @@
+package com.mediverse.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Just enough of an appointment to mark its range as booked
+ */
+public interface BookedSlotView {
+    
+    Long getDoctorId();
+    
+    LocalDateTime getAppointmentDateTime();
+    
+    Integer getDurationMinutes();
+}
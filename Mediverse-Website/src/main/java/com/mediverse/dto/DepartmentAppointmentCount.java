@@ -0,0 +1,15 @@
+package com.mediverse.dto;
+
+/**
+ * Doctor and appointment totals for one department
+ */
+public interface DepartmentAppointmentCount {
+    
+    Long getDepartmentId();
+    
+    String getDepartmentName();
+    
+    Long getDoctorCount();
+    
+    Long getAppointmentCount();
+}
@@ -0,0 +1,60 @@
+package com.mediverse.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class DoctorAvailabilityDTO {
+    
+    private Long doctorId;
+    
+    private String doctorName;
+    
+    private String specialization;
+    
+    private Map<LocalDate, List<LocalTime>> slots = new TreeMap<>();
+    
+    // Constructors
+    public DoctorAvailabilityDTO() {}
+    
+    public DoctorAvailabilityDTO(Long doctorId, String doctorName, String specialization) {
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.specialization = specialization;
+    }
+    
+    // Getters and Setters
+    public Long getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public String getDoctorName() {
+        return doctorName;
+    }
+    
+    public void setDoctorName(String doctorName) {
+        this.doctorName = doctorName;
+    }
+    
+    public String getSpecialization() {
+        return specialization;
+    }
+    
+    public void setSpecialization(String specialization) {
+        this.specialization = specialization;
+    }
+    
+    public Map<LocalDate, List<LocalTime>> getSlots() {
+        return slots;
+    }
+    
+    public void setSlots(Map<LocalDate, List<LocalTime>> slots) {
+        this.slots = slots;
+    }
+}
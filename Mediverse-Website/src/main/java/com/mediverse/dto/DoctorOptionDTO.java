@@ -0,0 +1,45 @@
+package com.mediverse.dto;
+
+import com.mediverse.entity.Doctor;
+
+/**
+ * A doctor as offered in the booking forms' doctor dropdown
+ */
+public class DoctorOptionDTO {
+
+    private final Long id;
+
+    private final String firstName;
+
+    private final String lastName;
+
+    private final String specialization;
+
+    public DoctorOptionDTO(Long id, String firstName, String lastName, String specialization) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.specialization = specialization;
+    }
+
+    public static DoctorOptionDTO of(Doctor doctor) {
+        return new DoctorOptionDTO(doctor.getId(), doctor.getUser().getFirstName(),
+            doctor.getUser().getLastName(), doctor.getSpecialization());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getSpecialization() {
+        return specialization;
+    }
+}
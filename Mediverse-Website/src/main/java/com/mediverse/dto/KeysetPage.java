@@ -0,0 +1,51 @@
+package com.mediverse.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list, with the cursor for the page after it
+ */
+public class KeysetPage<T> {
+    
+    private final List<T> items;
+    
+    private final String nextCursor;
+    
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    /**
+     * Build a page from a query that fetched one row more than the page size; the extra row
+     * only signals that another page exists
+     */
+    public static <T> KeysetPage<T> of(List<T> fetched, int pageSize, Function<T, String> cursorOf) {
+        if (fetched.size() <= pageSize) {
+            return new KeysetPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, pageSize);
+        return new KeysetPage<>(items, cursorOf.apply(items.get(pageSize - 1)));
+    }
+    
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+    
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+    
+    public int getSize() {
+        return items.size();
+    }
+}
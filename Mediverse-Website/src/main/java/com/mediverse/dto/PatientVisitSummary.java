@@ -0,0 +1,29 @@
+package com.mediverse.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A patient with the number of appointments they have had with one doctor
+ */
+public interface PatientVisitSummary {
+    
+    Long getPatientId();
+    
+    String getPatientCode();
+    
+    String getFirstName();
+    
+    String getLastName();
+    
+    String getEmail();
+    
+    String getPhoneNumber();
+    
+    Long getVisitCount();
+    
+    LocalDateTime getLastVisit();
+    
+    default String getFullName() {
+        return getFirstName() + " " + getLastName();
+    }
+}
@@ -0,0 +1,129 @@
+package com.mediverse.dto;
+
+import com.mediverse.entity.Branch;
+import com.mediverse.entity.Department;
+import com.mediverse.entity.Doctor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Active departments, available doctors and active branches as of one point in time,
+ * indexed by id, department and specialization.
+ *
+ * A snapshot never changes once built: every list and map is an unmodifiable copy, and
+ * newer data means a new snapshot. The entities are detached with everything the public
+ * pages render already loaded, and are shared by every reader, so they must not be modified.
+ */
+public final class ReferenceSnapshot {
+
+    public static final ReferenceSnapshot EMPTY = new ReferenceSnapshot(List.of(), List.of(), List.of());
+
+    private final List<Department> departments;
+    private final List<Doctor> doctors;
+    private final List<Branch> branches;
+
+    private final Map<Long, Department> departmentsById;
+    private final Map<Long, Doctor> doctorsById;
+    private final Map<Long, Branch> branchesById;
+    private final Map<Long, List<Doctor>> doctorsByDepartment;
+    private final Map<String, List<Doctor>> doctorsBySpecialization;
+    private final Map<Long, List<DoctorOptionDTO>> doctorOptionsByDepartment;
+    private final Map<Long, Long> doctorCountsByDepartment;
+
+    public ReferenceSnapshot(List<Department> departments, List<Doctor> doctors, List<Branch> branches) {
+        this.departments = List.copyOf(departments);
+        this.doctors = List.copyOf(doctors);
+        this.branches = List.copyOf(branches);
+
+        Map<Long, Department> departmentIndex = new LinkedHashMap<>();
+        departments.forEach(department -> departmentIndex.put(department.getId(), department));
+        Map<Long, Doctor> doctorIndex = new LinkedHashMap<>();
+        Map<Long, List<Doctor>> byDepartment = new LinkedHashMap<>();
+        Map<String, List<Doctor>> bySpecialization = new LinkedHashMap<>();
+        for (Doctor doctor : doctors) {
+            doctorIndex.put(doctor.getId(), doctor);
+            if (doctor.getDepartment() != null) {
+                byDepartment.computeIfAbsent(doctor.getDepartment().getId(), id -> new ArrayList<>()).add(doctor);
+            }
+            bySpecialization.computeIfAbsent(doctor.getSpecialization(), specialization -> new ArrayList<>()).add(doctor);
+        }
+        Map<Long, Branch> branchIndex = new LinkedHashMap<>();
+        branches.forEach(branch -> branchIndex.put(branch.getId(), branch));
+
+        Map<Long, List<DoctorOptionDTO>> options = new LinkedHashMap<>();
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        byDepartment.forEach((departmentId, members) -> {
+            options.put(departmentId, members.stream().map(DoctorOptionDTO::of).toList());
+            counts.put(departmentId, (long) members.size());
+        });
+
+        this.departmentsById = Map.copyOf(departmentIndex);
+        this.doctorsById = Map.copyOf(doctorIndex);
+        this.branchesById = Map.copyOf(branchIndex);
+        this.doctorsByDepartment = copyOfGroups(byDepartment);
+        this.doctorsBySpecialization = copyOfGroups(bySpecialization);
+        this.doctorOptionsByDepartment = Map.copyOf(options);
+        this.doctorCountsByDepartment = Map.copyOf(counts);
+    }
+
+    /**
+     * Active departments, by name
+     */
+    public List<Department> getDepartments() {
+        return departments;
+    }
+
+    /**
+     * Available doctors with active accounts, by name
+     */
+    public List<Doctor> getDoctors() {
+        return doctors;
+    }
+
+    /**
+     * Active branches, by name
+     */
+    public List<Branch> getBranches() {
+        return branches;
+    }
+
+    public Department getDepartment(Long id) {
+        return departmentsById.get(id);
+    }
+
+    public Doctor getDoctor(Long id) {
+        return doctorsById.get(id);
+    }
+
+    public Branch getBranch(Long id) {
+        return branchesById.get(id);
+    }
+
+    public List<Doctor> getDoctorsInDepartment(Long departmentId) {
+        return doctorsByDepartment.getOrDefault(departmentId, List.of());
+    }
+
+    public List<Doctor> getDoctorsWithSpecialization(String specialization) {
+        return doctorsBySpecialization.getOrDefault(specialization, List.of());
+    }
+
+    public List<DoctorOptionDTO> getDoctorOptionsInDepartment(Long departmentId) {
+        return doctorOptionsByDepartment.getOrDefault(departmentId, List.of());
+    }
+
+    /**
+     * Number of available doctors in each department, by department id
+     */
+    public Map<Long, Long> getDoctorCountsByDepartment() {
+        return doctorCountsByDepartment;
+    }
+
+    private static <K> Map<K, List<Doctor>> copyOfGroups(Map<K, List<Doctor>> groups) {
+        Map<K, List<Doctor>> copy = new LinkedHashMap<>();
+        groups.forEach((key, members) -> copy.put(key, List.copyOf(members)));
+        return Map.copyOf(copy);
+    }
+}
@@ -0,0 +1,13 @@
+package com.mediverse.dto;
+
+import com.mediverse.entity.Role;
+
+/**
+ * One row of a user count grouped by role
+ */
+public interface RoleCount {
+    
+    Role getRole();
+    
+    Long getTotal();
+}
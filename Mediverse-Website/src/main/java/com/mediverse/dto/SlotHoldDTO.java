@@ -0,0 +1,57 @@
+package com.mediverse.dto;
+
+import java.time.LocalDateTime;
+
+public class SlotHoldDTO {
+    
+    private String holdId;
+    
+    private Long doctorId;
+    
+    private LocalDateTime slotStart;
+    
+    private LocalDateTime expiresAt;
+    
+    // Constructors
+    public SlotHoldDTO() {}
+    
+    public SlotHoldDTO(String holdId, Long doctorId, LocalDateTime slotStart, LocalDateTime expiresAt) {
+        this.holdId = holdId;
+        this.doctorId = doctorId;
+        this.slotStart = slotStart;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getters and Setters
+    public String getHoldId() {
+        return holdId;
+    }
+    
+    public void setHoldId(String holdId) {
+        this.holdId = holdId;
+    }
+    
+    public Long getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public LocalDateTime getSlotStart() {
+        return slotStart;
+    }
+    
+    public void setSlotStart(LocalDateTime slotStart) {
+        this.slotStart = slotStart;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
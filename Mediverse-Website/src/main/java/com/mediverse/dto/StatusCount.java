@@ -0,0 +1,13 @@
+package com.mediverse.dto;
+
+import com.mediverse.entity.AppointmentStatus;
+
+/**
+ * One row of an appointment count grouped by status
+ */
+public interface StatusCount {
+    
+    AppointmentStatus getStatus();
+    
+    Long getTotal();
+}
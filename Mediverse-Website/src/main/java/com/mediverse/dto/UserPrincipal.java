@@ -0,0 +1,116 @@
+package com.mediverse.dto;
+
+import com.mediverse.entity.Role;
+import com.mediverse.entity.User;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The signed-in user as held in the security context. The user id, role, display name and the
+ * doctor or patient id are resolved once at login, so handlers do not look the caller up on
+ * every request. Injected into handlers with {@code @CurrentUser}.
+ *
+ * {@link #getVersion()} is the user's principal version when the principal was built; it is
+ * rebuilt on a later request once an admin changes the user (see PrincipalVersionService).
+ */
+public class UserPrincipal implements UserDetails, CredentialsContainer {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long userId;
+    private final String email;
+    private String password;
+    private final Role role;
+    private final String firstName;
+    private final String lastName;
+    private final boolean active;
+    private final Long doctorId;
+    private final Long patientId;
+    private final long version;
+
+    public UserPrincipal(User user, Long doctorId, Long patientId, long version) {
+        this.userId = user.getId();
+        this.email = user.getEmail();
+        this.password = user.getPassword();
+        this.role = user.getRole();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.active = Boolean.TRUE.equals(user.getIsActive());
+        this.doctorId = doctorId;
+        this.patientId = patientId;
+        this.version = version;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+
+    /**
+     * The caller's doctor record id, or null unless they are a doctor with a record
+     */
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    /**
+     * The caller's patient record id, or null unless they are a patient with a record
+     */
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+
+    // Called once authentication succeeds, so the hash does not sit in the session
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+}
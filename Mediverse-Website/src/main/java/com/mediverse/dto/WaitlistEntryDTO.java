@@ -0,0 +1,104 @@
+package com.mediverse.dto;
+
+import com.mediverse.entity.WaitlistEntry;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class WaitlistEntryDTO {
+    
+    private Long id;
+    
+    private Long doctorId;
+    
+    private String doctorName;
+    
+    private LocalDate earliestDate;
+    
+    private LocalDate latestDate;
+    
+    private String status;
+    
+    private Long appointmentId;
+    
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public WaitlistEntryDTO() {}
+    
+    public WaitlistEntryDTO(WaitlistEntry entry) {
+        this.id = entry.getId();
+        this.doctorId = entry.getDoctor().getId();
+        this.doctorName = entry.getDoctor().getFullName();
+        this.earliestDate = entry.getEarliestDate();
+        this.latestDate = entry.getLatestDate();
+        this.status = entry.getStatus().name();
+        this.appointmentId = entry.getAppointmentId();
+        this.createdAt = entry.getCreatedAt();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public String getDoctorName() {
+        return doctorName;
+    }
+    
+    public void setDoctorName(String doctorName) {
+        this.doctorName = doctorName;
+    }
+    
+    public LocalDate getEarliestDate() {
+        return earliestDate;
+    }
+    
+    public void setEarliestDate(LocalDate earliestDate) {
+        this.earliestDate = earliestDate;
+    }
+    
+    public LocalDate getLatestDate() {
+        return latestDate;
+    }
+    
+    public void setLatestDate(LocalDate latestDate) {
+        this.latestDate = latestDate;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public Long getAppointmentId() {
+        return appointmentId;
+    }
+    
+    public void setAppointmentId(Long appointmentId) {
+        this.appointmentId = appointmentId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,16 +1,36 @@
 package com.mediverse.entity;
 
+import com.mediverse.util.BusinessIds;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@NamedEntityGraph(name = Appointment.WITH_PARTICIPANTS,
+    attributeNodes = {
+        @NamedAttributeNode(value = "patient", subgraph = "patient"),
+        @NamedAttributeNode(value = "doctor", subgraph = "doctor")
+    },
+    subgraphs = {
+        @NamedSubgraph(name = "patient", attributeNodes = @NamedAttributeNode("user")),
+        @NamedSubgraph(name = "doctor", attributeNodes = { @NamedAttributeNode("user"), @NamedAttributeNode("department") })
+    })
+@Table(name = "appointments", indexes = {
+    @Index(name = "idx_appointment_date_time", columnList = "appointment_date_time, id"),
+    @Index(name = "idx_appointment_doctor_date_time", columnList = "doctor_id, appointment_date_time"),
+    @Index(name = "idx_appointment_patient_date_time", columnList = "patient_id, appointment_date_time"),
+    @Index(name = "idx_appointment_status", columnList = "status")
+})
 public class Appointment {
     
+    // Loads patient and doctor with their users, and the doctor's department, in the same select as the appointment
+    public static final String WITH_PARTICIPANTS = "Appointment.withParticipants";
+    
+    // Ids come from a pooled sequence 50 at a time, which lets Hibernate batch inserts (IDENTITY cannot)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_ids")
+    @SequenceGenerator(name = "appointment_ids", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "appointment_id", unique = true)
@@ -37,15 +57,6 @@ public class Appointment {
     @Column(name = "reason", length = 500)
     private String reason;
     
-    @Column(name = "notes", length = 2000)
-    private String notes;
-    
-    @Column(name = "prescription", length = 2000)
-    private String prescription;
-    
-    @Column(name = "diagnosis", length = 1000)
-    private String diagnosis;
-    
     @Column(name = "duration_minutes")
     private Integer durationMinutes = 30; // Default 30 minutes
     
@@ -88,7 +99,7 @@ public class Appointment {
     }
     
     private String generateAppointmentId() {
-        return "APP" + System.currentTimeMillis();
+        return BusinessIds.next(BusinessIds.APPOINTMENT_PREFIX);
     }
     
     // Getters and Setters
@@ -148,30 +159,6 @@ public class Appointment {
         this.reason = reason;
     }
     
-    public String getNotes() {
-        return notes;
-    }
-    
-    public void setNotes(String notes) {
-        this.notes = notes;
-    }
-    
-    public String getPrescription() {
-        return prescription;
-    }
-    
-    public void setPrescription(String prescription) {
-        this.prescription = prescription;
-    }
-    
-    public String getDiagnosis() {
-        return diagnosis;
-    }
-    
-    public void setDiagnosis(String diagnosis) {
-        this.diagnosis = diagnosis;
-    }
-    
     public Integer getDurationMinutes() {
         return durationMinutes;
     }
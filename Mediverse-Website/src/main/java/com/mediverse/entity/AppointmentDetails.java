@@ -0,0 +1,112 @@
+package com.mediverse.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * The clinical text of an appointment, kept out of the appointments table so list queries
+ * read narrow rows. Shares the appointment's id; an appointment without a row here has no
+ * notes, diagnosis or prescription. The row goes when its appointment is deleted.
+ */
+@Entity
+@Table(name = "appointment_details")
+public class AppointmentDetails {
+
+    @Id
+    private Long id;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "appointment_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Appointment appointment;
+
+    @Column(name = "notes", length = 2000)
+    private String notes;
+
+    @Column(name = "prescription", length = 2000)
+    private String prescription;
+
+    @Column(name = "diagnosis", length = 1000)
+    private String diagnosis;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public AppointmentDetails() {
+    }
+
+    public AppointmentDetails(Appointment appointment) {
+        this.appointment = appointment;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Whether there is nothing worth storing
+     */
+    public boolean isEmpty() {
+        return isBlank(notes) && isBlank(prescription) && isBlank(diagnosis);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Appointment getAppointment() {
+        return appointment;
+    }
+
+    public void setAppointment(Appointment appointment) {
+        this.appointment = appointment;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public String getPrescription() {
+        return prescription;
+    }
+
+    public void setPrescription(String prescription) {
+        this.prescription = prescription;
+    }
+
+    public String getDiagnosis() {
+        return diagnosis;
+    }
+
+    public void setDiagnosis(String diagnosis) {
+        this.diagnosis = diagnosis;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -1,6 +1,7 @@
 package com.mediverse.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.mediverse.util.BusinessIds;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 
@@ -10,12 +11,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "doctors")
+@Table(name = "doctors", indexes = {
+    @Index(name = "idx_doctor_department_available", columnList = "department_id, is_available"),
+    @Index(name = "idx_doctor_specialization_available", columnList = "specialization, is_available")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "department.doctors"})
 public class Doctor {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctor_ids")
+    @SequenceGenerator(name = "doctor_ids", sequenceName = "doctors_seq", allocationSize = 50)
     private Long id;
     
     @OneToOne
@@ -66,7 +71,8 @@ public class Doctor {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // Read-only view: appointments are removed with set-based deletes, never through this collection
+    @OneToMany(mappedBy = "doctor", fetch = FetchType.LAZY)
     private List<Appointment> appointments = new ArrayList<>();
     
     // Constructors
@@ -97,7 +103,7 @@ public class Doctor {
     }
     
     private String generateDoctorId() {
-        return "DOC" + System.currentTimeMillis();
+        return BusinessIds.next(BusinessIds.DOCTOR_PREFIX);
     }
     
     // Getters and Setters
@@ -1,5 +1,6 @@
 package com.mediverse.entity;
 
+import com.mediverse.util.BusinessIds;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 
@@ -13,7 +14,8 @@ import java.util.List;
 public class Patient {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_ids")
+    @SequenceGenerator(name = "patient_ids", sequenceName = "patients_seq", allocationSize = 50)
     private Long id;
     
     @OneToOne
@@ -38,15 +40,6 @@ public class Patient {
     @Column(name = "emergency_contact_phone")
     private String emergencyContactPhone;
     
-    @Column(name = "medical_history", length = 2000)
-    private String medicalHistory;
-    
-    @Column(name = "allergies", length = 1000)
-    private String allergies;
-    
-    @Column(name = "current_medications", length = 1000)
-    private String currentMedications;
-    
     @Column(name = "address", length = 500)
     private String address;
     
@@ -56,7 +49,7 @@ public class Patient {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "patient", fetch = FetchType.LAZY)
     private List<Appointment> appointments = new ArrayList<>();
     
     // Constructors
@@ -86,7 +79,7 @@ public class Patient {
     }
     
     private String generatePatientId() {
-        return "PAT" + System.currentTimeMillis();
+        return BusinessIds.next(BusinessIds.PATIENT_PREFIX);
     }
     
     // Getters and Setters
@@ -154,30 +147,6 @@ public class Patient {
         this.emergencyContactPhone = emergencyContactPhone;
     }
     
-    public String getMedicalHistory() {
-        return medicalHistory;
-    }
-    
-    public void setMedicalHistory(String medicalHistory) {
-        this.medicalHistory = medicalHistory;
-    }
-    
-    public String getAllergies() {
-        return allergies;
-    }
-    
-    public void setAllergies(String allergies) {
-        this.allergies = allergies;
-    }
-    
-    public String getCurrentMedications() {
-        return currentMedications;
-    }
-    
-    public void setCurrentMedications(String currentMedications) {
-        this.currentMedications = currentMedications;
-    }
-    
     public String getAddress() {
         return address;
     }
@@ -0,0 +1,112 @@
+package com.mediverse.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * A patient's medical history, allergies and current medications, kept out of the patients
+ * table so patient lists read narrow rows. Shares the patient's id; a patient without a row
+ * here has nothing recorded. The row goes when its patient is deleted.
+ */
+@Entity
+@Table(name = "patient_clinical_profiles")
+public class PatientClinicalProfile {
+
+    @Id
+    private Long id;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Patient patient;
+
+    @Column(name = "medical_history", length = 2000)
+    private String medicalHistory;
+
+    @Column(name = "allergies", length = 1000)
+    private String allergies;
+
+    @Column(name = "current_medications", length = 1000)
+    private String currentMedications;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public PatientClinicalProfile() {
+    }
+
+    public PatientClinicalProfile(Patient patient) {
+        this.patient = patient;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Whether there is nothing worth storing
+     */
+    public boolean isEmpty() {
+        return isBlank(medicalHistory) && isBlank(allergies) && isBlank(currentMedications);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public void setPatient(Patient patient) {
+        this.patient = patient;
+    }
+
+    public String getMedicalHistory() {
+        return medicalHistory;
+    }
+
+    public void setMedicalHistory(String medicalHistory) {
+        this.medicalHistory = medicalHistory;
+    }
+
+    public String getAllergies() {
+        return allergies;
+    }
+
+    public void setAllergies(String allergies) {
+        this.allergies = allergies;
+    }
+
+    public String getCurrentMedications() {
+        return currentMedications;
+    }
+
+    public void setCurrentMedications(String currentMedications) {
+        this.currentMedications = currentMedications;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,215 @@
+package com.mediverse.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bulk move of a doctor's appointments out of a time window.
+ * Appointments are processed in id order and lastAppointmentId records how far the job got,
+ * so an interrupted job picks up where it stopped.
+ */
+@Entity
+@Table(name = "reschedule_jobs")
+public class RescheduleJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+    
+    @Column(name = "window_start", nullable = false)
+    @NotNull(message = "Start is required")
+    private LocalDateTime windowStart;
+    
+    @Column(name = "window_end", nullable = false)
+    @NotNull(message = "End is required")
+    private LocalDateTime windowEnd;
+    
+    // Whether appointments may move to other doctors in the same department
+    @Column(name = "allow_other_doctors", nullable = false)
+    private Boolean allowOtherDoctors = true;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private RescheduleJobStatus status = RescheduleJobStatus.PENDING;
+    
+    @Column(name = "total_count", nullable = false)
+    private Integer totalCount = 0;
+    
+    @Column(name = "moved_count", nullable = false)
+    private Integer movedCount = 0;
+    
+    @Column(name = "unmoved_count", nullable = false)
+    private Integer unmovedCount = 0;
+    
+    @Column(name = "last_appointment_id", nullable = false)
+    private Long lastAppointmentId = 0L;
+    
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    // Constructors
+    public RescheduleJob() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public RescheduleJob(Doctor doctor, LocalDateTime windowStart, LocalDateTime windowEnd, boolean allowOtherDoctors) {
+        this();
+        this.doctor = doctor;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.allowOtherDoctors = allowOtherDoctors;
+    }
+    
+    public int getProcessedCount() {
+        return movedCount + unmovedCount;
+    }
+    
+    public int getPercentComplete() {
+        if (status == RescheduleJobStatus.COMPLETED) {
+            return 100;
+        }
+        return totalCount > 0 ? Math.min(100, getProcessedCount() * 100 / totalCount) : 0;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Doctor getDoctor() {
+        return doctor;
+    }
+    
+    public void setDoctor(Doctor doctor) {
+        this.doctor = doctor;
+    }
+    
+    public LocalDateTime getWindowStart() {
+        return windowStart;
+    }
+    
+    public void setWindowStart(LocalDateTime windowStart) {
+        this.windowStart = windowStart;
+    }
+    
+    public LocalDateTime getWindowEnd() {
+        return windowEnd;
+    }
+    
+    public void setWindowEnd(LocalDateTime windowEnd) {
+        this.windowEnd = windowEnd;
+    }
+    
+    public Boolean getAllowOtherDoctors() {
+        return allowOtherDoctors;
+    }
+    
+    public void setAllowOtherDoctors(Boolean allowOtherDoctors) {
+        this.allowOtherDoctors = allowOtherDoctors;
+    }
+    
+    public RescheduleJobStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(RescheduleJobStatus status) {
+        this.status = status;
+    }
+    
+    public Integer getTotalCount() {
+        return totalCount;
+    }
+    
+    public void setTotalCount(Integer totalCount) {
+        this.totalCount = totalCount;
+    }
+    
+    public Integer getMovedCount() {
+        return movedCount;
+    }
+    
+    public void setMovedCount(Integer movedCount) {
+        this.movedCount = movedCount;
+    }
+    
+    public Integer getUnmovedCount() {
+        return unmovedCount;
+    }
+    
+    public void setUnmovedCount(Integer unmovedCount) {
+        this.unmovedCount = unmovedCount;
+    }
+    
+    public Long getLastAppointmentId() {
+        return lastAppointmentId;
+    }
+    
+    public void setLastAppointmentId(Long lastAppointmentId) {
+        this.lastAppointmentId = lastAppointmentId;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "RescheduleJob{" +
+                "id=" + id +
+                ", windowStart=" + windowStart +
+                ", windowEnd=" + windowEnd +
+                ", status=" + status +
+                ", totalCount=" + totalCount +
+                ", movedCount=" + movedCount +
+                ", unmovedCount=" + unmovedCount +
+                '}';
+    }
+}
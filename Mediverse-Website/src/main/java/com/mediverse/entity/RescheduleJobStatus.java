@@ -0,0 +1,24 @@
+package com.mediverse.entity;
+
+public enum RescheduleJobStatus {
+    PENDING("Pending"),
+    RUNNING("Running"),
+    PAUSED("Paused"),
+    COMPLETED("Completed"),
+    FAILED("Failed");
+    
+    private final String displayName;
+    
+    RescheduleJobStatus(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
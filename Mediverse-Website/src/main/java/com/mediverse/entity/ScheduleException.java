@@ -0,0 +1,143 @@
+package com.mediverse.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * A period when a doctor, or every doctor, takes no appointments: leave, holidays, half-days.
+ * The period is half-open, from startsAt up to but not including endsAt.
+ */
+@Entity
+@Table(name = "schedule_exceptions", indexes = {
+    @Index(name = "idx_schedule_exception_doctor", columnList = "doctor_id, ends_at"),
+    @Index(name = "idx_schedule_exception_ends", columnList = "ends_at")
+})
+public class ScheduleException {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Null for hospital-wide closures, which apply to every doctor
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id")
+    private Doctor doctor;
+    
+    // Branch that announced a hospital-wide closure, for reference only
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "branch_id")
+    private Branch branch;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private ScheduleExceptionType type = ScheduleExceptionType.LEAVE;
+    
+    @Column(name = "starts_at", nullable = false)
+    @NotNull(message = "Start is required")
+    private LocalDateTime startsAt;
+    
+    @Column(name = "ends_at", nullable = false)
+    @NotNull(message = "End is required")
+    private LocalDateTime endsAt;
+    
+    @Column(name = "reason", length = 500)
+    private String reason;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public ScheduleException() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public ScheduleException(Doctor doctor, ScheduleExceptionType type, LocalDateTime startsAt, LocalDateTime endsAt) {
+        this();
+        this.doctor = doctor;
+        this.type = type;
+        this.startsAt = startsAt;
+        this.endsAt = endsAt;
+    }
+    
+    public boolean isHospitalWide() {
+        return doctor == null;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Doctor getDoctor() {
+        return doctor;
+    }
+    
+    public void setDoctor(Doctor doctor) {
+        this.doctor = doctor;
+    }
+    
+    public Branch getBranch() {
+        return branch;
+    }
+    
+    public void setBranch(Branch branch) {
+        this.branch = branch;
+    }
+    
+    public ScheduleExceptionType getType() {
+        return type;
+    }
+    
+    public void setType(ScheduleExceptionType type) {
+        this.type = type;
+    }
+    
+    public LocalDateTime getStartsAt() {
+        return startsAt;
+    }
+    
+    public void setStartsAt(LocalDateTime startsAt) {
+        this.startsAt = startsAt;
+    }
+    
+    public LocalDateTime getEndsAt() {
+        return endsAt;
+    }
+    
+    public void setEndsAt(LocalDateTime endsAt) {
+        this.endsAt = endsAt;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+    
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "ScheduleException{" +
+                "id=" + id +
+                ", type=" + type +
+                ", startsAt=" + startsAt +
+                ", endsAt=" + endsAt +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
+}
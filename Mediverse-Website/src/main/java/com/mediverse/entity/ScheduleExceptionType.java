@@ -0,0 +1,23 @@
+package com.mediverse.entity;
+
+public enum ScheduleExceptionType {
+    LEAVE("Leave"),
+    HOLIDAY("Holiday"),
+    HALF_DAY("Half Day"),
+    OTHER("Other");
+    
+    private final String displayName;
+    
+    ScheduleExceptionType(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,85 @@
+package com.mediverse.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One claimed block of a doctor's calendar. The primary key on (doctor_id, slot_start)
+ * is what stops two appointments, from any app instance, holding the same block.
+ */
+@Entity
+@Table(name = "appointment_slot_ledger",
+       indexes = @Index(name = "idx_slot_ledger_appointment", columnList = "appointment_id"))
+public class SlotLedgerEntry implements Persistable<SlotLedgerId> {
+    
+    @EmbeddedId
+    private SlotLedgerId id;
+    
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Entries are only ever inserted or deleted, so skip the select-before-insert merge
+    @Transient
+    private boolean isNew = true;
+    
+    // Constructors
+    public SlotLedgerEntry() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public SlotLedgerEntry(Long doctorId, LocalDateTime slotStart, Long appointmentId) {
+        this();
+        this.id = new SlotLedgerId(doctorId, slotStart);
+        this.appointmentId = appointmentId;
+    }
+    
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+    
+    // Getters and Setters
+    @Override
+    public SlotLedgerId getId() {
+        return id;
+    }
+    
+    public void setId(SlotLedgerId id) {
+        this.id = id;
+    }
+    
+    public Long getAppointmentId() {
+        return appointmentId;
+    }
+    
+    public void setAppointmentId(Long appointmentId) {
+        this.appointmentId = appointmentId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    @Override
+    public String toString() {
+        return "SlotLedgerEntry{" +
+                "id=" + id +
+                ", appointmentId=" + appointmentId +
+                '}';
+    }
+}
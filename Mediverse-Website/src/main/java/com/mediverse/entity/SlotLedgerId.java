@@ -0,0 +1,64 @@
+package com.mediverse.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Embeddable
+public class SlotLedgerId implements Serializable {
+    
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+    
+    @Column(name = "slot_start", nullable = false)
+    private LocalDateTime slotStart;
+    
+    // Constructors
+    public SlotLedgerId() {
+    }
+    
+    public SlotLedgerId(Long doctorId, LocalDateTime slotStart) {
+        this.doctorId = doctorId;
+        this.slotStart = slotStart;
+    }
+    
+    // Getters and Setters
+    public Long getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public LocalDateTime getSlotStart() {
+        return slotStart;
+    }
+    
+    public void setSlotStart(LocalDateTime slotStart) {
+        this.slotStart = slotStart;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SlotLedgerId that)) return false;
+        return Objects.equals(doctorId, that.doctorId) && Objects.equals(slotStart, that.slotStart);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(doctorId, slotStart);
+    }
+    
+    @Override
+    public String toString() {
+        return "SlotLedgerId{" +
+                "doctorId=" + doctorId +
+                ", slotStart=" + slotStart +
+                '}';
+    }
+}
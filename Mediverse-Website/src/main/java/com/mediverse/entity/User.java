@@ -8,11 +8,15 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_user_name", columnList = "last_name, first_name, id"),
+    @Index(name = "idx_user_role_active", columnList = "role, is_active")
+})
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_ids")
+    @SequenceGenerator(name = "user_ids", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -49,6 +53,10 @@ public class User {
     @Column(name = "is_active")
     private Boolean isActive = true;
     
+    // Only ever bumped in the database (see PrincipalVersionService), so saves never write it back
+    @Column(name = "principal_version", nullable = false, insertable = false, updatable = false)
+    private long principalVersion;
+    
     // Constructors
     public User() {
         this.createdAt = LocalDateTime.now();
@@ -157,6 +165,10 @@ public class User {
         this.isActive = isActive;
     }
     
+    public long getPrincipalVersion() {
+        return principalVersion;
+    }
+    
     // Utility methods
     public String getFullName() {
         return firstName + " " + lastName;
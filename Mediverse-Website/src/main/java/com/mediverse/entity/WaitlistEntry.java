@@ -0,0 +1,157 @@
+package com.mediverse.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A patient waiting for any free slot with a doctor between two dates
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+    @Index(name = "idx_waitlist_doctor_status", columnList = "doctor_id, status, created_at"),
+    @Index(name = "idx_waitlist_patient", columnList = "patient_id")
+})
+public class WaitlistEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false)
+    @NotNull(message = "Patient is required")
+    private Patient patient;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    @NotNull(message = "Doctor is required")
+    private Doctor doctor;
+    
+    @Column(name = "earliest_date", nullable = false)
+    @NotNull(message = "Earliest date is required")
+    private LocalDate earliestDate;
+    
+    @Column(name = "latest_date", nullable = false)
+    @NotNull(message = "Latest date is required")
+    private LocalDate latestDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+    
+    // Appointment booked for this entry; a plain id so deleting the appointment is not blocked
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public WaitlistEntry() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public WaitlistEntry(Patient patient, Doctor doctor, LocalDate earliestDate, LocalDate latestDate) {
+        this();
+        this.patient = patient;
+        this.doctor = doctor;
+        this.earliestDate = earliestDate;
+        this.latestDate = latestDate;
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Patient getPatient() {
+        return patient;
+    }
+    
+    public void setPatient(Patient patient) {
+        this.patient = patient;
+    }
+    
+    public Doctor getDoctor() {
+        return doctor;
+    }
+    
+    public void setDoctor(Doctor doctor) {
+        this.doctor = doctor;
+    }
+    
+    public LocalDate getEarliestDate() {
+        return earliestDate;
+    }
+    
+    public void setEarliestDate(LocalDate earliestDate) {
+        this.earliestDate = earliestDate;
+    }
+    
+    public LocalDate getLatestDate() {
+        return latestDate;
+    }
+    
+    public void setLatestDate(LocalDate latestDate) {
+        this.latestDate = latestDate;
+    }
+    
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(WaitlistStatus status) {
+        this.status = status;
+    }
+    
+    public Long getAppointmentId() {
+        return appointmentId;
+    }
+    
+    public void setAppointmentId(Long appointmentId) {
+        this.appointmentId = appointmentId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "WaitlistEntry{" +
+                "id=" + id +
+                ", earliestDate=" + earliestDate +
+                ", latestDate=" + latestDate +
+                ", status=" + status +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,23 @@
+package com.mediverse.entity;
+
+public enum WaitlistStatus {
+    WAITING("Waiting"),
+    BOOKED("Booked"),
+    CANCELLED("Cancelled"),
+    EXPIRED("Expired");
+    
+    private final String displayName;
+    
+    WaitlistStatus(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,9 @@
+package com.mediverse.repository;
+
+import com.mediverse.entity.AppointmentDetails;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AppointmentDetailsRepository extends JpaRepository<AppointmentDetails, Long> {
+}
@@ -1,21 +1,39 @@
 package com.mediverse.repository;
 
+import com.mediverse.dto.AppointmentSummary;
+import com.mediverse.dto.BookedSlotView;
 import com.mediverse.entity.Appointment;
 import com.mediverse.entity.AppointmentStatus;
 import com.mediverse.entity.Doctor;
 import com.mediverse.entity.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
     
+    // Columns and joins behind AppointmentSummary
+    String SUMMARY_SELECT = "SELECT a.id AS id, a.appointmentId AS appointmentId, a.appointmentDateTime AS appointmentDateTime, " +
+        "a.status AS status, a.reason AS reason, p.id AS patientId, p.patientId AS patientCode, " +
+        "pu.firstName AS patientFirstName, pu.lastName AS patientLastName, pu.email AS patientEmail, " +
+        "d.id AS doctorId, du.firstName AS doctorFirstName, du.lastName AS doctorLastName, " +
+        "d.specialization AS doctorSpecialization, dep.name AS departmentName " +
+        "FROM Appointment a JOIN a.patient p JOIN p.user pu JOIN a.doctor d JOIN d.user du LEFT JOIN d.department dep ";
+    
     Optional<Appointment> findByAppointmentId(String appointmentId);
     
     List<Appointment> findByPatient(Patient patient);
@@ -24,9 +42,11 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     
     List<Appointment> findByStatus(AppointmentStatus status);
     
+    @EntityGraph(Appointment.WITH_PARTICIPANTS)
     @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId ORDER BY a.appointmentDateTime DESC")
     List<Appointment> findByPatientIdOrderByDateDesc(@Param("patientId") Long patientId);
     
+    @EntityGraph(Appointment.WITH_PARTICIPANTS)
     @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId ORDER BY a.appointmentDateTime ASC")
     List<Appointment> findByDoctorIdOrderByDateAsc(@Param("doctorId") Long doctorId);
     
@@ -42,13 +62,117 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.appointmentDateTime BETWEEN :startDate AND :endDate")
     List<Appointment> findByPatientIdAndDateBetween(@Param("patientId") Long patientId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
+    @Query("SELECT a FROM Appointment a WHERE a.appointmentDateTime >= :from AND a.status <> :excludedStatus")
+    List<Appointment> findByAppointmentDateTimeFromExcludingStatus(@Param("from") LocalDateTime from, @Param("excludedStatus") AppointmentStatus excludedStatus);
+    
+    @Query("SELECT a.doctor.id AS doctorId, a.appointmentDateTime AS appointmentDateTime, a.durationMinutes AS durationMinutes " +
+           "FROM Appointment a WHERE a.doctor.id IN :doctorIds AND a.appointmentDateTime >= :start AND a.appointmentDateTime < :end " +
+           "AND a.status <> :excludedStatus")
+    List<BookedSlotView> findBookedSlotsForDoctors(@Param("doctorIds") Collection<Long> doctorIds, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end, @Param("excludedStatus") AppointmentStatus excludedStatus);
+    
+    /**
+     * One keyset page of a doctor's appointments in [from, to), in id order, starting after afterId
+     */
+    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to " +
+           "AND a.status IN :statuses AND a.id > :afterId ORDER BY a.id ASC")
+    List<Appointment> findForReschedule(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                        @Param("statuses") Collection<AppointmentStatus> statuses, @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to " +
+           "AND a.status IN :statuses")
+    long countForReschedule(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                            @Param("statuses") Collection<AppointmentStatus> statuses);
+    
+    @EntityGraph(Appointment.WITH_PARTICIPANTS)
     List<Appointment> findTop10ByOrderByAppointmentDateTimeDesc();
     
+    // Keyset pages for the admin list: filters are skipped when null, and a null cursor starts at the first row
+    
+    @Query(SUMMARY_SELECT +
+           "WHERE (:status IS NULL OR a.status = :status) AND (:doctorId IS NULL OR d.id = :doctorId) " +
+           "AND (:from IS NULL OR a.appointmentDateTime >= :from) AND (:to IS NULL OR a.appointmentDateTime < :to) " +
+           "AND (:afterId IS NULL OR a.appointmentDateTime < :afterDateTime OR (a.appointmentDateTime = :afterDateTime AND a.id < :afterId)) " +
+           "ORDER BY a.appointmentDateTime DESC, a.id DESC")
+    List<AppointmentSummary> findPageLatestFirst(@Param("status") AppointmentStatus status, @Param("doctorId") Long doctorId,
+                                                 @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                                 @Param("afterDateTime") LocalDateTime afterDateTime, @Param("afterId") Long afterId,
+                                                 Pageable pageable);
+    
+    @Query(SUMMARY_SELECT +
+           "WHERE (:status IS NULL OR a.status = :status) AND (:doctorId IS NULL OR d.id = :doctorId) " +
+           "AND (:from IS NULL OR a.appointmentDateTime >= :from) AND (:to IS NULL OR a.appointmentDateTime < :to) " +
+           "AND (:afterId IS NULL OR a.appointmentDateTime > :afterDateTime OR (a.appointmentDateTime = :afterDateTime AND a.id > :afterId)) " +
+           "ORDER BY a.appointmentDateTime ASC, a.id ASC")
+    List<AppointmentSummary> findPageEarliestFirst(@Param("status") AppointmentStatus status, @Param("doctorId") Long doctorId,
+                                                   @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                                   @Param("afterDateTime") LocalDateTime afterDateTime, @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+    
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctor.department.id = :departmentId")
+    long countByDepartmentId(@Param("departmentId") Long departmentId);
+    
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.status = :status")
     long countByStatus(@Param("status") AppointmentStatus status);
     
-    @Query("SELECT a FROM Appointment a WHERE DATE(a.appointmentDateTime) = CURRENT_DATE ORDER BY a.appointmentDateTime ASC")
-    List<Appointment> findTodaysAppointments();
+    
+    // Dashboard projections
+    
+    @Query(SUMMARY_SELECT + "WHERE d.id = :doctorId ORDER BY a.appointmentDateTime DESC")
+    List<AppointmentSummary> findSummariesByDoctorId(@Param("doctorId") Long doctorId, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id = :patientId ORDER BY a.appointmentDateTime DESC")
+    List<AppointmentSummary> findSummariesByPatientId(@Param("patientId") Long patientId, Pageable pageable);
+    
+    // Half-open range on (doctor_id, appointment_date_time) so the composite index is used
+    @Query(SUMMARY_SELECT + "WHERE d.id = :doctorId AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to " +
+           "ORDER BY a.appointmentDateTime ASC")
+    List<AppointmentSummary> findSummariesForDoctorBetween(@Param("doctorId") Long doctorId,
+                                                           @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
     
     boolean existsByAppointmentId(String appointmentId);
+    
+    // Fetch size that makes Connector/J stream rows one by one instead of reading the whole result
+    String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+    
+    /**
+     * Every appointment matching the filters, in id order, with patient, doctor and department, for exports.
+     * The driver streams the rows, so the result is never held in memory; only this statement's
+     * execution changes. Nothing else may run on the connection until the stream is closed, which is
+     * why every association is fetched here. Consume and close it inside a read-only transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient p JOIN FETCH p.user JOIN FETCH a.doctor d JOIN FETCH d.user " +
+           "LEFT JOIN FETCH d.department WHERE (:status IS NULL OR a.status = :status) AND (:doctorId IS NULL OR d.id = :doctorId) " +
+           "ORDER BY a.id ASC")
+    Stream<Appointment> streamForExport(@Param("status") AppointmentStatus status, @Param("doctorId") Long doctorId);
+    
+    /**
+     * Doctors the patient has open appointments with from the given time on
+     */
+    @Query("SELECT DISTINCT a.doctor.id FROM Appointment a WHERE a.patient.id = :patientId AND a.appointmentDateTime >= :from " +
+           "AND a.status <> :excludedStatus")
+    List<Long> findDoctorIdsForPatientFrom(@Param("patientId") Long patientId, @Param("from") LocalDateTime from,
+                                           @Param("excludedStatus") AppointmentStatus excludedStatus);
+    
+    // Set-based writes: one statement however many rows match, and no appointment is loaded.
+    // Appointments already in the persistence context are stale afterwards, so it is flushed before and cleared after.
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :status, a.updatedAt = CURRENT_TIMESTAMP WHERE a.doctor.id = :doctorId " +
+           "AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to AND a.status IN :currentStatuses")
+    int updateStatusForDoctorBetween(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                     @Param("currentStatuses") Collection<AppointmentStatus> currentStatuses,
+                                     @Param("status") AppointmentStatus status);
+    
+    // Clinical details go with them through ON DELETE CASCADE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Appointment a WHERE a.doctor.id = :doctorId")
+    int deleteByDoctorId(@Param("doctorId") Long doctorId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Appointment a WHERE a.patient.id = :patientId")
+    int deleteByPatientId(@Param("patientId") Long patientId);
 }
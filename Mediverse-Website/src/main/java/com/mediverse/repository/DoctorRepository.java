@@ -3,13 +3,19 @@ package com.mediverse.repository;
 import com.mediverse.entity.Doctor;
 import com.mediverse.entity.Department;
 import com.mediverse.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
@@ -20,6 +26,9 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     
     Optional<Doctor> findByUser(User user);
     
+    @Query("SELECT d.id FROM Doctor d WHERE d.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+    
     @Query("SELECT d FROM Doctor d WHERE d.user.email = :email")
     Optional<Doctor> findByUserEmail(@Param("email") String email);
     
@@ -33,13 +42,64 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     @Query("SELECT d FROM Doctor d WHERE d.department.id = :departmentId AND d.isAvailable = true")
     List<Doctor> findAvailableDoctorsByDepartment(@Param("departmentId") Long departmentId);
     
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user WHERE d.department.id = :departmentId AND d.isAvailable = true")
+    List<Doctor> findAvailableDoctorsByDepartmentWithUser(@Param("departmentId") Long departmentId);
+    
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user WHERE d.specialization = :specialization AND d.isAvailable = true")
+    List<Doctor> findAvailableDoctorsBySpecializationWithUser(@Param("specialization") String specialization);
+    
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user u ORDER BY u.lastName, u.firstName")
+    List<Doctor> findAllWithUser();
+    
+    // Doctor cards with everything the public pages render, for the reference snapshot
+    
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user u LEFT JOIN FETCH d.department " +
+           "WHERE d.isAvailable = true AND u.isActive = true ORDER BY u.lastName, u.firstName, d.id")
+    List<Doctor> findAvailableDoctorsWithDetails();
+    
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user WHERE d.id IN :ids")
+    List<Doctor> findAllByIdWithUser(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT d FROM Doctor d WHERE d.department.id = :departmentId")
     List<Doctor> findByDepartmentId(@Param("departmentId") Long departmentId);
     
+    long countByIsAvailableTrue();
+    
+    @Query("SELECT COUNT(DISTINCT d.specialization) FROM Doctor d")
+    long countDistinctSpecializations();
+    
+    // Keyset pages for the admin list: filters are skipped when null, and a null cursor starts at the first row
+    
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user u LEFT JOIN FETCH d.department dep " +
+           "WHERE (:departmentId IS NULL OR dep.id = :departmentId) AND (:available IS NULL OR d.isAvailable = :available) " +
+           "AND (:search IS NULL OR u.firstName LIKE :search OR u.lastName LIKE :search OR d.specialization LIKE :search) " +
+           "AND (:afterId IS NULL OR d.id < :afterId) " +
+           "ORDER BY d.id DESC")
+    List<Doctor> findPageNewestFirst(@Param("departmentId") Long departmentId, @Param("available") Boolean available,
+                                     @Param("search") String search, @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user u LEFT JOIN FETCH d.department dep " +
+           "WHERE (:departmentId IS NULL OR dep.id = :departmentId) AND (:available IS NULL OR d.isAvailable = :available) " +
+           "AND (:search IS NULL OR u.firstName LIKE :search OR u.lastName LIKE :search OR d.specialization LIKE :search) " +
+           "AND (:afterId IS NULL OR u.lastName > :afterLastName OR (u.lastName = :afterLastName " +
+           "AND (u.firstName > :afterFirstName OR (u.firstName = :afterFirstName AND d.id > :afterId)))) " +
+           "ORDER BY u.lastName ASC, u.firstName ASC, d.id ASC")
+    List<Doctor> findPageByName(@Param("departmentId") Long departmentId, @Param("available") Boolean available,
+                                @Param("search") String search, @Param("afterLastName") String afterLastName,
+                                @Param("afterFirstName") String afterFirstName, @Param("afterId") Long afterId, Pageable pageable);
+    
     @Query("SELECT d FROM Doctor d WHERE d.user.firstName LIKE %:name% OR d.user.lastName LIKE %:name%")
     List<Doctor> findByNameContaining(@Param("name") String name);
     
     boolean existsByDoctorId(String doctorId);
     
     boolean existsByLicenseNumber(String licenseNumber);
+    
+    // Streamed for exports, like AppointmentRepository.streamForExport
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = AppointmentRepository.STREAMING_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user LEFT JOIN FETCH d.department ORDER BY d.id ASC")
+    Stream<Doctor> streamForExport();
 }
@@ -1,14 +1,20 @@
 package com.mediverse.repository;
 
+import com.mediverse.entity.Gender;
 import com.mediverse.entity.Patient;
 import com.mediverse.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
@@ -19,6 +25,9 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     
     Optional<Patient> findByUser(User user);
     
+    @Query("SELECT p.id FROM Patient p WHERE p.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+    
     @Query("SELECT p FROM Patient p WHERE p.user.email = :email")
     Optional<Patient> findByUserEmail(@Param("email") String email);
     
@@ -32,4 +41,30 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     List<Patient> findActivePatients();
     
     boolean existsByPatientId(String patientId);
+    
+    // Streamed for exports, like AppointmentRepository.streamForExport
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = AppointmentRepository.STREAMING_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Patient p JOIN FETCH p.user ORDER BY p.id ASC")
+    Stream<Patient> streamForExport();
+    
+    // Keyset pages for the admin list: filters are skipped when null, and a null cursor starts at the first row
+    
+    @Query("SELECT p FROM Patient p JOIN FETCH p.user u WHERE (:gender IS NULL OR p.gender = :gender) " +
+           "AND (:search IS NULL OR u.firstName LIKE :search OR u.lastName LIKE :search OR u.email LIKE :search OR p.patientId LIKE :search) " +
+           "AND (:afterId IS NULL OR p.id < :afterId) " +
+           "ORDER BY p.id DESC")
+    List<Patient> findPageNewestFirst(@Param("gender") Gender gender, @Param("search") String search,
+                                      @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT p FROM Patient p JOIN FETCH p.user u WHERE (:gender IS NULL OR p.gender = :gender) " +
+           "AND (:search IS NULL OR u.firstName LIKE :search OR u.lastName LIKE :search OR u.email LIKE :search OR p.patientId LIKE :search) " +
+           "AND (:afterId IS NULL OR u.lastName > :afterLastName OR (u.lastName = :afterLastName " +
+           "AND (u.firstName > :afterFirstName OR (u.firstName = :afterFirstName AND p.id > :afterId)))) " +
+           "ORDER BY u.lastName ASC, u.firstName ASC, p.id ASC")
+    List<Patient> findPageByName(@Param("gender") Gender gender, @Param("search") String search,
+                                 @Param("afterLastName") String afterLastName, @Param("afterFirstName") String afterFirstName,
+                                 @Param("afterId") Long afterId, Pageable pageable);
 }
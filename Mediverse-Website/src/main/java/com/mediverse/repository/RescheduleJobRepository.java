@@ -0,0 +1,59 @@
+package com.mediverse.repository;
+
+import com.mediverse.entity.RescheduleJob;
+import com.mediverse.entity.RescheduleJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RescheduleJobRepository extends JpaRepository<RescheduleJob, Long> {
+    
+    @Query("SELECT j FROM RescheduleJob j JOIN FETCH j.doctor d JOIN FETCH d.user WHERE j.id = :id")
+    Optional<RescheduleJob> findByIdWithDoctor(@Param("id") Long id);
+    
+    @Query("SELECT j FROM RescheduleJob j JOIN FETCH j.doctor d JOIN FETCH d.user ORDER BY j.createdAt DESC")
+    List<RescheduleJob> findRecentWithDoctor(Pageable pageable);
+    
+    @Query("SELECT j.status FROM RescheduleJob j WHERE j.id = :id")
+    Optional<RescheduleJobStatus> findStatusById(@Param("id") Long id);
+    
+    /**
+     * Pending jobs, plus running jobs whose worker has stopped reporting progress
+     */
+    @Query("SELECT j.id FROM RescheduleJob j WHERE j.status = com.mediverse.entity.RescheduleJobStatus.PENDING " +
+           "OR (j.status = com.mediverse.entity.RescheduleJobStatus.RUNNING AND j.updatedAt < :staleBefore)")
+    List<Long> findRunnableIds(@Param("staleBefore") LocalDateTime staleBefore);
+    
+    /**
+     * Take ownership of a runnable job. Returns 0 if another worker has it or it is not runnable.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RescheduleJob j SET j.status = com.mediverse.entity.RescheduleJobStatus.RUNNING, j.updatedAt = :now " +
+           "WHERE j.id = :id AND (j.status = com.mediverse.entity.RescheduleJobStatus.PENDING " +
+           "OR (j.status = com.mediverse.entity.RescheduleJobStatus.RUNNING AND j.updatedAt < :staleBefore))")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RescheduleJob j SET j.status = :to, j.updatedAt = :now WHERE j.id = :id AND j.status IN :from")
+    int transition(@Param("id") Long id, @Param("from") Collection<RescheduleJobStatus> from,
+                   @Param("to") RescheduleJobStatus to, @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RescheduleJob j SET j.status = :to, j.errorMessage = :errorMessage, j.updatedAt = :now, j.finishedAt = :now " +
+           "WHERE j.id = :id AND j.status = com.mediverse.entity.RescheduleJobStatus.RUNNING")
+    int finish(@Param("id") Long id, @Param("to") RescheduleJobStatus to,
+               @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM RescheduleJob j WHERE j.doctor.id = :doctorId")
+    int deleteByDoctorId(@Param("doctorId") Long doctorId);
+}
@@ -0,0 +1,26 @@
+package com.mediverse.repository;
+
+import com.mediverse.entity.ScheduleException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ScheduleExceptionRepository extends JpaRepository<ScheduleException, Long> {
+    
+    @Query("SELECT e FROM ScheduleException e WHERE e.endsAt > :after ORDER BY e.startsAt")
+    List<ScheduleException> findEndingAfter(@Param("after") LocalDateTime after);
+    
+    @Query("SELECT e FROM ScheduleException e LEFT JOIN FETCH e.doctor d LEFT JOIN FETCH d.user LEFT JOIN FETCH e.branch " +
+           "WHERE e.endsAt > :after ORDER BY e.startsAt")
+    List<ScheduleException> findEndingAfterWithDetails(@Param("after") LocalDateTime after);
+    
+    @Modifying
+    @Query("DELETE FROM ScheduleException e WHERE e.doctor.id = :doctorId")
+    int deleteByDoctorId(@Param("doctorId") Long doctorId);
+}
@@ -0,0 +1,43 @@
+package com.mediverse.repository;
+
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.SlotLedgerEntry;
+import com.mediverse.entity.SlotLedgerId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface SlotLedgerRepository extends JpaRepository<SlotLedgerEntry, SlotLedgerId> {
+    
+    @Query("SELECT COUNT(e) > 0 FROM SlotLedgerEntry e WHERE e.id.doctorId = :doctorId AND e.id.slotStart IN :slotStarts")
+    boolean existsClaim(@Param("doctorId") Long doctorId, @Param("slotStarts") Collection<LocalDateTime> slotStarts);
+    
+    @Modifying
+    @Query("DELETE FROM SlotLedgerEntry e WHERE e.appointmentId = :appointmentId")
+    int deleteByAppointmentId(@Param("appointmentId") Long appointmentId);
+    
+    @Modifying
+    @Query("DELETE FROM SlotLedgerEntry e WHERE e.id.doctorId = :doctorId")
+    int deleteByDoctorId(@Param("doctorId") Long doctorId);
+    
+    @Modifying
+    @Query("DELETE FROM SlotLedgerEntry e WHERE e.appointmentId IN (SELECT a.id FROM Appointment a WHERE a.patient.id = :patientId)")
+    int deleteByPatientId(@Param("patientId") Long patientId);
+    
+    @Modifying
+    @Query("DELETE FROM SlotLedgerEntry e WHERE e.id.doctorId = :doctorId AND e.appointmentId IN (SELECT a.id FROM Appointment a " +
+           "WHERE a.doctor.id = :doctorId AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to AND a.status IN :statuses)")
+    int deleteForDoctorBetween(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                               @Param("statuses") Collection<AppointmentStatus> statuses);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO appointment_slot_ledger (doctor_id, slot_start, appointment_id, created_at) " +
+                   "VALUES (:doctorId, :slotStart, :appointmentId, NOW())", nativeQuery = true)
+    int insertIgnoringConflicts(@Param("doctorId") Long doctorId, @Param("slotStart") LocalDateTime slotStart, @Param("appointmentId") Long appointmentId);
+}
@@ -0,0 +1,50 @@
+package com.mediverse.repository;
+
+import com.mediverse.dto.DepartmentAppointmentCount;
+import com.mediverse.dto.PatientVisitSummary;
+import com.mediverse.dto.RoleCount;
+import com.mediverse.dto.StatusCount;
+import com.mediverse.entity.Appointment;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Aggregate queries for dashboards and reports. Every method is one GROUP BY / COUNT
+ * round trip, so the cost follows the number of groups rather than the number of rows.
+ */
+public interface StatisticsRepository extends Repository<Appointment, Long> {
+    
+    @Query("SELECT a.status AS status, COUNT(a) AS total FROM Appointment a GROUP BY a.status")
+    List<StatusCount> countAppointmentsByStatus();
+    
+    @Query("SELECT a.status AS status, COUNT(a) AS total FROM Appointment a WHERE a.doctor.id = :doctorId GROUP BY a.status")
+    List<StatusCount> countAppointmentsByStatusForDoctor(@Param("doctorId") Long doctorId);
+    
+    @Query("SELECT a.status AS status, COUNT(a) AS total FROM Appointment a WHERE a.patient.id = :patientId GROUP BY a.status")
+    List<StatusCount> countAppointmentsByStatusForPatient(@Param("patientId") Long patientId);
+    
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctor.id = :doctorId " +
+           "AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to")
+    long countAppointmentsForDoctorBetween(@Param("doctorId") Long doctorId,
+                                           @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query("SELECT u.role AS role, COUNT(u) AS total FROM User u GROUP BY u.role")
+    List<RoleCount> countUsersByRole();
+    
+    @Query("SELECT p.id AS patientId, p.patientId AS patientCode, pu.firstName AS firstName, pu.lastName AS lastName, " +
+           "pu.email AS email, pu.phoneNumber AS phoneNumber, COUNT(a) AS visitCount, MAX(a.appointmentDateTime) AS lastVisit " +
+           "FROM Appointment a JOIN a.patient p JOIN p.user pu WHERE a.doctor.id = :doctorId " +
+           "GROUP BY p.id, p.patientId, pu.firstName, pu.lastName, pu.email, pu.phoneNumber " +
+           "ORDER BY pu.lastName, pu.firstName, p.id")
+    List<PatientVisitSummary> findPatientVisitsForDoctor(@Param("doctorId") Long doctorId);
+    
+    @Query("SELECT dep.id AS departmentId, dep.name AS departmentName, " +
+           "COUNT(DISTINCT d.id) AS doctorCount, COUNT(a.id) AS appointmentCount " +
+           "FROM Department dep LEFT JOIN Doctor d ON d.department = dep LEFT JOIN Appointment a ON a.doctor = d " +
+           "GROUP BY dep.id, dep.name ORDER BY dep.name")
+    List<DepartmentAppointmentCount> countByDepartment();
+}
@@ -2,7 +2,11 @@ package com.mediverse.repository;
 
 import com.mediverse.entity.User;
 import com.mediverse.entity.Role;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -22,4 +26,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     
     long countByRole(Role role);
+    
+    @Query("SELECT u.principalVersion FROM User u WHERE u.id = :userId")
+    Optional<Long> findPrincipalVersionById(@Param("userId") Long userId);
+    
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE users SET principal_version = principal_version + 1 WHERE id = :userId", nativeQuery = true)
+    int incrementPrincipalVersion(@Param("userId") Long userId);
+    
+    // Keyset pages for the admin list: filters are skipped when null, and a null cursor starts at the first row
+    
+    @Query("SELECT u FROM User u WHERE (:role IS NULL OR u.role = :role) " +
+           "AND (:search IS NULL OR u.firstName LIKE :search OR u.lastName LIKE :search OR u.email LIKE :search) " +
+           "AND (:afterId IS NULL OR u.id < :afterId) " +
+           "ORDER BY u.id DESC")
+    List<User> findPageNewestFirst(@Param("role") Role role, @Param("search") String search,
+                                   @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT u FROM User u WHERE (:role IS NULL OR u.role = :role) " +
+           "AND (:search IS NULL OR u.firstName LIKE :search OR u.lastName LIKE :search OR u.email LIKE :search) " +
+           "AND (:afterId IS NULL OR u.lastName > :afterLastName OR (u.lastName = :afterLastName " +
+           "AND (u.firstName > :afterFirstName OR (u.firstName = :afterFirstName AND u.id > :afterId)))) " +
+           "ORDER BY u.lastName ASC, u.firstName ASC, u.id ASC")
+    List<User> findPageByName(@Param("role") Role role, @Param("search") String search,
+                              @Param("afterLastName") String afterLastName, @Param("afterFirstName") String afterFirstName,
+                              @Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,48 @@
+package com.mediverse.repository;
+
+import com.mediverse.entity.WaitlistEntry;
+import com.mediverse.entity.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+    
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.patient p JOIN FETCH p.user WHERE w.status = :status ORDER BY w.createdAt ASC, w.id ASC")
+    List<WaitlistEntry> findByStatusWithPatient(@Param("status") WaitlistStatus status);
+    
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.doctor d JOIN FETCH d.user WHERE w.patient.id = :patientId ORDER BY w.createdAt DESC")
+    List<WaitlistEntry> findByPatientIdWithDoctor(@Param("patientId") Long patientId);
+    
+    boolean existsByPatientIdAndDoctorIdAndStatus(Long patientId, Long doctorId, WaitlistStatus status);
+    
+    /**
+     * Move an entry out of WAITING only if nobody else has; returns the number of rows changed
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :to, w.updatedAt = CURRENT_TIMESTAMP WHERE w.id = :id AND w.status = com.mediverse.entity.WaitlistStatus.WAITING")
+    int transitionFromWaiting(@Param("id") Long id, @Param("to") WaitlistStatus to);
+    
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.appointmentId = :appointmentId WHERE w.id = :id")
+    int attachAppointment(@Param("id") Long id, @Param("appointmentId") Long appointmentId);
+    
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.mediverse.entity.WaitlistStatus.EXPIRED, w.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE w.status = com.mediverse.entity.WaitlistStatus.WAITING AND w.latestDate < :today")
+    int expireBefore(@Param("today") LocalDate today);
+    
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.patient.id = :patientId")
+    int deleteByPatientId(@Param("patientId") Long patientId);
+    
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.doctor.id = :doctorId")
+    int deleteByDoctorId(@Param("doctorId") Long doctorId);
+}
@@ -0,0 +1,171 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.AppointmentSummary;
+import com.mediverse.dto.KeysetPage;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.Gender;
+import com.mediverse.entity.Patient;
+import com.mediverse.entity.Role;
+import com.mediverse.entity.User;
+import com.mediverse.repository.AppointmentRepository;
+import com.mediverse.repository.DoctorRepository;
+import com.mediverse.repository.PatientRepository;
+import com.mediverse.repository.UserRepository;
+import com.mediverse.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Filtered, sorted pages for the admin lists.
+ *
+ * Pages are keyset (seek) paginated: the cursor holds the sort key of the last row shown and
+ * the next query starts strictly after it, so every page reads only its own rows and memory
+ * depends on the page size, not the table size. A missing or unreadable cursor means the first page.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AdminListService {
+
+    public static final int DEFAULT_PAGE_SIZE = 25;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static final String SORT_NEWEST = "newest";
+    public static final String SORT_NAME = "name";
+    public static final String SORT_LATEST = "latest";
+    public static final String SORT_EARLIEST = "earliest";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    /**
+     * Users, newest first or by name
+     */
+    public KeysetPage<User> users(Role role, String search, String sort, String cursor, int size) {
+        int pageSize = pageSize(size);
+        String pattern = likePattern(search);
+        if (SORT_NAME.equals(sort)) {
+            NameKey after = parseCursor(cursor, 3, NameKey::parse);
+            List<User> rows = userRepository.findPageByName(role, pattern,
+                after != null ? after.lastName() : null, after != null ? after.firstName() : null,
+                after != null ? after.id() : null, fetchOneExtra(pageSize));
+            return KeysetPage.of(rows, pageSize, user -> KeysetCursor.encode(user.getLastName(), user.getFirstName(), user.getId()));
+        }
+        Long afterId = parseCursor(cursor, 1, values -> Long.valueOf(values[0]));
+        List<User> rows = userRepository.findPageNewestFirst(role, pattern, afterId, fetchOneExtra(pageSize));
+        return KeysetPage.of(rows, pageSize, user -> KeysetCursor.encode(user.getId()));
+    }
+
+    /**
+     * Patients with their users, newest first or by name
+     */
+    public KeysetPage<Patient> patients(Gender gender, String search, String sort, String cursor, int size) {
+        int pageSize = pageSize(size);
+        String pattern = likePattern(search);
+        if (SORT_NAME.equals(sort)) {
+            NameKey after = parseCursor(cursor, 3, NameKey::parse);
+            List<Patient> rows = patientRepository.findPageByName(gender, pattern,
+                after != null ? after.lastName() : null, after != null ? after.firstName() : null,
+                after != null ? after.id() : null, fetchOneExtra(pageSize));
+            return KeysetPage.of(rows, pageSize, patient ->
+                KeysetCursor.encode(patient.getUser().getLastName(), patient.getUser().getFirstName(), patient.getId()));
+        }
+        Long afterId = parseCursor(cursor, 1, values -> Long.valueOf(values[0]));
+        List<Patient> rows = patientRepository.findPageNewestFirst(gender, pattern, afterId, fetchOneExtra(pageSize));
+        return KeysetPage.of(rows, pageSize, patient -> KeysetCursor.encode(patient.getId()));
+    }
+
+    /**
+     * Doctors with their users and departments, by name or newest first
+     */
+    public KeysetPage<Doctor> doctors(Long departmentId, Boolean available, String search, String sort, String cursor, int size) {
+        int pageSize = pageSize(size);
+        String pattern = likePattern(search);
+        if (SORT_NEWEST.equals(sort)) {
+            Long afterId = parseCursor(cursor, 1, values -> Long.valueOf(values[0]));
+            List<Doctor> rows = doctorRepository.findPageNewestFirst(departmentId, available, pattern, afterId, fetchOneExtra(pageSize));
+            return KeysetPage.of(rows, pageSize, doctor -> KeysetCursor.encode(doctor.getId()));
+        }
+        NameKey after = parseCursor(cursor, 3, NameKey::parse);
+        List<Doctor> rows = doctorRepository.findPageByName(departmentId, available, pattern,
+            after != null ? after.lastName() : null, after != null ? after.firstName() : null,
+            after != null ? after.id() : null, fetchOneExtra(pageSize));
+        return KeysetPage.of(rows, pageSize, doctor ->
+            KeysetCursor.encode(doctor.getUser().getLastName(), doctor.getUser().getFirstName(), doctor.getId()));
+    }
+
+    /**
+     * Appointment summaries, latest or earliest first.
+     * A date limits the list to that day.
+     */
+    public KeysetPage<AppointmentSummary> appointments(AppointmentStatus status, Long doctorId, LocalDate date,
+                                                       String sort, String cursor, int size) {
+        int pageSize = pageSize(size);
+        LocalDateTime from = date != null ? date.atStartOfDay() : null;
+        LocalDateTime to = date != null ? date.plusDays(1).atStartOfDay() : null;
+        TimeKey after = parseCursor(cursor, 2, TimeKey::parse);
+        LocalDateTime afterDateTime = after != null ? after.dateTime() : null;
+        Long afterId = after != null ? after.id() : null;
+
+        List<AppointmentSummary> rows = SORT_EARLIEST.equals(sort)
+            ? appointmentRepository.findPageEarliestFirst(status, doctorId, from, to, afterDateTime, afterId, fetchOneExtra(pageSize))
+            : appointmentRepository.findPageLatestFirst(status, doctorId, from, to, afterDateTime, afterId, fetchOneExtra(pageSize));
+        return KeysetPage.of(rows, pageSize, appointment ->
+            KeysetCursor.encode(appointment.getAppointmentDateTime(), appointment.getId()));
+    }
+
+    private static int pageSize(int requested) {
+        return requested <= 0 ? DEFAULT_PAGE_SIZE : Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    // One row more than the page, to tell whether there is a next page without a count query
+    private static Pageable fetchOneExtra(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    private static String likePattern(String search) {
+        return search != null && !search.isBlank() ? "%" + search.trim() + "%" : null;
+    }
+
+    private static <K> K parseCursor(String cursor, int values, Function<String[], K> parser) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return parser.apply(KeysetCursor.decode(cursor, values));
+        } catch (RuntimeException e) {
+            return null; // Tampered or stale cursor; start over from the first page
+        }
+    }
+
+    private record NameKey(String lastName, String firstName, Long id) {
+
+        static NameKey parse(String[] values) {
+            return new NameKey(values[0], values[1], Long.valueOf(values[2]));
+        }
+    }
+
+    private record TimeKey(LocalDateTime dateTime, Long id) {
+
+        static TimeKey parse(String[] values) {
+            return new TimeKey(LocalDateTime.parse(values[0]), Long.valueOf(values[1]));
+        }
+    }
+}
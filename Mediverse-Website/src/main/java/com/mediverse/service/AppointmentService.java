@@ -1,21 +1,44 @@
 package com.mediverse.service;
 
 import com.mediverse.dto.AppointmentBookingDTO;
+import com.mediverse.dto.BookedSlotView;
+import com.mediverse.dto.DoctorAvailabilityDTO;
+import com.mediverse.dto.SlotHoldDTO;
 import com.mediverse.entity.*;
 import com.mediverse.repository.*;
+import com.mediverse.util.BookedIntervals;
+import com.mediverse.util.WeeklySchedule;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 public class AppointmentService {
     
+    public static final int MIN_DURATION_MINUTES = 5;
+    public static final int MAX_DURATION_MINUTES = 480;
+    
+    // Appointments that still hold their slot and have not happened yet
+    private static final Set<AppointmentStatus> OPEN_STATUSES = Set.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED);
+    private static final Set<AppointmentStatus> COMPLETABLE_STATUSES =
+        Set.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED, AppointmentStatus.IN_PROGRESS);
+    
     @Autowired
     private AppointmentRepository appointmentRepository;
     
@@ -25,6 +48,36 @@ public class AppointmentService {
     @Autowired
     private PatientRepository patientRepository;
     
+    @Autowired
+    private SlotIndexService slotIndexService;
+    
+    @Autowired
+    private SlotLedgerService slotLedgerService;
+    
+    @Autowired
+    private SlotHoldService slotHoldService;
+    
+    @Autowired
+    private DoctorScheduleService doctorScheduleService;
+    
+    @Autowired
+    private ScheduleExceptionService scheduleExceptionService;
+    
+    @Autowired
+    private TodayQueueService todayQueueService;
+    
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+    
+    @Autowired
+    private RescheduleJobRepository rescheduleJobRepository;
+    
+    @Autowired
+    private ClinicalRecordService clinicalRecordService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     /**
      * Book a new appointment for a patient
      */
@@ -50,103 +103,239 @@ public class AppointmentService {
             bookingDTO.getAppointmentTime()
         );
         
-        // Check if the appointment slot is available
-        if (!isAppointmentSlotAvailable(doctor.getId(), appointmentDateTime)) {
-            throw new RuntimeException("This appointment slot is not available");
-        }
+        int duration = durationOrDefault(bookingDTO.getDurationMinutes());
         
-        // Check if it's within doctor's working hours
-        if (!isWithinWorkingHours(doctor, bookingDTO.getAppointmentTime())) {
-            throw new RuntimeException("Appointment time is outside doctor's working hours");
+        // Check the doctor's working days and hours before looking at any appointments
+        checkWorkingHours(doctor, appointmentDateTime, duration);
+        
+        // Check and claim the slot under the doctor's lock so two bookings cannot both pass the check
+        Lock lock = slotIndexService.lockFor(doctor.getId());
+        lock.lock();
+        try {
+            // A hold this patient placed on the slot does not block their own booking
+            if (!isAppointmentSlotAvailable(doctor.getId(), appointmentDateTime, duration, patientEmail)) {
+                throw new RuntimeException("This appointment slot is not available");
+            }
+            
+            // Create new appointment
+            Appointment appointment = new Appointment(patient, doctor, appointmentDateTime);
+            appointment.setDurationMinutes(duration);
+            appointment.setReason(bookingDTO.getReason());
+            appointment.setStatus(AppointmentStatus.SCHEDULED);
+            
+            Appointment saved = appointmentRepository.save(appointment);
+            claimSlot(saved);
+            // Only now that the slot is claimed does the hold give way to the appointment
+            slotHoldService.consume(patientEmail, doctor.getId(), appointmentDateTime);
+            if (bookingDTO.getNotes() != null && !bookingDTO.getNotes().isBlank()) {
+                clinicalRecordService.saveDetails(saved.getId(), bookingDTO.getNotes(), null, null);
+            }
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Book a released slot for a waitlisted patient. Returns null if the entry is no longer
+     * waiting; throws if the booking itself fails, which also puts the entry back.
+     */
+    public Appointment bookFromWaitlist(Long entryId, String patientEmail, Long doctorId, LocalDateTime slotStart, int durationMinutes) {
+        if (waitlistRepository.transitionFromWaiting(entryId, WaitlistStatus.BOOKED) == 0) {
+            return null;
         }
+        AppointmentBookingDTO booking = new AppointmentBookingDTO(
+            doctorId, slotStart.toLocalDate(), slotStart.toLocalTime(), "Booked from waitlist");
+        // Same length as the appointment that gave up the slot, so it fits the gap it left
+        booking.setDurationMinutes(durationMinutes);
+        Appointment appointment = bookAppointment(booking, patientEmail);
+        waitlistRepository.attachAppointment(entryId, appointment.getId());
+        return appointment;
+    }
+    
+    /**
+     * Hold a slot for a few minutes while the patient finishes the booking form.
+     * Any earlier hold by the same patient is released first.
+     */
+    public SlotHoldDTO placeHold(Long doctorId, LocalDateTime slotStart, Integer durationMinutes, String patientEmail) {
+        Doctor doctor = doctorRepository.findById(doctorId)
+            .orElseThrow(() -> new RuntimeException("Doctor not found"));
+        int duration = durationOrDefault(durationMinutes);
         
-        // Create new appointment
-        Appointment appointment = new Appointment(patient, doctor, appointmentDateTime);
-        appointment.setReason(bookingDTO.getReason());
-        appointment.setNotes(bookingDTO.getNotes());
-        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        checkWorkingHours(doctor, slotStart, duration);
         
-        return appointmentRepository.save(appointment);
+        Lock lock = slotIndexService.lockFor(doctorId);
+        lock.lock();
+        try {
+            slotHoldService.releaseForPatient(patientEmail);
+            if (!isAppointmentSlotAvailable(doctorId, slotStart, duration)) {
+                throw new RuntimeException("This appointment slot is not available");
+            }
+            return slotHoldService.hold(doctorId, slotStart, duration, patientEmail);
+        } finally {
+            lock.unlock();
+        }
     }
     
     /**
-     * Check if an appointment slot is available for a doctor
+     * Check if a standard-length appointment slot is available for a doctor
      */
     public boolean isAppointmentSlotAvailable(Long doctorId, LocalDateTime appointmentDateTime) {
-        LocalDateTime startTime = appointmentDateTime;
-        LocalDateTime endTime = appointmentDateTime.plusMinutes(30); // Default 30-minute slots
-        
-        List<Appointment> conflictingAppointments = appointmentRepository
-            .findByDoctorIdAndAppointmentDateTimeBetween(doctorId, startTime.minusMinutes(29), endTime.minusMinutes(1));
-        
-        return conflictingAppointments.stream()
-            .noneMatch(app -> app.getStatus() != AppointmentStatus.CANCELLED);
+        return isAppointmentSlotAvailable(doctorId, appointmentDateTime, SlotIndexService.DEFAULT_SLOT_MINUTES);
+    }
+    
+    /**
+     * Check if a doctor is free for the whole length of an appointment
+     */
+    public boolean isAppointmentSlotAvailable(Long doctorId, LocalDateTime appointmentDateTime, int durationMinutes) {
+        return isAppointmentSlotAvailable(doctorId, appointmentDateTime, durationMinutes, null);
     }
     
     /**
-     * Check if appointment time is within doctor's working hours
+     * Check if a doctor is free for the whole length of an appointment, not counting the given patient's own hold
      */
-    public boolean isWithinWorkingHours(Doctor doctor, LocalTime appointmentTime) {
-        if (doctor.getAvailabilityStartTime() == null || doctor.getAvailabilityEndTime() == null) {
-            return true; // No restrictions set
+    public boolean isAppointmentSlotAvailable(Long doctorId, LocalDateTime appointmentDateTime, int durationMinutes, String holderEmail) {
+        // The local index rejects known conflicts without a query. A busy answer is not checked against the
+        // ledger, since it may be this instance's own booking that has not committed yet; a cancel made
+        // elsewhere shows up once the cached day expires. The ledger sees bookings from every instance.
+        if (!slotIndexService.isFree(doctorId, appointmentDateTime, durationMinutes, holderEmail)) {
+            return false;
+        }
+        if (slotLedgerService.isFree(doctorId, appointmentDateTime, durationMinutes)) {
+            return true;
+        }
+        // Booked through another instance, so this day's index is stale
+        slotIndexService.evict(doctorId, appointmentDateTime.toLocalDate());
+        return false;
+    }
+    
+    /**
+     * Check if an appointment falls on one of the doctor's working days and within that day's hours
+     */
+    public boolean isWithinWorkingHours(Doctor doctor, LocalDateTime appointmentDateTime, int durationMinutes) {
+        return doctorScheduleService.isWorking(doctor, appointmentDateTime, durationMinutes);
+    }
+    
+    private void checkWorkingHours(Doctor doctor, LocalDateTime appointmentDateTime, int durationMinutes) {
+        WeeklySchedule schedule = doctorScheduleService.scheduleFor(doctor);
+        if (!schedule.worksOn(appointmentDateTime.getDayOfWeek())) {
+            throw new RuntimeException("Doctor does not work on " +
+                appointmentDateTime.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH));
+        }
+        if (!schedule.covers(appointmentDateTime.getDayOfWeek(), appointmentDateTime.toLocalTime(), durationMinutes)) {
+            throw new RuntimeException("Appointment time is outside doctor's working hours");
+        }
+        if (scheduleExceptionService.isBlocked(doctor.getId(), appointmentDateTime, durationMinutes)) {
+            throw new RuntimeException("Doctor is not available at that time");
         }
-        
-        return !appointmentTime.isBefore(doctor.getAvailabilityStartTime()) && 
-               !appointmentTime.isAfter(doctor.getAvailabilityEndTime().minusMinutes(30));
     }
     
     /**
      * Get available appointment slots for a doctor on a specific date
      */
-    public List<LocalTime> getAvailableSlots(Long doctorId, java.time.LocalDate date) {
+    public List<LocalTime> getAvailableSlots(Long doctorId, LocalDate date) {
+        return getAvailableSlots(doctorId, date, SlotIndexService.DEFAULT_SLOT_MINUTES);
+    }
+    
+    /**
+     * Get start times on a date where the doctor is free for the whole given length
+     */
+    public List<LocalTime> getAvailableSlots(Long doctorId, LocalDate date, int durationMinutes) {
         Optional<Doctor> doctorOpt = doctorRepository.findById(doctorId);
         if (doctorOpt.isEmpty()) {
             return List.of();
         }
         
-        Doctor doctor = doctorOpt.get();
-        LocalTime startTime = doctor.getAvailabilityStartTime() != null ? 
-            doctor.getAvailabilityStartTime() : LocalTime.of(9, 0);
-        LocalTime endTime = doctor.getAvailabilityEndTime() != null ? 
-            doctor.getAvailabilityEndTime() : LocalTime.of(17, 0);
-        
-        List<LocalTime> allSlots = generateTimeSlots(startTime, endTime);
+        List<LocalTime> allSlots = candidateSlots(doctorOpt.get(), date, durationMinutes);
+        if (allSlots.isEmpty()) {
+            return List.of(); // Day off, no need to load the day's appointments
+        }
         
         // Filter out booked slots
-        List<Appointment> bookedAppointments = appointmentRepository
-            .findByDoctorIdAndAppointmentDateTimeBetween(
-                doctorId, 
-                date.atStartOfDay(), 
-                date.atTime(23, 59, 59)
-            );
-        
-        return allSlots.stream()
-            .filter(slot -> {
-                LocalDateTime slotDateTime = date.atTime(slot);
-                return bookedAppointments.stream()
-                    .filter(app -> app.getStatus() != AppointmentStatus.CANCELLED)
-                    .noneMatch(app -> 
-                        app.getAppointmentDateTime().equals(slotDateTime) ||
-                        (app.getAppointmentDateTime().isBefore(slotDateTime.plusMinutes(30)) &&
-                         app.getAppointmentDateTime().isAfter(slotDateTime.minusMinutes(30)))
-                    );
-            })
-            .toList();
+        return slotIndexService.freeSlots(doctorId, date, allSlots, durationMinutes);
     }
     
     /**
-     * Generate time slots with 30-minute intervals
+     * Get available slots for a department's doctors, or a list of doctors, over a date range.
+     * All appointments in the range are read with one query and grouped per doctor and day.
      */
-    private List<LocalTime> generateTimeSlots(LocalTime startTime, LocalTime endTime) {
-        List<LocalTime> slots = new java.util.ArrayList<>();
-        LocalTime current = startTime;
+    @Transactional(readOnly = true)
+    public List<DoctorAvailabilityDTO> getAvailabilityGrid(Long departmentId, List<Long> doctorIds, LocalDate from, LocalDate to,
+                                                           int durationMinutes) {
+        List<Doctor> doctors;
+        if (doctorIds != null && !doctorIds.isEmpty()) {
+            doctors = doctorRepository.findAllByIdWithUser(doctorIds);
+        } else if (departmentId != null) {
+            doctors = doctorRepository.findAvailableDoctorsByDepartmentWithUser(departmentId);
+        } else {
+            return List.of();
+        }
+        if (doctors.isEmpty()) {
+            return List.of();
+        }
         
-        while (!current.isAfter(endTime.minusMinutes(30))) {
-            slots.add(current);
-            current = current.plusMinutes(30);
+        // Group the booked ranges by doctor and day
+        Map<Long, Map<LocalDate, BookedIntervals>> booked = new HashMap<>();
+        List<BookedSlotView> bookedSlots = appointmentRepository.findBookedSlotsForDoctors(
+            doctors.stream().map(Doctor::getId).toList(),
+            from.atStartOfDay(),
+            to.plusDays(1).atStartOfDay(),
+            AppointmentStatus.CANCELLED
+        );
+        for (BookedSlotView slot : bookedSlots) {
+            int duration = slot.getDurationMinutes() != null ? slot.getDurationMinutes() : SlotIndexService.DEFAULT_SLOT_MINUTES;
+            booked.computeIfAbsent(slot.getDoctorId(), id -> new HashMap<>())
+                .computeIfAbsent(slot.getAppointmentDateTime().toLocalDate(), date -> new BookedIntervals())
+                .occupy(slot.getAppointmentDateTime().toLocalTime(), duration);
         }
         
-        return slots;
+        List<DoctorAvailabilityDTO> grid = new ArrayList<>();
+        for (Doctor doctor : doctors) {
+            DoctorAvailabilityDTO availability = new DoctorAvailabilityDTO(
+                doctor.getId(), doctor.getFullName(), doctor.getSpecialization());
+            Map<LocalDate, BookedIntervals> doctorDays = booked.getOrDefault(doctor.getId(), Map.of());
+            
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                List<LocalTime> candidates = candidateSlots(doctor, date, durationMinutes);
+                if (candidates.isEmpty()) {
+                    availability.getSlots().put(date, List.of());
+                    continue;
+                }
+                // Hand the freshly read day to the slot index, or use the index's copy if it already has one
+                availability.getSlots().put(date, slotIndexService.freeSlots(doctor.getId(), date, candidates, durationMinutes,
+                    doctorDays.getOrDefault(date, new BookedIntervals())));
+            }
+            grid.add(availability);
+        }
+        return grid;
+    }
+    
+    /**
+     * Every slot start on the given date where an appointment of the given length fits
+     * within the doctor's working hours and clear of leave or holidays; empty on days off
+     */
+    public List<LocalTime> candidateSlots(Doctor doctor, LocalDate date, int durationMinutes) {
+        List<LocalTime> slots = doctorScheduleService.scheduleFor(doctor).slotStarts(date.getDayOfWeek(), durationMinutes);
+        if (slots.isEmpty() || !scheduleExceptionService.isBlocked(doctor.getId(), date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+            return slots;
+        }
+        return slots.stream()
+            .filter(slot -> !scheduleExceptionService.isBlocked(doctor.getId(), date.atTime(slot), durationMinutes))
+            .toList();
+    }
+    
+    /**
+     * Validate a requested appointment length, falling back to the standard slot length
+     */
+    public static int durationOrDefault(Integer durationMinutes) {
+        if (durationMinutes == null) {
+            return SlotIndexService.DEFAULT_SLOT_MINUTES;
+        }
+        if (durationMinutes < MIN_DURATION_MINUTES || durationMinutes > MAX_DURATION_MINUTES) {
+            throw new RuntimeException("Appointment length must be between " + MIN_DURATION_MINUTES +
+                " and " + MAX_DURATION_MINUTES + " minutes");
+        }
+        return durationMinutes;
     }
     
     /**
@@ -171,11 +360,160 @@ public class AppointmentService {
             throw new RuntimeException("This appointment cannot be cancelled");
         }
         
+        releaseSlot(appointment);
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(appointment);
+        publishSlotReleased(appointment.getDoctor().getId(), appointment.getAppointmentDateTime(), SlotIndexService.durationOf(appointment));
         return true;
     }
     
+    /**
+     * Apply changes to an existing appointment and move its slot claim to match. A move to
+     * another doctor, time or length is checked against the doctor's working hours first.
+     * Used by the admin and patient edit and cancel paths.
+     */
+    public Appointment updateAppointment(Long appointmentId, Consumer<Appointment> changes) {
+        Appointment appointment = appointmentRepository.findById(appointmentId)
+            .orElseThrow(() -> new RuntimeException("Appointment not found"));
+        
+        boolean wasBlocking = appointment.getStatus() != AppointmentStatus.CANCELLED;
+        Long previousDoctorId = appointment.getDoctor().getId();
+        LocalDateTime previousStart = appointment.getAppointmentDateTime();
+        int previousDuration = SlotIndexService.durationOf(appointment);
+        
+        releaseSlot(appointment);
+        changes.accept(appointment);
+        
+        boolean moved = !previousDoctorId.equals(appointment.getDoctor().getId())
+            || !previousStart.equals(appointment.getAppointmentDateTime())
+            || previousDuration != SlotIndexService.durationOf(appointment);
+        if (moved && appointment.getStatus() != AppointmentStatus.CANCELLED) {
+            checkWorkingHours(appointment.getDoctor(), appointment.getAppointmentDateTime(), SlotIndexService.durationOf(appointment));
+        }
+        
+        Appointment saved = appointmentRepository.save(appointment);
+        claimSlot(saved);
+        
+        // Tell the waitlist only when the old slot really ends up free
+        boolean slotMoved = saved.getStatus() == AppointmentStatus.CANCELLED
+            || !previousStart.equals(saved.getAppointmentDateTime())
+            || !previousDoctorId.equals(saved.getDoctor().getId());
+        if (wasBlocking && slotMoved) {
+            publishSlotReleased(previousDoctorId, previousStart, previousDuration);
+        }
+        return saved;
+    }
+    
+    /**
+     * Delete an appointment and release its slot
+     */
+    public void deleteAppointment(Long appointmentId) {
+        Optional<Appointment> appointmentOpt = appointmentRepository.findById(appointmentId);
+        if (appointmentOpt.isPresent()) {
+            Appointment appointment = appointmentOpt.get();
+            boolean wasBlocking = appointment.getStatus() != AppointmentStatus.CANCELLED;
+            releaseSlot(appointment);
+            appointmentRepository.delete(appointment);
+            if (wasBlocking) {
+                publishSlotReleased(appointment.getDoctor().getId(), appointment.getAppointmentDateTime(), SlotIndexService.durationOf(appointment));
+            }
+        }
+    }
+    
+    /**
+     * Cancel every scheduled or confirmed appointment a doctor has in [from, to) and release their
+     * slots, without loading any of them. Returns the number cancelled. The freed slots are not
+     * offered to the waitlist, since a mass cancel means the doctor is not seeing anyone then.
+     */
+    public int cancelDoctorAppointments(Long doctorId, LocalDateTime from, LocalDateTime to) {
+        checkRange(from, to);
+        slotLedgerService.releaseForDoctorBetween(doctorId, from, to, OPEN_STATUSES);
+        int cancelled = appointmentRepository.updateStatusForDoctorBetween(doctorId, from, to, OPEN_STATUSES, AppointmentStatus.CANCELLED);
+        slotIndexService.evictDoctor(doctorId);
+        todayQueueService.evictDoctor(doctorId);
+        return cancelled;
+    }
+    
+    /**
+     * Mark a doctor's appointments in [from, to) as completed, if they have already started and
+     * are still scheduled, confirmed or in progress. Their slots stay claimed. Returns the number completed.
+     */
+    public int completeDoctorAppointments(Long doctorId, LocalDateTime from, LocalDateTime to) {
+        checkRange(from, to);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = to.isAfter(now) ? now : to;
+        if (!until.isAfter(from)) {
+            return 0;
+        }
+        int completed = appointmentRepository.updateStatusForDoctorBetween(doctorId, from, until, COMPLETABLE_STATUSES, AppointmentStatus.COMPLETED);
+        todayQueueService.evictDoctor(doctorId);
+        return completed;
+    }
+    
+    /**
+     * Delete every appointment a patient has, with their slot claims and waitlist entries, before
+     * the patient is removed. Set-based, so memory use does not grow with the patient's history.
+     */
+    public int deletePatientAppointments(Long patientId) {
+        List<Long> upcomingDoctorIds = appointmentRepository.findDoctorIdsForPatientFrom(
+            patientId, LocalDate.now().atStartOfDay(), AppointmentStatus.CANCELLED);
+        slotLedgerService.releaseForPatient(patientId);
+        waitlistRepository.deleteByPatientId(patientId);
+        int deleted = appointmentRepository.deleteByPatientId(patientId);
+        for (Long doctorId : upcomingDoctorIds) {
+            slotIndexService.evictDoctor(doctorId);
+            todayQueueService.evictDoctor(doctorId);
+        }
+        return deleted;
+    }
+    
+    /**
+     * Delete every appointment a doctor has, with everything else that points at the doctor,
+     * before the doctor is removed. Set-based, like {@link #deletePatientAppointments}.
+     */
+    public int deleteDoctorAppointments(Long doctorId) {
+        slotLedgerService.releaseForDoctor(doctorId);
+        waitlistRepository.deleteByDoctorId(doctorId);
+        scheduleExceptionService.removeForDoctor(doctorId);
+        rescheduleJobRepository.deleteByDoctorId(doctorId);
+        int deleted = appointmentRepository.deleteByDoctorId(doctorId);
+        slotIndexService.evictDoctor(doctorId);
+        todayQueueService.evictDoctor(doctorId);
+        return deleted;
+    }
+    
+    private static void checkRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new RuntimeException("End must be after start");
+        }
+    }
+    
+    private void claimSlot(Appointment appointment) {
+        try {
+            slotLedgerService.claim(appointment);
+        } catch (RuntimeException e) {
+            slotIndexService.evict(appointment.getDoctor().getId(), appointment.getAppointmentDateTime().toLocalDate());
+            throw e;
+        }
+        slotIndexService.occupy(appointment);
+        todayQueueService.evict(appointment.getDoctor().getId(), appointment.getAppointmentDateTime());
+    }
+    
+    private void releaseSlot(Appointment appointment) {
+        slotLedgerService.release(appointment);
+        slotIndexService.release(appointment);
+        todayQueueService.evict(appointment.getDoctor().getId(), appointment.getAppointmentDateTime());
+    }
+    
+    /**
+     * Announce a freed future slot; listeners run once the transaction commits
+     */
+    private void publishSlotReleased(Long doctorId, LocalDateTime start, int durationMinutes) {
+        if (start.isAfter(LocalDateTime.now())) {
+            eventPublisher.publishEvent(new SlotReleasedEvent(doctorId, start, durationMinutes));
+        }
+    }
+    
     /**
      * Get patient's appointments
      */
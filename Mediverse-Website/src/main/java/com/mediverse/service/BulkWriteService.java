@@ -0,0 +1,120 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.SlotLedgerEntry;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Inserts large numbers of rows through Hibernate's JDBC batching, for seeding and imports.
+ *
+ * Rows are persisted in chunks of {@link #CHUNK_SIZE}, each chunk in its own transaction. The
+ * persistence context is flushed and cleared after every chunk, so memory stays flat however
+ * many rows are written. A failing chunk rolls back on its own: the chunks before it stay
+ * committed and the exception says where to resume. Call it outside a transaction, or the
+ * chunks join the caller's and memory is not released.
+ */
+@Service
+public class BulkWriteService {
+
+    // A multiple of hibernate.jdbc.batch_size, so every flush sends full batches
+    public static final int CHUNK_SIZE = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(BulkWriteService.class);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SlotIndexService slotIndexService;
+
+    @Autowired
+    private TodayQueueService todayQueueService;
+
+    /**
+     * Insert new entities of any mapped type. Returns the number inserted.
+     */
+    public <T> int insertAll(List<T> entities) {
+        return insertInChunks(entities, chunk -> { });
+    }
+
+    /**
+     * Insert new appointments and claim their slots in the ledger, as booking does, but without
+     * checking working hours or holds. Throws if a slot is already taken; the chunk holding it
+     * is not written.
+     */
+    public int insertAppointments(List<Appointment> appointments) {
+        return insertInChunks(appointments, chunk -> {
+            for (Appointment appointment : chunk) {
+                if (appointment.getStatus() == AppointmentStatus.CANCELLED) {
+                    continue;
+                }
+                Long doctorId = appointment.getDoctor().getId();
+                for (LocalDateTime blockStart : SlotLedgerService.blockStarts(appointment.getAppointmentDateTime(),
+                        SlotIndexService.durationOf(appointment))) {
+                    entityManager.persist(new SlotLedgerEntry(doctorId, blockStart, appointment.getId()));
+                }
+            }
+        }, this::evictCachedDays);
+    }
+
+    private <T> int insertInChunks(List<T> entities, Consumer<List<T>> alsoPersist) {
+        return insertInChunks(entities, alsoPersist, chunk -> { });
+    }
+
+    private <T> int insertInChunks(List<T> entities, Consumer<List<T>> alsoPersist, Consumer<List<T>> afterCommit) {
+        long started = System.nanoTime();
+        int inserted = 0;
+        for (int from = 0; from < entities.size(); from += CHUNK_SIZE) {
+            List<T> chunk = entities.subList(from, Math.min(from + CHUNK_SIZE, entities.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    chunk.forEach(entityManager::persist);
+                    alsoPersist.accept(chunk);
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Bulk insert failed in the chunk starting at row " + from
+                    + "; " + inserted + " rows were written: " + e.getMessage(), e);
+            }
+            afterCommit.accept(chunk);
+            inserted += chunk.size();
+        }
+        if (inserted > 0) {
+            long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            log.info("Bulk inserted {} rows in {} ms ({} rows/s)", inserted, millis, inserted * 1000L / millis);
+        }
+        return inserted;
+    }
+
+    // The slot caches only hear about bookings made through AppointmentService
+    private void evictCachedDays(List<Appointment> chunk) {
+        Set<DoctorDay> days = new HashSet<>();
+        for (Appointment appointment : chunk) {
+            days.add(new DoctorDay(appointment.getDoctor().getId(), appointment.getAppointmentDateTime().toLocalDate()));
+        }
+        for (DoctorDay day : days) {
+            slotIndexService.evict(day.doctorId(), day.date());
+            todayQueueService.evict(day.doctorId(), day.date().atStartOfDay());
+        }
+    }
+
+    private record DoctorDay(Long doctorId, LocalDate date) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.AppointmentDetails;
+import com.mediverse.entity.PatientClinicalProfile;
+import com.mediverse.repository.AppointmentDetailsRepository;
+import com.mediverse.repository.AppointmentRepository;
+import com.mediverse.repository.PatientClinicalProfileRepository;
+import com.mediverse.repository.PatientRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Appointment notes, diagnoses and prescriptions, and patients' medical history, allergies
+ * and medications.
+ *
+ * These live in their own tables and are only read by the pages that show them; list pages
+ * never load them. A row exists only while it has something in it, so a missing row reads as
+ * an empty record.
+ */
+@Service
+@Transactional
+public class ClinicalRecordService {
+
+    @Autowired
+    private AppointmentDetailsRepository appointmentDetailsRepository;
+
+    @Autowired
+    private PatientClinicalProfileRepository patientClinicalProfileRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    /**
+     * The appointment's clinical text, or an empty record if none has been written
+     */
+    @Transactional(readOnly = true)
+    public AppointmentDetails detailsFor(Long appointmentId) {
+        return appointmentDetailsRepository.findById(appointmentId).orElseGet(AppointmentDetails::new);
+    }
+
+    /**
+     * Clinical text for several appointments in one query, by appointment id.
+     * Appointments without any are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, AppointmentDetails> detailsFor(Collection<Long> appointmentIds) {
+        Map<Long, AppointmentDetails> byAppointment = new HashMap<>();
+        for (AppointmentDetails details : appointmentDetailsRepository.findAllById(appointmentIds)) {
+            byAppointment.put(details.getId(), details);
+        }
+        return byAppointment;
+    }
+
+    public void saveDetails(Long appointmentId, String notes, String diagnosis, String prescription) {
+        AppointmentDetails details = appointmentDetailsRepository.findById(appointmentId)
+            .orElseGet(() -> new AppointmentDetails(appointmentRepository.getReferenceById(appointmentId)));
+        details.setNotes(notes);
+        details.setDiagnosis(diagnosis);
+        details.setPrescription(prescription);
+        store(details.getId() != null, details.isEmpty(), () -> appointmentDetailsRepository.save(details),
+            () -> appointmentDetailsRepository.delete(details));
+    }
+
+    /**
+     * The patient's clinical profile, or an empty one if nothing has been recorded
+     */
+    @Transactional(readOnly = true)
+    public PatientClinicalProfile profileFor(Long patientId) {
+        if (patientId == null) {
+            return new PatientClinicalProfile();
+        }
+        return patientClinicalProfileRepository.findById(patientId).orElseGet(PatientClinicalProfile::new);
+    }
+
+    public void saveProfile(Long patientId, String medicalHistory, String allergies, String currentMedications) {
+        PatientClinicalProfile profile = patientClinicalProfileRepository.findById(patientId)
+            .orElseGet(() -> new PatientClinicalProfile(patientRepository.getReferenceById(patientId)));
+        profile.setMedicalHistory(medicalHistory);
+        profile.setAllergies(allergies);
+        profile.setCurrentMedications(currentMedications);
+        store(profile.getId() != null, profile.isEmpty(), () -> patientClinicalProfileRepository.save(profile),
+            () -> patientClinicalProfileRepository.delete(profile));
+    }
+
+    // Save records with content, and drop rows that were cleared rather than keep them empty
+    private static void store(boolean exists, boolean empty, Runnable save, Runnable delete) {
+        if (!empty) {
+            save.run();
+        } else if (exists) {
+            delete.run();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.Doctor;
+import com.mediverse.util.WeeklySchedule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compiled weekly schedules per doctor.
+ *
+ * A schedule is compiled the first time a doctor is seen and again whenever the doctor row
+ * changes, detected through its updated_at, so edits made through another instance are
+ * picked up on the next request without a shared cache.
+ */
+@Service
+public class DoctorScheduleService {
+
+    public static final LocalTime DEFAULT_START = LocalTime.of(9, 0);
+    public static final LocalTime DEFAULT_END = LocalTime.of(17, 0);
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorScheduleService.class);
+
+    private final ConcurrentMap<Long, CompiledSchedule> schedules = new ConcurrentHashMap<>();
+
+    /**
+     * The doctor's compiled schedule, compiling it if it is missing or out of date
+     */
+    public WeeklySchedule scheduleFor(Doctor doctor) {
+        CompiledSchedule cached = schedules.get(doctor.getId());
+        if (cached != null && Objects.equals(cached.version(), doctor.getUpdatedAt())) {
+            return cached.schedule();
+        }
+        WeeklySchedule schedule;
+        try {
+            schedule = compile(doctor);
+        } catch (IllegalArgumentException e) {
+            // Rows saved before validation existed may not parse; keep them bookable on default days
+            log.warn("Doctor {} has unreadable working days '{}': {}", doctor.getId(), doctor.getWorkingDays(), e.getMessage());
+            boolean hoursValid = endOf(doctor).isAfter(startOf(doctor));
+            schedule = WeeklySchedule.parse(null, hoursValid ? startOf(doctor) : DEFAULT_START,
+                hoursValid ? endOf(doctor) : DEFAULT_END, SlotIndexService.DEFAULT_SLOT_MINUTES);
+        }
+        schedules.put(doctor.getId(), new CompiledSchedule(doctor.getUpdatedAt(), schedule));
+        return schedule;
+    }
+
+    /**
+     * Compile without caching. Throws IllegalArgumentException for working days or hours that cannot be read,
+     * so callers can validate before saving.
+     */
+    public WeeklySchedule compile(Doctor doctor) {
+        return WeeklySchedule.parse(doctor.getWorkingDays(), startOf(doctor), endOf(doctor), SlotIndexService.DEFAULT_SLOT_MINUTES);
+    }
+
+    /**
+     * Cache a schedule compiled for a doctor that has just been saved
+     */
+    public void put(Doctor doctor, WeeklySchedule schedule) {
+        schedules.put(doctor.getId(), new CompiledSchedule(doctor.getUpdatedAt(), schedule));
+    }
+
+    public void evict(Long doctorId) {
+        schedules.remove(doctorId);
+    }
+
+    /**
+     * Whether the doctor works for the whole range
+     */
+    public boolean isWorking(Doctor doctor, LocalDateTime start, int durationMinutes) {
+        return scheduleFor(doctor).covers(start.getDayOfWeek(), start.toLocalTime(), durationMinutes);
+    }
+
+    private static LocalTime startOf(Doctor doctor) {
+        return doctor.getAvailabilityStartTime() != null ? doctor.getAvailabilityStartTime() : DEFAULT_START;
+    }
+
+    private static LocalTime endOf(Doctor doctor) {
+        return doctor.getAvailabilityEndTime() != null ? doctor.getAvailabilityEndTime() : DEFAULT_END;
+    }
+
+    private record CompiledSchedule(LocalDateTime version, WeeklySchedule schedule) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.Patient;
+import com.mediverse.repository.AppointmentRepository;
+import com.mediverse.repository.DoctorRepository;
+import com.mediverse.repository.PatientRepository;
+import com.mediverse.util.ExportFormat;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables to an output stream as CSV or NDJSON for the admin exports.
+ *
+ * Rows are streamed from the driver and written as they arrive. Each entity is
+ * detached once written, and the persistence context is cleared every {@link #FLUSH_EVERY} rows
+ * to drop the patients and doctors the rows share, so heap use stays flat however many rows
+ * there are. Clinical text is not exported.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    // Also how often the output is flushed, so the download keeps moving
+    public static final int FLUSH_EVERY = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private static final List<String> APPOINTMENT_COLUMNS = List.of(
+        "id", "appointmentId", "appointmentDateTime", "durationMinutes", "status", "reason", "consultationFee",
+        "patientId", "patientName", "patientEmail", "doctorId", "doctorName", "specialization", "department", "createdAt");
+
+    private static final List<String> PATIENT_COLUMNS = List.of(
+        "id", "patientId", "firstName", "lastName", "email", "phoneNumber", "dateOfBirth", "gender", "bloodGroup",
+        "emergencyContactName", "emergencyContactPhone", "address", "active", "createdAt");
+
+    private static final List<String> DOCTOR_COLUMNS = List.of(
+        "id", "doctorId", "firstName", "lastName", "email", "phoneNumber", "specialization", "department",
+        "qualification", "experienceYears", "licenseNumber", "consultationFee", "workingDays",
+        "availabilityStartTime", "availabilityEndTime", "available", "createdAt");
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Write appointments, optionally only one status or one doctor's, in id order. Returns the row count.
+     */
+    public long exportAppointments(AppointmentStatus status, Long doctorId, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Appointment> rows = appointmentRepository.streamForExport(status, doctorId)) {
+            return write("appointments", rows, format.open(out, APPOINTMENT_COLUMNS), appointment -> Arrays.asList(
+                appointment.getId(),
+                appointment.getAppointmentId(),
+                appointment.getAppointmentDateTime(),
+                appointment.getDurationMinutes(),
+                appointment.getStatus().name(),
+                appointment.getReason(),
+                appointment.getConsultationFee(),
+                appointment.getPatient().getPatientId(),
+                appointment.getPatient().getFullName(),
+                appointment.getPatient().getEmail(),
+                appointment.getDoctor().getDoctorId(),
+                appointment.getDoctor().getFullName(),
+                appointment.getDoctor().getSpecialization(),
+                appointment.getDoctor().getDepartmentName(),
+                appointment.getCreatedAt()));
+        }
+    }
+
+    public long exportPatients(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Patient> rows = patientRepository.streamForExport()) {
+            return write("patients", rows, format.open(out, PATIENT_COLUMNS), patient -> Arrays.asList(
+                patient.getId(),
+                patient.getPatientId(),
+                patient.getUser().getFirstName(),
+                patient.getUser().getLastName(),
+                patient.getUser().getEmail(),
+                patient.getUser().getPhoneNumber(),
+                patient.getDateOfBirth(),
+                patient.getGender() != null ? patient.getGender().name() : null,
+                patient.getBloodGroup(),
+                patient.getEmergencyContactName(),
+                patient.getEmergencyContactPhone(),
+                patient.getAddress(),
+                patient.getUser().getIsActive(),
+                patient.getCreatedAt()));
+        }
+    }
+
+    public long exportDoctors(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Doctor> rows = doctorRepository.streamForExport()) {
+            return write("doctors", rows, format.open(out, DOCTOR_COLUMNS), doctor -> Arrays.asList(
+                doctor.getId(),
+                doctor.getDoctorId(),
+                doctor.getUser().getFirstName(),
+                doctor.getUser().getLastName(),
+                doctor.getUser().getEmail(),
+                doctor.getUser().getPhoneNumber(),
+                doctor.getSpecialization(),
+                doctor.getDepartmentName(),
+                doctor.getQualification(),
+                doctor.getExperienceYears(),
+                doctor.getLicenseNumber(),
+                doctor.getConsultationFee(),
+                doctor.getWorkingDays(),
+                doctor.getAvailabilityStartTime(),
+                doctor.getAvailabilityEndTime(),
+                doctor.getIsAvailable(),
+                doctor.getCreatedAt()));
+        }
+    }
+
+    private <T> long write(String table, Stream<T> rows, ExportFormat.RowWriter writer, Function<T, List<?>> toRow) throws IOException {
+        long started = System.nanoTime();
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            writer.write(toRow.apply(row));
+            entityManager.detach(row);
+            if (++count % FLUSH_EVERY == 0) {
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        writer.flush();
+        log.info("Exported {} {} in {} ms", count, table, (System.nanoTime() - started) / 1_000_000);
+        return count;
+    }
+}
@@ -0,0 +1,65 @@
+package com.mediverse.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mediverse.dto.UserPrincipal;
+import com.mediverse.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Tells signed-in sessions when their user has changed, so the principal cached in the session
+ * is rebuilt instead of going on with an old role, name or doctor/patient id.
+ *
+ * Each user row carries a principal version that is bumped together with the change, and a
+ * principal is stamped with the version it was built from. The principal is stale once the
+ * stored version is newer, or the user is gone. The stored versions are cached for
+ * {@link #RECHECK_AFTER}, so a change made on another app instance is noticed within that
+ * time; this instance drops its cached version as soon as its own change commits.
+ */
+@Service
+public class PrincipalVersionService {
+
+    static final Duration RECHECK_AFTER = Duration.ofSeconds(5);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Cache<Long, Optional<Long>> versions = Caffeine.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterWrite(RECHECK_AFTER)
+        .build();
+
+    /**
+     * Bump the user's principal version in the current transaction, so the rebuilt principal
+     * cannot read the old row
+     */
+    @Transactional
+    public void userChanged(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        userRepository.incrementPrincipalVersion(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.invalidate(userId);
+                }
+            });
+        } else {
+            versions.invalidate(userId);
+        }
+    }
+
+    public boolean isStale(UserPrincipal principal) {
+        Optional<Long> current = versions.get(principal.getUserId(), userRepository::findPrincipalVersionById);
+        return current.isEmpty() || current.get() > principal.getVersion();
+    }
+}
@@ -0,0 +1,7 @@
+package com.mediverse.service;
+
+/**
+ * Published when departments, doctors or branches are edited and the reference snapshot should be rebuilt
+ */
+public record ReferenceDataChangedEvent() {
+}
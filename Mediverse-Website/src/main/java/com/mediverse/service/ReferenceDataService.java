@@ -0,0 +1,72 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.Department;
+import com.mediverse.entity.Doctor;
+import com.mediverse.repository.DepartmentRepository;
+import com.mediverse.repository.DoctorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Departments and doctors for the booking forms, cached in process.
+ *
+ * The caches are bounded and expire after the TTL set in application.properties, and the
+ * admin handlers evict them as soon as the rows change. Cached entities are detached and
+ * shared between requests: every association the pages render is fetched up front, and
+ * callers must not modify them. Evicting also rebuilds the public pages' reference snapshot.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReferenceDataService {
+
+    public static final String DEPARTMENTS = "departments";
+    public static final String DOCTORS = "doctors";
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Cacheable(cacheNames = DEPARTMENTS, key = "'all'")
+    public List<Department> allDepartments() {
+        return departmentRepository.findAll();
+    }
+
+    /**
+     * Every doctor with their user, by name, for the booking forms
+     */
+    @Cacheable(cacheNames = DOCTORS, key = "'all'")
+    public List<Doctor> allDoctors() {
+        return doctorRepository.findAllWithUser();
+    }
+
+    /**
+     * Doctor cards show the department name, so they go too
+     */
+    @CacheEvict(cacheNames = { DEPARTMENTS, DOCTORS }, allEntries = true)
+    public void evictDepartments() {
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent());
+    }
+
+    @CacheEvict(cacheNames = DOCTORS, allEntries = true)
+    public void evictDoctors() {
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent());
+    }
+
+    /**
+     * Branches are only cached in the reference snapshot
+     */
+    public void evictBranches() {
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent());
+    }
+}
@@ -0,0 +1,77 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.ReferenceSnapshot;
+import com.mediverse.entity.Branch;
+import com.mediverse.entity.Department;
+import com.mediverse.entity.Doctor;
+import com.mediverse.repository.BranchRepository;
+import com.mediverse.repository.DepartmentRepository;
+import com.mediverse.repository.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * The current reference snapshot for the public pages and the booking forms' doctor lists.
+ *
+ * Readers get the snapshot with a single volatile read and never wait or query. A rebuild
+ * loads everything into a new snapshot off to the side and then swaps the reference, so
+ * readers keep using the previous one until the new one is complete. Rebuilds run in the
+ * background after admin edits, at startup, and periodically to pick up edits made through
+ * other instances.
+ */
+@Service
+public class ReferenceSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceSnapshotService.class);
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    private volatile ReferenceSnapshot snapshot;
+
+    public ReferenceSnapshot current() {
+        ReferenceSnapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * Rebuild on the async executor once the edit that changed the data commits
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Load a new snapshot and publish it. Rebuilds run one at a time so an older one can never
+     * replace a newer one; readers are not blocked.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000)
+    public synchronized ReferenceSnapshot rebuild() {
+        List<Department> departments = departmentRepository.findActiveDepartmentsOrderByName();
+        List<Doctor> doctors = doctorRepository.findAvailableDoctorsWithDetails();
+        List<Branch> branches = branchRepository.findActiveBranchesOrderByName();
+        ReferenceSnapshot rebuilt = new ReferenceSnapshot(departments, doctors, branches);
+        snapshot = rebuilt;
+        log.info("Reference snapshot rebuilt: {} departments, {} doctors, {} branches",
+            departments.size(), doctors.size(), branches.size());
+        return rebuilt;
+    }
+}
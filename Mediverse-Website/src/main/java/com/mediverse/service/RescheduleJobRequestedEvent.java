@@ -0,0 +1,7 @@
+package com.mediverse.service;
+
+/**
+ * Published when a reschedule job is created or resumed and should be picked up by a worker
+ */
+public record RescheduleJobRequestedEvent(Long jobId) {
+}
@@ -0,0 +1,325 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.AvailableSlotDTO;
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.RescheduleJob;
+import com.mediverse.entity.RescheduleJobStatus;
+import com.mediverse.repository.AppointmentRepository;
+import com.mediverse.repository.DoctorRepository;
+import com.mediverse.repository.RescheduleJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves a doctor's appointments out of a time window in bulk, e.g. when the doctor goes on leave.
+ *
+ * Appointments are read in id order one keyset page at a time. Each one is moved to the doctor's
+ * earliest free slot after the window or, if allowed and sooner, to another doctor in the same
+ * department. A page of moves is written with JDBC batch statements in one transaction together
+ * with the job's cursor, so a job stopped at any point resumes at the first unprocessed appointment.
+ */
+@Service
+public class RescheduleJobService {
+
+    public static final int BATCH_SIZE = 200;
+
+    // A running job that has not reported progress for this long is assumed to have lost its worker
+    private static final Duration STALE_AFTER = Duration.ofMinutes(2);
+
+    private static final Set<AppointmentStatus> MOVABLE_STATUSES = Set.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED);
+
+    private static final Logger log = LoggerFactory.getLogger(RescheduleJobService.class);
+
+    @Autowired
+    private RescheduleJobRepository rescheduleJobRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private SlotSearchService slotSearchService;
+
+    @Autowired
+    private SlotIndexService slotIndexService;
+
+    @Autowired
+    private TodayQueueService todayQueueService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Create a job for the doctor's appointments in [from, to) and hand it to a worker once committed
+     */
+    @Transactional
+    public RescheduleJob start(Long doctorId, LocalDateTime from, LocalDateTime to, boolean allowOtherDoctors) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new RuntimeException("Reschedule window must end after it starts");
+        }
+        Doctor doctor = doctorRepository.findById(doctorId)
+            .orElseThrow(() -> new RuntimeException("Doctor not found"));
+
+        RescheduleJob job = new RescheduleJob(doctor, from, to, allowOtherDoctors);
+        job.setTotalCount((int) appointmentRepository.countForReschedule(doctorId, from, to, MOVABLE_STATUSES));
+        job = rescheduleJobRepository.save(job);
+        eventPublisher.publishEvent(new RescheduleJobRequestedEvent(job.getId()));
+        return job;
+    }
+
+    /**
+     * Ask a job to stop after its current batch
+     */
+    @Transactional
+    public void pause(Long jobId) {
+        if (rescheduleJobRepository.transition(jobId, Set.of(RescheduleJobStatus.PENDING, RescheduleJobStatus.RUNNING),
+                RescheduleJobStatus.PAUSED, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Only pending or running jobs can be paused");
+        }
+    }
+
+    /**
+     * Continue a paused or failed job from its last committed batch
+     */
+    @Transactional
+    public void resume(Long jobId) {
+        if (rescheduleJobRepository.transition(jobId, Set.of(RescheduleJobStatus.PAUSED, RescheduleJobStatus.FAILED),
+                RescheduleJobStatus.PENDING, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Only paused or failed jobs can be resumed");
+        }
+        eventPublisher.publishEvent(new RescheduleJobRequestedEvent(jobId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RescheduleJob> getRecentJobs() {
+        return rescheduleJobRepository.findRecentWithDoctor(PageRequest.of(0, 20));
+    }
+
+    @Transactional(readOnly = true)
+    public RescheduleJob getJob(Long jobId) {
+        return rescheduleJobRepository.findByIdWithDoctor(jobId)
+            .orElseThrow(() -> new RuntimeException("Reschedule job not found"));
+    }
+
+    /**
+     * Run a job on the async executor once the transaction that requested it commits
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobRequested(RescheduleJobRequestedEvent event) {
+        run(event.jobId());
+    }
+
+    /**
+     * Pick up jobs nobody is working on: pending ones, and running ones left behind by a
+     * stopped instance. Runs at startup and periodically.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void resumeAbandoned() {
+        for (Long jobId : rescheduleJobRepository.findRunnableIds(LocalDateTime.now().minus(STALE_AFTER))) {
+            eventPublisher.publishEvent(new RescheduleJobRequestedEvent(jobId));
+        }
+    }
+
+    private void run(Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status -> rescheduleJobRepository.claim(jobId, now, now.minus(STALE_AFTER)));
+        if (claimed == null || claimed == 0) {
+            return; // Finished, paused, or already owned by another worker
+        }
+        try {
+            process(rescheduleJobRepository.findByIdWithDoctor(jobId)
+                .orElseThrow(() -> new RuntimeException("Reschedule job not found")));
+        } catch (RuntimeException e) {
+            log.error("Reschedule job {} failed", jobId, e);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            transactionTemplate.executeWithoutResult(status -> rescheduleJobRepository.finish(jobId, RescheduleJobStatus.FAILED,
+                message.length() > 1000 ? message.substring(0, 1000) : message, LocalDateTime.now()));
+        }
+    }
+
+    private void process(RescheduleJob job) {
+        Long jobId = job.getId();
+        Doctor doctor = job.getDoctor();
+        List<Doctor> sameDoctor = List.of(doctor);
+        List<Doctor> colleagues = job.getAllowOtherDoctors() && doctor.getDepartment() != null
+            ? doctorRepository.findAvailableDoctorsByDepartmentWithUser(doctor.getDepartment().getId()).stream()
+                .filter(other -> !other.getId().equals(doctor.getId()))
+                .toList()
+            : List.of();
+
+        long cursor = job.getLastAppointmentId();
+        while (rescheduleJobRepository.findStatusById(jobId).orElse(null) == RescheduleJobStatus.RUNNING) {
+            List<Appointment> page = appointmentRepository.findForReschedule(doctor.getId(), job.getWindowStart(), job.getWindowEnd(),
+                MOVABLE_STATUSES, cursor, PageRequest.of(0, BATCH_SIZE));
+            if (page.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status ->
+                    rescheduleJobRepository.finish(jobId, RescheduleJobStatus.COMPLETED, null, LocalDateTime.now()));
+                log.info("Reschedule job {} completed", jobId);
+                return;
+            }
+
+            List<Move> moves = new ArrayList<>();
+            int unmoved = 0;
+            try {
+                for (Appointment appointment : page) {
+                    Move move = plan(appointment, sameDoctor, colleagues, job.getWindowEnd());
+                    if (move == null) {
+                        unmoved++;
+                        log.warn("Reschedule job {} found no free slot for appointment {}", jobId, appointment.getId());
+                    } else {
+                        // Take the new slot in the index now so later appointments in this page do not get it too
+                        slotIndexService.occupy(move.toDoctorId(), move.toStart(), move.durationMinutes());
+                        moves.add(move);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Nothing from this page was written, so give back the slots taken for it before the job fails
+                moves.forEach(move -> slotIndexService.release(move.toDoctorId(), move.toStart(), move.durationMinutes()));
+                throw e;
+            }
+            cursor = page.get(page.size() - 1).getId();
+            write(jobId, cursor, moves, unmoved);
+        }
+    }
+
+    /**
+     * Earliest replacement slot: the same doctor after the window, or a colleague from the original time
+     */
+    private Move plan(Appointment appointment, List<Doctor> sameDoctor, List<Doctor> colleagues, LocalDateTime windowEnd) {
+        LocalDateTime now = LocalDateTime.now();
+        int duration = SlotIndexService.durationOf(appointment);
+        LocalDateTime original = appointment.getAppointmentDateTime();
+
+        AvailableSlotDTO best = first(slotSearchService.findEarliestSlots(sameDoctor, later(windowEnd, now), duration, 1));
+        if (!colleagues.isEmpty()) {
+            AvailableSlotDTO other = first(slotSearchService.findEarliestSlots(colleagues, later(original, now), duration, 1));
+            if (other != null && (best == null || other.getSlotStart().isBefore(best.getSlotStart()))) {
+                best = other;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        return new Move(appointment.getId(), appointment.getDoctor().getId(), original, best.getDoctorId(), best.getSlotStart(), duration);
+    }
+
+    /**
+     * Commit a page of moves and the job's progress together. If the page cannot be written as a
+     * whole, because a planned slot was taken elsewhere or an appointment changed since it was read,
+     * the moves are retried one at a time so only the conflicting ones are skipped.
+     */
+    private void write(Long jobId, long cursor, List<Move> moves, int unmoved) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                applyMoves(moves);
+                recordProgress(jobId, cursor, moves.size(), unmoved);
+            });
+            moves.forEach(this::releaseOriginal);
+            return;
+        } catch (DataAccessException e) {
+            log.debug("Reschedule job {} batch conflicted, retrying moves one by one: {}", jobId, e.getMessage());
+        }
+
+        int moved = 0;
+        int skipped = unmoved;
+        for (Move move : moves) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyMoves(List.of(move)));
+                releaseOriginal(move);
+                moved++;
+            } catch (DataAccessException e) {
+                slotIndexService.evict(move.toDoctorId(), move.toStart().toLocalDate());
+                skipped++;
+                log.warn("Reschedule job {} could not move appointment {}: {}", jobId, move.appointmentId(), e.getMessage());
+            }
+        }
+        int movedCount = moved;
+        int skippedCount = skipped;
+        transactionTemplate.executeWithoutResult(status -> recordProgress(jobId, cursor, movedCount, skippedCount));
+    }
+
+    private void applyMoves(List<Move> moves) {
+        LocalDateTime now = LocalDateTime.now();
+        int[] updated = jdbcTemplate.batchUpdate(
+            "UPDATE appointments SET doctor_id = ?, appointment_date_time = ?, updated_at = ? " +
+            "WHERE id = ? AND doctor_id = ? AND appointment_date_time = ? AND status IN ('SCHEDULED', 'CONFIRMED')",
+            moves.stream()
+                .map(move -> new Object[] { move.toDoctorId(), move.toStart(), now,
+                    move.appointmentId(), move.fromDoctorId(), move.fromStart() })
+                .toList());
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new OptimisticLockingFailureException("Appointment " + moves.get(i).appointmentId() + " changed while it was being moved");
+            }
+        }
+
+        jdbcTemplate.batchUpdate("DELETE FROM appointment_slot_ledger WHERE appointment_id = ?",
+            moves.stream().map(move -> new Object[] { move.appointmentId() }).toList());
+
+        List<Object[]> claims = new ArrayList<>();
+        for (Move move : moves) {
+            for (LocalDateTime blockStart : SlotLedgerService.blockStarts(move.toStart(), move.durationMinutes())) {
+                claims.add(new Object[] { move.toDoctorId(), blockStart, move.appointmentId(), now });
+            }
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO appointment_slot_ledger (doctor_id, slot_start, appointment_id, created_at) VALUES (?, ?, ?, ?)", claims);
+    }
+
+    private void recordProgress(Long jobId, long cursor, int moved, int unmoved) {
+        jdbcTemplate.update(
+            "UPDATE reschedule_jobs SET last_appointment_id = ?, moved_count = moved_count + ?, unmoved_count = unmoved_count + ?, " +
+            "updated_at = ? WHERE id = ?",
+            cursor, moved, unmoved, LocalDateTime.now(), jobId);
+    }
+
+    private void releaseOriginal(Move move) {
+        slotIndexService.release(move.fromDoctorId(), move.fromStart(), move.durationMinutes());
+        todayQueueService.evict(move.fromDoctorId(), move.fromStart());
+        todayQueueService.evict(move.toDoctorId(), move.toStart());
+    }
+
+    private static AvailableSlotDTO first(List<AvailableSlotDTO> slots) {
+        return slots.isEmpty() ? null : slots.get(0);
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private record Move(Long appointmentId, Long fromDoctorId, LocalDateTime fromStart,
+                        Long toDoctorId, LocalDateTime toStart, int durationMinutes) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.ScheduleException;
+import com.mediverse.entity.ScheduleExceptionType;
+import com.mediverse.repository.BranchRepository;
+import com.mediverse.repository.DoctorRepository;
+import com.mediverse.repository.ScheduleExceptionRepository;
+import com.mediverse.util.TimeRangeIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calendar of doctor leave, holidays and other closures.
+ *
+ * Upcoming exceptions are held in memory as one {@link TimeRangeIndex} per doctor plus one
+ * for hospital-wide closures, so availability checks are a binary search rather than a query.
+ * The whole calendar is swapped in at once on reload, so readers never see a half-built one.
+ */
+@Service
+public class ScheduleExceptionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleExceptionService.class);
+
+    private volatile Calendar calendar = Calendar.EMPTY;
+
+    @Autowired
+    private ScheduleExceptionRepository scheduleExceptionRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    /**
+     * Whether the doctor is away for any part of the range
+     */
+    public boolean isBlocked(Long doctorId, LocalDateTime start, int durationMinutes) {
+        return isBlocked(doctorId, start, start.plusMinutes(durationMinutes));
+    }
+
+    /**
+     * Whether the doctor is away for any part of [from, to)
+     */
+    public boolean isBlocked(Long doctorId, LocalDateTime from, LocalDateTime to) {
+        Calendar current = calendar;
+        if (current.hospitalWide().overlaps(from, to)) {
+            return true;
+        }
+        TimeRangeIndex doctorIndex = current.byDoctor().get(doctorId);
+        return doctorIndex != null && doctorIndex.overlaps(from, to);
+    }
+
+    /**
+     * Add an exception for one doctor, or for every doctor when doctorId is null.
+     * Doctors are not tied to a branch, so a branch holiday closes every doctor; the branch is kept for reference.
+     */
+    @Transactional
+    public ScheduleException add(Long doctorId, Long branchId, ScheduleExceptionType type,
+                                 LocalDateTime startsAt, LocalDateTime endsAt, String reason) {
+        if (startsAt == null || endsAt == null || !endsAt.isAfter(startsAt)) {
+            throw new RuntimeException("Exception must end after it starts");
+        }
+        Doctor doctor = null;
+        if (doctorId != null) {
+            doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new RuntimeException("Doctor not found"));
+        }
+        ScheduleException exception = new ScheduleException(doctor, type != null ? type : ScheduleExceptionType.LEAVE, startsAt, endsAt);
+        if (doctorId == null && branchId != null) {
+            exception.setBranch(branchRepository.findById(branchId)
+                .orElseThrow(() -> new RuntimeException("Branch not found")));
+        }
+        exception.setReason(reason != null && !reason.isBlank() ? reason.trim() : null);
+        exception = scheduleExceptionRepository.save(exception);
+        afterCommit(this::reload);
+        return exception;
+    }
+
+    @Transactional
+    public void remove(Long id) {
+        if (!scheduleExceptionRepository.existsById(id)) {
+            throw new RuntimeException("Schedule exception not found");
+        }
+        scheduleExceptionRepository.deleteById(id);
+        afterCommit(this::reload);
+    }
+
+    /**
+     * Remove a doctor's exceptions, before the doctor is removed
+     */
+    @Transactional
+    public void removeForDoctor(Long doctorId) {
+        scheduleExceptionRepository.deleteByDoctorId(doctorId);
+        afterCommit(this::reload);
+    }
+
+    /**
+     * Exceptions that have not ended yet, soonest first, with doctor details loaded for display
+     */
+    @Transactional(readOnly = true)
+    public List<ScheduleException> getUpcoming() {
+        return scheduleExceptionRepository.findEndingAfterWithDetails(LocalDateTime.now());
+    }
+
+    /**
+     * Reload the calendar from the database. Runs at startup and periodically to pick up
+     * exceptions added through other instances.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000)
+    @Transactional(readOnly = true)
+    public void reload() {
+        List<ScheduleException> upcoming = scheduleExceptionRepository.findEndingAfter(LocalDate.now().atStartOfDay());
+        List<LocalDateTime[]> hospitalWide = new ArrayList<>();
+        Map<Long, List<LocalDateTime[]>> byDoctor = new HashMap<>();
+        for (ScheduleException exception : upcoming) {
+            LocalDateTime[] range = { exception.getStartsAt(), exception.getEndsAt() };
+            if (exception.isHospitalWide()) {
+                hospitalWide.add(range);
+            } else {
+                byDoctor.computeIfAbsent(exception.getDoctor().getId(), id -> new ArrayList<>()).add(range);
+            }
+        }
+        Map<Long, TimeRangeIndex> indexes = new HashMap<>();
+        byDoctor.forEach((doctorId, ranges) -> indexes.put(doctorId, TimeRangeIndex.of(ranges)));
+        calendar = new Calendar(TimeRangeIndex.of(hospitalWide), Map.copyOf(indexes));
+        log.info("Schedule exceptions loaded: {} upcoming, {} doctors with leave", upcoming.size(), indexes.size());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Calendar(TimeRangeIndex hospitalWide, Map<Long, TimeRangeIndex> byDoctor) {
+
+        static final Calendar EMPTY = new Calendar(TimeRangeIndex.EMPTY, Map.of());
+    }
+}
@@ -0,0 +1,152 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.SlotHoldDTO;
+import com.mediverse.util.HashedTimingWheel;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Short-lived slot holds taken while a patient fills in the booking form.
+ *
+ * Holds are kept here, apart from the slot index's cached days, and the index overlays them
+ * when it answers availability, so a day being evicted or rebuilt never drops a live hold.
+ * Expiry runs through a hashed timing wheel ticked once a second instead of a scheduled task
+ * per hold. Holds live in this instance only; the slot ledger still decides between
+ * instances when the booking is saved.
+ */
+@Service
+public class SlotHoldService {
+
+    public static final Duration HOLD_DURATION = Duration.ofMinutes(5);
+
+    private static final long TICK_MILLIS = 1000;
+
+    // 512 one-second buckets cover a hold in a single turn of the wheel
+    private final HashedTimingWheel<SlotHold> wheel = new HashedTimingWheel<>(TICK_MILLIS, 512, System.currentTimeMillis());
+
+    private final ConcurrentMap<String, SlotHold> holds = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, SlotHold> holdsByPatient = new ConcurrentHashMap<>();
+
+    // A doctor has at most a handful of holds at once, so overlap checks just scan them
+    private final ConcurrentMap<Long, Set<SlotHold>> holdsByDoctor = new ConcurrentHashMap<>();
+
+    /**
+     * Hold a slot that the caller has already checked is free under the doctor's lock
+     */
+    public SlotHoldDTO hold(Long doctorId, LocalDateTime slotStart, int durationMinutes, String patientEmail) {
+        SlotHold hold = new SlotHold(UUID.randomUUID().toString(), doctorId, slotStart, durationMinutes, patientEmail);
+        // Added under the map entry's lock, so remove() cannot drop the set between lookup and add
+        holdsByDoctor.compute(doctorId, (id, doctorHolds) -> {
+            Set<SlotHold> updated = doctorHolds == null ? ConcurrentHashMap.newKeySet() : doctorHolds;
+            updated.add(hold);
+            return updated;
+        });
+        holds.put(hold.holdId, hold);
+        holdsByPatient.put(patientEmail, hold);
+
+        long expiresAtMillis = System.currentTimeMillis() + HOLD_DURATION.toMillis();
+        hold.timeout = wheel.schedule(hold, expiresAtMillis);
+        return new SlotHoldDTO(hold.holdId, doctorId, slotStart, LocalDateTime.now().plus(HOLD_DURATION));
+    }
+
+    /**
+     * Check whether someone other than the given patient holds any part of the range.
+     * Pass a null patient to count every hold.
+     */
+    public boolean isHeld(Long doctorId, LocalDateTime start, int durationMinutes, String exceptPatientEmail) {
+        Set<SlotHold> doctorHolds = holdsByDoctor.get(doctorId);
+        if (doctorHolds == null) {
+            return false;
+        }
+        LocalDateTime end = start.plusMinutes(durationMinutes);
+        for (SlotHold hold : doctorHolds) {
+            if (hold.slotStart.isBefore(end) && start.isBefore(hold.slotStart.plusMinutes(hold.durationMinutes))
+                    && !hold.patientEmail.equals(exceptPatientEmail)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drop the patient's hold if it is for exactly this slot, once the booking has taken it.
+     * Returns true if a matching hold was found.
+     */
+    public boolean consume(String patientEmail, Long doctorId, LocalDateTime slotStart) {
+        SlotHold hold = holdsByPatient.get(patientEmail);
+        if (hold == null || !hold.doctorId.equals(doctorId) || !hold.slotStart.equals(slotStart)) {
+            return false;
+        }
+        return remove(hold);
+    }
+
+    /**
+     * Release a hold early, e.g. when the patient picks another slot
+     */
+    public boolean release(String holdId, String patientEmail) {
+        SlotHold hold = holds.get(holdId);
+        return hold != null && hold.patientEmail.equals(patientEmail) && remove(hold);
+    }
+
+    /**
+     * Release whatever hold the patient currently has
+     */
+    public void releaseForPatient(String patientEmail) {
+        SlotHold hold = holdsByPatient.get(patientEmail);
+        if (hold != null) {
+            remove(hold);
+        }
+    }
+
+    public int activeHolds() {
+        return holds.size();
+    }
+
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void expireHolds() {
+        for (SlotHold hold : wheel.expire(System.currentTimeMillis())) {
+            remove(hold);
+        }
+    }
+
+    private boolean remove(SlotHold hold) {
+        if (!holds.remove(hold.holdId, hold)) {
+            return false;
+        }
+        holdsByPatient.remove(hold.patientEmail, hold);
+        if (hold.timeout != null) {
+            wheel.cancel(hold.timeout);
+        }
+        holdsByDoctor.computeIfPresent(hold.doctorId, (id, doctorHolds) -> {
+            doctorHolds.remove(hold);
+            return doctorHolds.isEmpty() ? null : doctorHolds;
+        });
+        return true;
+    }
+
+    private static final class SlotHold {
+
+        private final String holdId;
+        private final Long doctorId;
+        private final LocalDateTime slotStart;
+        private final int durationMinutes;
+        private final String patientEmail;
+        private volatile HashedTimingWheel.Timeout<SlotHold> timeout;
+
+        SlotHold(String holdId, Long doctorId, LocalDateTime slotStart, int durationMinutes, String patientEmail) {
+            this.holdId = holdId;
+            this.doctorId = doctorId;
+            this.slotStart = slotStart;
+            this.durationMinutes = durationMinutes;
+            this.patientEmail = patientEmail;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.mediverse.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mediverse.dto.BookedSlotView;
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.repository.AppointmentRepository;
+import com.mediverse.util.BookedIntervals;
+import com.mediverse.util.StripedLocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * In-memory slot occupancy index, one {@link BookedIntervals} per doctor per day.
+ *
+ * Days are loaded from the database the first time they are asked for, or in bulk through
+ * {@link #preload}, and kept in step by the booking, cancel and edit paths afterwards. Only this
+ * instance's changes reach a cached day, so days are reloaded after {@link #MAX_AGE} to pick up
+ * bookings, cancels and moves made by other instances. At most {@link #MAX_DAYS} days are kept;
+ * an evicted day is simply read again. Slot holds are not part of the cached days;
+ * availability checks overlay them from {@link SlotHoldService}.
+ */
+@Service
+public class SlotIndexService {
+
+    public static final int DEFAULT_SLOT_MINUTES = 30;
+
+    static final Duration MAX_AGE = Duration.ofMinutes(1);
+
+    static final int MAX_DAYS = 20_000;
+
+    private static final Logger log = LoggerFactory.getLogger(SlotIndexService.class);
+
+    private final ConcurrentMap<DoctorDay, BookedIntervals> days = Caffeine.newBuilder()
+        .maximumSize(MAX_DAYS)
+        .expireAfterWrite(MAX_AGE)
+        .<DoctorDay, BookedIntervals>build()
+        .asMap();
+
+    // One stripe per doctor id hash; bookings for different doctors rarely contend
+    private final StripedLocks doctorLocks = new StripedLocks(256);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private SlotHoldService slotHoldService;
+
+    /**
+     * Lock to hold while checking and then taking a doctor's slot
+     */
+    public Lock lockFor(Long doctorId) {
+        return doctorLocks.forKey(doctorId);
+    }
+
+    /**
+     * Check whether a doctor is free for the whole range, neither booked nor held
+     */
+    public boolean isFree(Long doctorId, LocalDateTime start, int durationMinutes) {
+        return isFree(doctorId, start, durationMinutes, null);
+    }
+
+    /**
+     * Check whether a doctor is free for the whole range, not counting the given patient's own hold
+     */
+    public boolean isFree(Long doctorId, LocalDateTime start, int durationMinutes, String holderEmail) {
+        return day(doctorId, start.toLocalDate()).isFree(start.toLocalTime(), durationMinutes)
+            && !slotHoldService.isHeld(doctorId, start, durationMinutes, holderEmail);
+    }
+
+    /**
+     * Keep only the candidate start times that are free on the given date
+     */
+    public List<LocalTime> freeSlots(Long doctorId, LocalDate date, List<LocalTime> candidates, int durationMinutes) {
+        return freeSlots(doctorId, date, candidates, durationMinutes, day(doctorId, date));
+    }
+
+    /**
+     * Like {@link #freeSlots(Long, LocalDate, List, int)}, for a day already read from the database.
+     * The read is handed to the index unless it already holds the day.
+     */
+    public List<LocalTime> freeSlots(Long doctorId, LocalDate date, List<LocalTime> candidates, int durationMinutes,
+                                     BookedIntervals read) {
+        BookedIntervals booked = prime(doctorId, date, read);
+        return candidates.stream()
+            .filter(slot -> booked.isFree(slot, durationMinutes)
+                && !slotHoldService.isHeld(doctorId, date.atTime(slot), durationMinutes, null))
+            .toList();
+    }
+
+    /**
+     * Mark an appointment's range as taken straight away, so other bookings see it
+     * before the transaction commits. The mark is undone if the transaction rolls back.
+     */
+    public void occupy(Appointment appointment) {
+        if (!isBlocking(appointment)) {
+            return;
+        }
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDateTime start = appointment.getAppointmentDateTime();
+        int duration = durationOf(appointment);
+
+        day(doctorId, start.toLocalDate()).occupy(start.toLocalTime(), duration);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(doctorId, start, duration);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Free an appointment's current range once the surrounding transaction commits.
+     * Call this before changing the appointment, since the range is read immediately.
+     */
+    public void release(Appointment appointment) {
+        if (!isBlocking(appointment)) {
+            return;
+        }
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDateTime start = appointment.getAppointmentDateTime();
+        int duration = durationOf(appointment);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(doctorId, start, duration);
+                }
+            });
+        } else {
+            release(doctorId, start, duration);
+        }
+    }
+
+    /**
+     * Mark a range as taken outside any transaction, e.g. while planning a batch of moves
+     */
+    public void occupy(Long doctorId, LocalDateTime start, int durationMinutes) {
+        day(doctorId, start.toLocalDate()).occupy(start.toLocalTime(), durationMinutes);
+    }
+
+    /**
+     * Free a range straight away
+     */
+    public void release(Long doctorId, LocalDateTime start, int durationMinutes) {
+        DoctorDay key = new DoctorDay(doctorId, start.toLocalDate());
+        BookedIntervals booked = days.get(key);
+        if (booked != null && !booked.release(start.toLocalTime(), durationMinutes)) {
+            // Overlapping bookings were merged or the range no longer matches, so let the next read rebuild the day
+            days.remove(key, booked);
+        }
+    }
+
+    /**
+     * Seed a day read elsewhere from the database. Returns the ranges the index ends up
+     * holding, which are the existing ones if the day was already loaded.
+     */
+    public BookedIntervals prime(Long doctorId, LocalDate date, BookedIntervals booked) {
+        BookedIntervals existing = days.putIfAbsent(new DoctorDay(doctorId, date), booked);
+        return existing != null ? existing : booked;
+    }
+
+    /**
+     * Load the given doctors' days from {@code from} to {@code to} that are not cached yet,
+     * with one query for all of them, so walking many days does not read them one by one
+     */
+    public void preload(Collection<Long> doctorIds, LocalDate from, LocalDate to) {
+        Map<DoctorDay, BookedIntervals> loaded = new HashMap<>();
+        for (Long doctorId : doctorIds) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                DoctorDay key = new DoctorDay(doctorId, date);
+                if (!days.containsKey(key)) {
+                    loaded.put(key, new BookedIntervals());
+                }
+            }
+        }
+        if (loaded.isEmpty()) {
+            return;
+        }
+        List<Long> missingDoctorIds = loaded.keySet().stream().map(DoctorDay::doctorId).distinct().toList();
+        List<BookedSlotView> booked = appointmentRepository.findBookedSlotsForDoctors(missingDoctorIds,
+            from.atStartOfDay(), to.plusDays(1).atStartOfDay(), AppointmentStatus.CANCELLED);
+        for (BookedSlotView slot : booked) {
+            BookedIntervals day = loaded.get(new DoctorDay(slot.getDoctorId(), slot.getAppointmentDateTime().toLocalDate()));
+            if (day != null) {
+                int duration = slot.getDurationMinutes() != null ? slot.getDurationMinutes() : DEFAULT_SLOT_MINUTES;
+                day.occupy(slot.getAppointmentDateTime().toLocalTime(), duration);
+            }
+        }
+        // Days loaded by someone else in the meantime are kept, as in day()
+        loaded.forEach(days::putIfAbsent);
+    }
+
+    /**
+     * Drop a cached day so it is reloaded from the database on next use
+     */
+    public void evict(Long doctorId, LocalDate date) {
+        days.remove(new DoctorDay(doctorId, date));
+    }
+
+    /**
+     * Drop every cached day for a doctor once the surrounding transaction commits, so a day
+     * reloaded in the meantime from the old rows does not stay cached
+     */
+    public void evictDoctor(Long doctorId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    days.keySet().removeIf(key -> key.doctorId().equals(doctorId));
+                }
+            });
+        } else {
+            days.keySet().removeIf(key -> key.doctorId().equals(doctorId));
+        }
+    }
+
+    /**
+     * Rebuild the index from the database for today onwards.
+     * Runs at startup and can be called again to recover from drift.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDate today = LocalDate.now();
+        ConcurrentMap<DoctorDay, BookedIntervals> rebuilt = new ConcurrentHashMap<>();
+        List<Appointment> upcoming = appointmentRepository
+            .findByAppointmentDateTimeFromExcludingStatus(today.atStartOfDay(), AppointmentStatus.CANCELLED);
+        for (Appointment appointment : upcoming) {
+            DoctorDay key = new DoctorDay(appointment.getDoctor().getId(), appointment.getAppointmentDateTime().toLocalDate());
+            rebuilt.computeIfAbsent(key, k -> new BookedIntervals())
+                .occupy(appointment.getAppointmentDateTime().toLocalTime(), durationOf(appointment));
+        }
+        days.clear();
+        days.putAll(rebuilt);
+        log.info("Slot index rebuilt with {} appointments across {} doctor-days", upcoming.size(), rebuilt.size());
+    }
+
+    /**
+     * Forget days that have already passed
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void purgePastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    private BookedIntervals day(Long doctorId, LocalDate date) {
+        DoctorDay key = new DoctorDay(doctorId, date);
+        BookedIntervals booked = days.get(key);
+        if (booked != null) {
+            return booked;
+        }
+        // Load outside the map so a slow query does not block other doctors
+        BookedIntervals loaded = load(doctorId, date);
+        BookedIntervals existing = days.putIfAbsent(key, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private BookedIntervals load(Long doctorId, LocalDate date) {
+        BookedIntervals booked = new BookedIntervals();
+        List<Appointment> appointments = appointmentRepository
+            .findByDoctorIdAndAppointmentDateTimeBetween(doctorId, date.atStartOfDay(), date.atTime(23, 59, 59));
+        for (Appointment appointment : appointments) {
+            if (isBlocking(appointment)) {
+                booked.occupy(appointment.getAppointmentDateTime().toLocalTime(), durationOf(appointment));
+            }
+        }
+        return booked;
+    }
+
+    private static boolean isBlocking(Appointment appointment) {
+        return appointment.getStatus() != AppointmentStatus.CANCELLED;
+    }
+
+    static int durationOf(Appointment appointment) {
+        return appointment.getDurationMinutes() != null ? appointment.getDurationMinutes() : DEFAULT_SLOT_MINUTES;
+    }
+
+    private record DoctorDay(Long doctorId, LocalDate date) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.SlotLedgerEntry;
+import com.mediverse.repository.AppointmentRepository;
+import com.mediverse.repository.SlotLedgerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Database-backed slot claims shared by every app instance.
+ *
+ * Each appointment owns one ledger row per {@link #BLOCK_MINUTES}-minute block
+ * it covers. The primary key on (doctor_id, slot_start) turns a double booking into a
+ * constraint violation inside the booking transaction.
+ */
+@Service
+@Transactional
+public class SlotLedgerService {
+
+    public static final int BLOCK_MINUTES = 5;
+
+    private static final Logger log = LoggerFactory.getLogger(SlotLedgerService.class);
+
+    @Autowired
+    private SlotLedgerRepository slotLedgerRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    /**
+     * Point lookup on the ledger for every block the range covers
+     */
+    @Transactional(readOnly = true)
+    public boolean isFree(Long doctorId, LocalDateTime start, int durationMinutes) {
+        return !slotLedgerRepository.existsClaim(doctorId, blockStarts(start, durationMinutes));
+    }
+
+    /**
+     * Claim the appointment's blocks in the current transaction.
+     * Throws if another appointment already holds any of them.
+     */
+    public void claim(Appointment appointment) {
+        if (appointment.getStatus() == AppointmentStatus.CANCELLED) {
+            return;
+        }
+        Long doctorId = appointment.getDoctor().getId();
+        List<SlotLedgerEntry> entries = new ArrayList<>();
+        for (LocalDateTime blockStart : blockStarts(appointment.getAppointmentDateTime(), SlotIndexService.durationOf(appointment))) {
+            entries.add(new SlotLedgerEntry(doctorId, blockStart, appointment.getId()));
+        }
+        try {
+            slotLedgerRepository.saveAllAndFlush(entries);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("This appointment slot is not available");
+        }
+    }
+
+    /**
+     * Release every block held by the appointment
+     */
+    public void release(Appointment appointment) {
+        if (appointment.getId() != null) {
+            slotLedgerRepository.deleteByAppointmentId(appointment.getId());
+        }
+    }
+
+    public void releaseForDoctor(Long doctorId) {
+        slotLedgerRepository.deleteByDoctorId(doctorId);
+    }
+
+    public void releaseForPatient(Long patientId) {
+        slotLedgerRepository.deleteByPatientId(patientId);
+    }
+
+    /**
+     * Release the blocks held by a doctor's appointments in [from, to) that are in one of the statuses
+     */
+    public void releaseForDoctorBetween(Long doctorId, LocalDateTime from, LocalDateTime to, Collection<AppointmentStatus> statuses) {
+        slotLedgerRepository.deleteForDoctorBetween(doctorId, from, to, statuses);
+    }
+
+    /**
+     * Populate an empty ledger from upcoming appointments, e.g. on first start after upgrade.
+     * Uses INSERT IGNORE so several instances starting together do not trip over each other.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (slotLedgerRepository.count() > 0) {
+            return;
+        }
+        List<Appointment> upcoming = appointmentRepository
+            .findByAppointmentDateTimeFromExcludingStatus(LocalDate.now().atStartOfDay(), AppointmentStatus.CANCELLED);
+        for (Appointment appointment : upcoming) {
+            for (LocalDateTime blockStart : blockStarts(appointment.getAppointmentDateTime(), SlotIndexService.durationOf(appointment))) {
+                slotLedgerRepository.insertIgnoringConflicts(appointment.getDoctor().getId(), blockStart, appointment.getId());
+            }
+        }
+        log.info("Slot ledger backfilled from {} upcoming appointments", upcoming.size());
+    }
+
+    /**
+     * Start of every ledger block the range touches
+     */
+    static List<LocalDateTime> blockStarts(LocalDateTime start, int durationMinutes) {
+        int granularity = BLOCK_MINUTES;
+        LocalDateTime end = start.plusMinutes(durationMinutes);
+        LocalDateTime block = start.withSecond(0).withNano(0)
+            .minusMinutes(start.getMinute() % granularity);
+        List<LocalDateTime> blocks = new ArrayList<>();
+        while (block.isBefore(end)) {
+            blocks.add(block);
+            block = block.plusMinutes(granularity);
+        }
+        return blocks;
+    }
+}
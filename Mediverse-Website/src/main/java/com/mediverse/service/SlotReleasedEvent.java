@@ -0,0 +1,9 @@
+package com.mediverse.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a booked slot becomes free again through a cancel, edit or delete
+ */
+public record SlotReleasedEvent(Long doctorId, LocalDateTime slotStart, int durationMinutes) {
+}
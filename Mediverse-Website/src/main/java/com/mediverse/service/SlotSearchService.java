@@ -0,0 +1,171 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.AvailableSlotDTO;
+import com.mediverse.entity.Doctor;
+import com.mediverse.repository.DoctorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Finds the earliest free slots across several doctors.
+ *
+ * Each doctor's calendar is walked lazily, one slot at a time, and the doctors are
+ * merged through a priority queue ordered by slot time, so the search stops as soon
+ * as enough slots are found instead of building every doctor's day lists. Booked ranges are
+ * read for all the doctors together, {@link #LOAD_DAYS} days at a time as the first cursor
+ * reaches them, rather than one query per doctor per day.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SlotSearchService {
+
+    public static final int MAX_SEARCH_DAYS = 60;
+
+    static final int LOAD_DAYS = 7;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private SlotIndexService slotIndexService;
+
+    /**
+     * Earliest free slots of the given length at or after {@code from}, for a department,
+     * a specialization or a list of doctors
+     */
+    public List<AvailableSlotDTO> findEarliestSlots(Long departmentId, String specialization, List<Long> doctorIds,
+                                                    LocalDateTime from, int durationMinutes, int limit) {
+        List<Doctor> doctors;
+        if (doctorIds != null && !doctorIds.isEmpty()) {
+            doctors = doctorRepository.findAllByIdWithUser(doctorIds);
+        } else if (departmentId != null) {
+            doctors = doctorRepository.findAvailableDoctorsByDepartmentWithUser(departmentId);
+        } else if (specialization != null && !specialization.isBlank()) {
+            doctors = doctorRepository.findAvailableDoctorsBySpecializationWithUser(specialization.trim());
+        } else {
+            return List.of();
+        }
+        return findEarliestSlots(doctors, from, durationMinutes, limit);
+    }
+
+    /**
+     * Earliest free slots of the given length at or after {@code from} across already loaded doctors.
+     * The doctors' users must be loaded, since the results carry their names.
+     */
+    public List<AvailableSlotDTO> findEarliestSlots(List<Doctor> doctors, LocalDateTime from, int durationMinutes, int limit) {
+        LocalDate lastDay = from.toLocalDate().plusDays(MAX_SEARCH_DAYS - 1);
+        DayLoader loader = new DayLoader(doctors.stream().map(Doctor::getId).toList(), from.toLocalDate(), lastDay);
+        PriorityQueue<DoctorCursor> queue = new PriorityQueue<>(
+            Comparator.comparing((DoctorCursor cursor) -> cursor.next).thenComparing(cursor -> cursor.doctor.getId()));
+        for (Doctor doctor : doctors) {
+            DoctorCursor cursor = new DoctorCursor(doctor, from, lastDay, durationMinutes, loader);
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+
+        List<AvailableSlotDTO> slots = new ArrayList<>();
+        while (!queue.isEmpty() && slots.size() < limit) {
+            DoctorCursor cursor = queue.poll();
+            slots.add(new AvailableSlotDTO(cursor.doctor.getId(), cursor.doctor.getFullName(),
+                cursor.doctor.getSpecialization(), cursor.next));
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Loads the searched doctors' days into the slot index a block at a time
+     */
+    private class DayLoader {
+
+        private final List<Long> doctorIds;
+        private final LocalDate lastDay;
+
+        private LocalDate loadedThrough;
+
+        DayLoader(List<Long> doctorIds, LocalDate firstDay, LocalDate lastDay) {
+            this.doctorIds = doctorIds;
+            this.lastDay = lastDay;
+            this.loadedThrough = firstDay.minusDays(1);
+        }
+
+        void ensureLoaded(LocalDate date) {
+            if (!date.isAfter(loadedThrough)) {
+                return;
+            }
+            // Carry on from the last block, so days one cursor skipped are there for the others
+            LocalDate from = loadedThrough.plusDays(1);
+            LocalDate to = from.plusDays(LOAD_DAYS - 1);
+            if (to.isBefore(date)) {
+                to = date;
+            }
+            loadedThrough = to.isAfter(lastDay) ? lastDay : to;
+            slotIndexService.preload(doctorIds, from, loadedThrough);
+        }
+    }
+
+    /**
+     * Position in one doctor's calendar. Days are only loaded into the slot index as a cursor reaches them.
+     */
+    private class DoctorCursor {
+
+        private final Doctor doctor;
+        private final LocalDateTime notBefore;
+        private final LocalDate lastDay;
+        private final int durationMinutes;
+        private final DayLoader loader;
+
+        private LocalDate date;
+        private List<LocalTime> candidates;
+        private int index;
+        private LocalDateTime next;
+
+        DoctorCursor(Doctor doctor, LocalDateTime notBefore, LocalDate lastDay, int durationMinutes, DayLoader loader) {
+            this.doctor = doctor;
+            this.notBefore = notBefore;
+            this.lastDay = lastDay;
+            this.durationMinutes = durationMinutes;
+            this.loader = loader;
+            this.date = notBefore.toLocalDate();
+            this.candidates = appointmentService.candidateSlots(doctor, date, durationMinutes);
+        }
+
+        /**
+         * Move to the next free slot. Returns false once the search horizon is passed.
+         */
+        boolean advance() {
+            while (!date.isAfter(lastDay)) {
+                if (index < candidates.size()) {
+                    loader.ensureLoaded(date);
+                }
+                while (index < candidates.size()) {
+                    LocalDateTime slot = date.atTime(candidates.get(index++));
+                    if (!slot.isBefore(notBefore) &&
+                        slotIndexService.isFree(doctor.getId(), slot, durationMinutes)) {
+                        next = slot;
+                        return true;
+                    }
+                }
+                date = date.plusDays(1);
+                candidates = appointmentService.candidateSlots(doctor, date, durationMinutes);
+                index = 0;
+            }
+            return false;
+        }
+    }
+}
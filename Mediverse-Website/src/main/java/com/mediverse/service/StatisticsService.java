@@ -0,0 +1,73 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.AppointmentStatusCounts;
+import com.mediverse.dto.DepartmentAppointmentCount;
+import com.mediverse.dto.PatientVisitSummary;
+import com.mediverse.dto.RoleCount;
+import com.mediverse.entity.Role;
+import com.mediverse.repository.StatisticsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts and totals for dashboards and reports, computed by the database
+ */
+@Service
+@Transactional(readOnly = true)
+public class StatisticsService {
+
+    @Autowired
+    private StatisticsRepository statisticsRepository;
+
+    public AppointmentStatusCounts appointmentCounts() {
+        return new AppointmentStatusCounts(statisticsRepository.countAppointmentsByStatus());
+    }
+
+    public AppointmentStatusCounts appointmentCountsForDoctor(Long doctorId) {
+        return new AppointmentStatusCounts(statisticsRepository.countAppointmentsByStatusForDoctor(doctorId));
+    }
+
+    public AppointmentStatusCounts appointmentCountsForPatient(Long patientId) {
+        return new AppointmentStatusCounts(statisticsRepository.countAppointmentsByStatusForPatient(patientId));
+    }
+
+    /**
+     * The doctor's appointments in the current calendar month
+     */
+    public long appointmentsThisMonthForDoctor(Long doctorId) {
+        LocalDateTime from = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        return statisticsRepository.countAppointmentsForDoctorBetween(doctorId, from, from.plusMonths(1));
+    }
+
+    /**
+     * Users per role; roles without users count as zero
+     */
+    public Map<Role, Long> userCountsByRole() {
+        Map<Role, Long> counts = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            counts.put(role, 0L);
+        }
+        for (RoleCount row : statisticsRepository.countUsersByRole()) {
+            counts.put(row.getRole(), row.getTotal());
+        }
+        return counts;
+    }
+
+    /**
+     * One row per patient the doctor has seen, with their visit count and latest visit
+     */
+    public List<PatientVisitSummary> patientVisitsForDoctor(Long doctorId) {
+        return statisticsRepository.findPatientVisitsForDoctor(doctorId);
+    }
+
+    public List<DepartmentAppointmentCount> departmentTotals() {
+        return statisticsRepository.countByDepartment();
+    }
+}
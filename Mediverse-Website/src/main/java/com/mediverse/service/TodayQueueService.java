@@ -0,0 +1,100 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.AppointmentSummary;
+import com.mediverse.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Each doctor's appointments for today, held in memory for the dashboard.
+ *
+ * A queue is loaded with one range read on (doctor_id, appointment_date_time) the first time
+ * it is asked for, dropped when one of the doctor's appointments for today changes, and
+ * reloaded after {@link #MAX_AGE} so changes made by other instances show up too.
+ */
+@Service
+public class TodayQueueService {
+
+    static final Duration MAX_AGE = Duration.ofMinutes(1);
+
+    private final ConcurrentMap<Long, Queue> queues = new ConcurrentHashMap<>();
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    /**
+     * Today's appointments for the doctor, earliest first
+     */
+    public List<AppointmentSummary> today(Long doctorId) {
+        LocalDate today = LocalDate.now();
+        Queue queue = queues.get(doctorId);
+        if (queue != null && queue.isCurrent(today)) {
+            return queue.appointments();
+        }
+        LocalDateTime from = today.atStartOfDay();
+        Queue loaded = new Queue(today, Instant.now(),
+            appointmentRepository.findSummariesForDoctorBetween(doctorId, from, from.plusDays(1)));
+        queues.put(doctorId, loaded);
+        return loaded.appointments();
+    }
+
+    /**
+     * Drop the doctor's queue once the surrounding transaction commits, if the
+     * appointment time falls today
+     */
+    public void evict(Long doctorId, LocalDateTime appointmentDateTime) {
+        if (!appointmentDateTime.toLocalDate().equals(LocalDate.now())) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queues.remove(doctorId);
+                }
+            });
+        } else {
+            queues.remove(doctorId);
+        }
+    }
+
+    public void evictDoctor(Long doctorId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queues.remove(doctorId);
+                }
+            });
+        } else {
+            queues.remove(doctorId);
+        }
+    }
+
+    /**
+     * Forget yesterday's queues
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void purgePastDays() {
+        LocalDate today = LocalDate.now();
+        queues.values().removeIf(queue -> !queue.day().equals(today));
+    }
+
+    private record Queue(LocalDate day, Instant loadedAt, List<AppointmentSummary> appointments) {
+
+        boolean isCurrent(LocalDate today) {
+            return day.equals(today) && loadedAt.plus(MAX_AGE).isAfter(Instant.now());
+        }
+    }
+}
@@ -1,41 +1,53 @@
 package com.mediverse.service;
 
+import com.mediverse.dto.UserPrincipal;
+import com.mediverse.entity.Role;
 import com.mediverse.entity.User;
+import com.mediverse.repository.DoctorRepository;
+import com.mediverse.repository.PatientRepository;
 import com.mediverse.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.List;
-
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
     @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+    public UserPrincipal loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        return principalFor(user);
+    }
+
+    /**
+     * Rebuild a signed-in user's principal after the user changed; the email may be new
+     */
+    public UserPrincipal loadUserById(Long userId) throws UsernameNotFoundException {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+        return principalFor(user);
+    }
 
+    private UserPrincipal principalFor(User user) {
         if (!user.getIsActive()) {
             throw new UsernameNotFoundException("User account is disabled");
         }
 
-        List<GrantedAuthority> authorities = Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
-        );
+        // Resolved here once instead of by every doctor and patient page
+        Long doctorId = user.getRole() == Role.DOCTOR ? doctorRepository.findIdByUserId(user.getId()).orElse(null) : null;
+        Long patientId = user.getRole() == Role.PATIENT ? patientRepository.findIdByUserId(user.getId()).orElse(null) : null;
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(authorities)
-                .build();
+        return new UserPrincipal(user, doctorId, patientId, user.getPrincipalVersion());
     }
 }
@@ -21,6 +21,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PrincipalVersionService principalVersionService;
+
     public User saveUser(User user) {
         // Encode password before saving
         user.setPassword(passwordEncoder.encode(user.getPassword()));
@@ -28,7 +31,9 @@ public class UserService {
     }
 
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalVersionService.userChanged(saved.getId());
+        return saved;
     }
 
     public Optional<User> findById(Long id) {
@@ -57,6 +62,7 @@ public class UserService {
 
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        principalVersionService.userChanged(id);
     }
 
     public boolean existsByEmail(String email) {
@@ -73,6 +79,7 @@ public class UserService {
             User user = userOpt.get();
             user.setIsActive(false);
             userRepository.save(user);
+            principalVersionService.userChanged(user.getId());
         }
     }
 
@@ -82,6 +89,7 @@ public class UserService {
             User user = userOpt.get();
             user.setIsActive(true);
             userRepository.save(user);
+            principalVersionService.userChanged(user.getId());
         }
     }
 
@@ -95,6 +103,7 @@ public class UserService {
             User user = userOpt.get();
             user.setPassword(passwordEncoder.encode(newPassword));
             userRepository.save(user);
+            principalVersionService.userChanged(user.getId());
         }
     }
 }
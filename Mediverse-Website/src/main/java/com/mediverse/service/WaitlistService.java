@@ -0,0 +1,203 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.WaitlistEntryDTO;
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.Patient;
+import com.mediverse.entity.WaitlistEntry;
+import com.mediverse.entity.WaitlistStatus;
+import com.mediverse.repository.DoctorRepository;
+import com.mediverse.repository.PatientRepository;
+import com.mediverse.repository.WaitlistRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-doctor waitlists that fill released slots automatically.
+ *
+ * Entries are persisted in waitlist_entries and mirrored in memory as one queue per doctor,
+ * ordered by join time. Released slots are matched after the cancelling transaction commits,
+ * on the async executor, so the cancel request never waits on the scan or the booking.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    private static final Comparator<QueuedEntry> QUEUE_ORDER =
+        Comparator.comparing(QueuedEntry::createdAt).thenComparing(QueuedEntry::id);
+
+    private final ConcurrentMap<Long, NavigableSet<QueuedEntry>> queues = new ConcurrentHashMap<>();
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    /**
+     * Put a patient on a doctor's waitlist for any slot between two dates
+     */
+    @Transactional
+    public WaitlistEntryDTO join(String patientEmail, Long doctorId, LocalDate earliestDate, LocalDate latestDate) {
+        if (latestDate.isBefore(earliestDate) || latestDate.isBefore(LocalDate.now())) {
+            throw new RuntimeException("Invalid waitlist date range");
+        }
+        Patient patient = patientRepository.findByUserEmail(patientEmail)
+            .orElseThrow(() -> new RuntimeException("Patient not found"));
+        Doctor doctor = doctorRepository.findById(doctorId)
+            .orElseThrow(() -> new RuntimeException("Doctor not found"));
+        if (waitlistRepository.existsByPatientIdAndDoctorIdAndStatus(patient.getId(), doctorId, WaitlistStatus.WAITING)) {
+            throw new RuntimeException("You are already on this doctor's waitlist");
+        }
+
+        WaitlistEntry entry = waitlistRepository.save(new WaitlistEntry(patient, doctor, earliestDate, latestDate));
+        QueuedEntry queued = QueuedEntry.of(entry, patientEmail);
+        afterCommit(() -> queueFor(doctorId).add(queued));
+        return new WaitlistEntryDTO(entry);
+    }
+
+    /**
+     * Take a patient off a waitlist
+     */
+    @Transactional
+    public void leave(Long entryId, String patientEmail) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+            .orElseThrow(() -> new RuntimeException("Waitlist entry not found"));
+        if (!entry.getPatient().getUser().getEmail().equals(patientEmail)) {
+            throw new RuntimeException("You can only leave your own waitlist entries");
+        }
+        if (waitlistRepository.transitionFromWaiting(entryId, WaitlistStatus.CANCELLED) == 0) {
+            throw new RuntimeException("This waitlist entry is no longer waiting");
+        }
+        Long doctorId = entry.getDoctor().getId();
+        afterCommit(() -> dequeue(doctorId, entryId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDTO> getPatientEntries(String patientEmail) {
+        return patientRepository.findByUserEmail(patientEmail)
+            .map(patient -> waitlistRepository.findByPatientIdWithDoctor(patient.getId()).stream()
+                .map(WaitlistEntryDTO::new)
+                .toList())
+            .orElse(List.of());
+    }
+
+    /**
+     * Offer a released slot to the doctor's waitlist, oldest eligible entry first.
+     * Runs after the releasing transaction commits, on the async executor.
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotReleased(SlotReleasedEvent event) {
+        NavigableSet<QueuedEntry> queue = queues.get(event.doctorId());
+        LocalDateTime slotStart = event.slotStart();
+        if (queue == null || queue.isEmpty() || !slotStart.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        LocalDate slotDate = slotStart.toLocalDate();
+        LocalDate today = LocalDate.now();
+
+        for (QueuedEntry entry : queue) {
+            if (entry.latestDate().isBefore(today)) {
+                queue.remove(entry);
+                continue;
+            }
+            if (slotDate.isBefore(entry.earliestDate()) || slotDate.isAfter(entry.latestDate())) {
+                continue;
+            }
+            try {
+                Appointment booked = appointmentService.bookFromWaitlist(entry.id(), entry.patientEmail(), event.doctorId(),
+                    slotStart, event.durationMinutes());
+                queue.remove(entry);
+                if (booked != null) {
+                    log.info("Waitlist entry {} booked into released slot {} with doctor {}", entry.id(), slotStart, event.doctorId());
+                    return;
+                }
+                // Entry was cancelled or booked elsewhere; try the next one
+            } catch (RuntimeException e) {
+                log.debug("Waitlist entry {} could not take slot {}: {}", entry.id(), slotStart, e.getMessage());
+                if (!appointmentService.isAppointmentSlotAvailable(event.doctorId(), slotStart, event.durationMinutes())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reload the queues from the database. Runs at startup and periodically to pick up
+     * entries created through other instances.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000)
+    @Transactional
+    public void reload() {
+        waitlistRepository.expireBefore(LocalDate.now());
+        ConcurrentMap<Long, NavigableSet<QueuedEntry>> rebuilt = new ConcurrentHashMap<>();
+        List<WaitlistEntry> waiting = waitlistRepository.findByStatusWithPatient(WaitlistStatus.WAITING);
+        for (WaitlistEntry entry : waiting) {
+            Long doctorId = entry.getDoctor().getId();
+            rebuilt.computeIfAbsent(doctorId, id -> new ConcurrentSkipListSet<>(QUEUE_ORDER))
+                .add(QueuedEntry.of(entry, entry.getPatient().getUser().getEmail()));
+        }
+        queues.keySet().retainAll(rebuilt.keySet());
+        queues.putAll(rebuilt);
+        log.info("Waitlist queues loaded with {} entries for {} doctors", waiting.size(), rebuilt.size());
+    }
+
+    private NavigableSet<QueuedEntry> queueFor(Long doctorId) {
+        return queues.computeIfAbsent(doctorId, id -> new ConcurrentSkipListSet<>(QUEUE_ORDER));
+    }
+
+    private void dequeue(Long doctorId, Long entryId) {
+        NavigableSet<QueuedEntry> queue = queues.get(doctorId);
+        if (queue != null) {
+            queue.removeIf(entry -> entry.id().equals(entryId));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record QueuedEntry(Long id, String patientEmail, LocalDate earliestDate, LocalDate latestDate, LocalDateTime createdAt) {
+
+        static QueuedEntry of(WaitlistEntry entry, String patientEmail) {
+            return new QueuedEntry(entry.getId(), patientEmail, entry.getEarliestDate(), entry.getLatestDate(), entry.getCreatedAt());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.mediverse.util;
+
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Booked time ranges for one doctor on one day, at minute precision.
+ *
+ * Ranges are kept in a TreeMap keyed by start minute and never overlap, so a conflict
+ * check only has to look at the range starting at or before the query and the next one
+ * after it: O(log n) for any duration. Releasing removes the exact range that was booked.
+ */
+public class BookedIntervals {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    // start minute -> end minute (exclusive)
+    private final TreeMap<Integer, Integer> ranges = new TreeMap<>();
+
+    // Set once two bookings overlapped; they were merged, so single releases can no longer be trusted
+    private boolean overlapping;
+
+    /**
+     * Add a booked range. Returns false if it overlapped an existing one, in which case the
+     * overlapping ranges are merged so later checks stay correct.
+     */
+    public synchronized boolean occupy(LocalTime start, int durationMinutes) {
+        int from = minuteOf(start);
+        int to = endOf(from, durationMinutes);
+        if (isFree(from, to)) {
+            ranges.put(from, to);
+            return true;
+        }
+        // Legacy data or a lost race elsewhere: fold every overlapping range into one
+        int mergedFrom = from;
+        int mergedTo = to;
+        Map.Entry<Integer, Integer> before = ranges.lowerEntry(from);
+        if (before != null && before.getValue() > from) {
+            mergedFrom = before.getKey();
+            mergedTo = Math.max(mergedTo, before.getValue());
+            ranges.remove(before.getKey());
+        }
+        Iterator<Map.Entry<Integer, Integer>> after = ranges.subMap(from, true, to, false).entrySet().iterator();
+        while (after.hasNext()) {
+            mergedTo = Math.max(mergedTo, after.next().getValue());
+            after.remove();
+        }
+        ranges.put(mergedFrom, mergedTo);
+        overlapping = true;
+        return false;
+    }
+
+    /**
+     * Remove a booked range. Returns false if it cannot be removed exactly, in which case
+     * the caller should rebuild the day from the database.
+     */
+    public synchronized boolean release(LocalTime start, int durationMinutes) {
+        if (overlapping) {
+            return false;
+        }
+        int from = minuteOf(start);
+        Integer end = ranges.get(from);
+        if (end == null) {
+            return true; // Nothing booked there, e.g. already released
+        }
+        if (end != endOf(from, durationMinutes)) {
+            return false;
+        }
+        ranges.remove(from);
+        return true;
+    }
+
+    public synchronized boolean isFree(LocalTime start, int durationMinutes) {
+        int from = minuteOf(start);
+        return isFree(from, endOf(from, durationMinutes));
+    }
+
+    public synchronized int size() {
+        return ranges.size();
+    }
+
+    private boolean isFree(int from, int to) {
+        Map.Entry<Integer, Integer> before = ranges.floorEntry(from);
+        if (before != null && before.getValue() > from) {
+            return false;
+        }
+        Integer nextStart = ranges.higherKey(from);
+        return nextStart == null || nextStart >= to;
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int endOf(int from, int durationMinutes) {
+        return Math.min(from + durationMinutes, MINUTES_PER_DAY);
+    }
+}
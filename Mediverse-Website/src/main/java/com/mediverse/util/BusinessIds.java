@@ -0,0 +1,28 @@
+package com.mediverse.util;
+
+/**
+ * Static access to the configured {@link IdGenerator} for entities, which are not Spring beans.
+ *
+ * Until the application installs its generator, a node-0 generator is used, which is enough
+ * for tests and single-node runs.
+ */
+public final class BusinessIds {
+
+    public static final String APPOINTMENT_PREFIX = "APP";
+    public static final String PATIENT_PREFIX = "PAT";
+    public static final String DOCTOR_PREFIX = "DOC";
+    public static final String LICENSE_PREFIX = "LIC";
+
+    private static volatile IdGenerator generator = new SnowflakeIdGenerator(0);
+
+    private BusinessIds() {
+    }
+
+    public static void install(IdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+
+    public static String next(String prefix) {
+        return generator.nextId(prefix);
+    }
+}
@@ -0,0 +1,140 @@
+package com.mediverse.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * File formats for data exports. Rows are written one at a time through a small buffer, so a
+ * writer holds nothing beyond the row in hand however many rows go through it.
+ *
+ * Numbers and booleans stay typed in NDJSON; everything else is written with toString(),
+ * which gives ISO-8601 for dates and times. Nulls are empty cells in CSV and null in NDJSON.
+ */
+public enum ExportFormat {
+
+    CSV("text/csv", "csv") {
+        @Override
+        public RowWriter open(OutputStream out, List<String> columns) throws IOException {
+            Writer writer = writerFor(out);
+            RowWriter rows = new RowWriter() {
+                @Override
+                public void write(List<?> values) throws IOException {
+                    for (int i = 0; i < values.size(); i++) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        Object value = values.get(i);
+                        if (value != null) {
+                            writer.write(csvCell(value.toString()));
+                        }
+                    }
+                    writer.write("\r\n");
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    writer.flush();
+                }
+            };
+            rows.write(columns);
+            return rows;
+        }
+    },
+
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public RowWriter open(OutputStream out, List<String> columns) throws IOException {
+            JsonGenerator json = JSON.createGenerator(writerFor(out));
+            // Rows end with a newline instead of Jackson's default space between root values
+            json.setRootValueSeparator(null);
+            return new RowWriter() {
+                @Override
+                public void write(List<?> values) throws IOException {
+                    json.writeStartObject();
+                    for (int i = 0; i < columns.size(); i++) {
+                        json.writeFieldName(columns.get(i));
+                        Object value = values.get(i);
+                        if (value == null) {
+                            json.writeNull();
+                        } else if (value instanceof Long || value instanceof Integer) {
+                            json.writeNumber(((Number) value).longValue());
+                        } else if (value instanceof Number number) {
+                            json.writeNumber(number.doubleValue());
+                        } else if (value instanceof Boolean flag) {
+                            json.writeBoolean(flag);
+                        } else {
+                            json.writeString(value.toString());
+                        }
+                    }
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    json.flush();
+                }
+            };
+        }
+    };
+
+    private static final JsonFactory JSON = JsonFactory.builder()
+        .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .build();
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Start writing rows with the given columns to the stream. The stream is never closed;
+     * call {@link RowWriter#flush()} once the last row is written.
+     */
+    public abstract RowWriter open(OutputStream out, List<String> columns) throws IOException;
+
+    /**
+     * One row per call, values in column order
+     */
+    public interface RowWriter {
+
+        void write(List<?> values) throws IOException;
+
+        /**
+         * Push buffered rows to the underlying stream
+         */
+        void flush() throws IOException;
+    }
+
+    private static Writer writerFor(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+    }
+
+    // Quote cells holding separators, quotes or line breaks, doubling any quotes inside
+    static String csvCell(String text) {
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,155 @@
+package com.mediverse.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel for large numbers of short-lived timeouts.
+ *
+ * Time is cut into ticks and each timeout sits in the bucket for its deadline tick,
+ * with a round counter for deadlines more than one turn of the wheel away.
+ * Scheduling and cancelling are O(1); {@link #expire(long)} only visits the buckets
+ * for ticks that have passed. The caller drives the wheel, typically once per tick.
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Bucket<T>[] wheel;
+    private final int mask;
+
+    // Next tick whose bucket has not been processed yet
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        int buckets = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.wheel = new Bucket[buckets];
+        this.mask = buckets - 1;
+        for (int i = 0; i < buckets; i++) {
+            wheel[i] = new Bucket<>();
+        }
+    }
+
+    /**
+     * Schedule a payload to expire at the given wall-clock time
+     */
+    public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        long deadlineTick = Math.max(ceilDiv(deadlineMillis - startMillis, tickMillis), currentTick);
+        Timeout<T> timeout = new Timeout<>(payload, deadlineMillis);
+        timeout.remainingRounds = (deadlineTick - currentTick) / wheel.length;
+        wheel[(int) (deadlineTick & mask)].add(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Remove a timeout before it fires. Returns false if it already expired or was cancelled.
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advance the wheel to the given time and return the payloads whose deadline has passed
+     */
+    public synchronized List<T> expire(long nowMillis) {
+        long nowTick = (nowMillis - startMillis) / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (currentTick <= nowTick) {
+            Bucket<T> bucket = wheel[(int) (currentTick & mask)];
+            Timeout<T> timeout = bucket.head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    bucket.remove(timeout);
+                    size--;
+                    expired.add(timeout.payload);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    /**
+     * Handle for a scheduled payload
+     */
+    public static final class Timeout<T> {
+
+        private final T payload;
+        private final long deadlineMillis;
+        private long remainingRounds;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T payload, long deadlineMillis) {
+            this.payload = payload;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+    }
+
+    /**
+     * Doubly linked list so removal from the middle is O(1)
+     */
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.mediverse.util;
+
+/**
+ * Source of unique numeric ids, used for the prefixed business ids of appointments, patients and doctors
+ */
+public interface IdGenerator {
+
+    long nextId();
+
+    default String nextId(String prefix) {
+        return prefix + nextId();
+    }
+}
@@ -0,0 +1,45 @@
+package com.mediverse.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque, URL-safe token holding the sort key values of the last row on a page.
+ * The next page starts strictly after those values, so it costs the same however deep it is.
+ */
+public final class KeysetCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Object... values) {
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                token.append('.');
+            }
+            String text = values[i] != null ? values[i].toString() : "";
+            token.append(ENCODER.encodeToString(text.getBytes(StandardCharsets.UTF_8)));
+        }
+        return token.toString();
+    }
+
+    /**
+     * Split a token back into its values. Throws IllegalArgumentException if it is malformed
+     * or does not hold the expected number of values.
+     */
+    public static String[] decode(String token, int expectedValues) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != expectedValues) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        String[] values = new String[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = new String(DECODER.decode(parts[i]), StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,58 @@
+package com.mediverse.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style 64-bit ids: 41 bits of milliseconds since {@link #EPOCH_MILLIS},
+ * 10 bits of node id and 12 bits of per-millisecond sequence.
+ *
+ * The last timestamp and sequence are packed into one {@link AtomicLong} and advanced with a
+ * single CAS, so callers never block. When a millisecond's sequence runs out, or the clock steps
+ * back, the generator borrows the next millisecond instead of waiting, which keeps ids increasing.
+ * Ids are unique across nodes as long as every node has its own node id.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    // (millis since epoch << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        long now = clock.getAsLong() - EPOCH_MILLIS;
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            long previousMillis = previous >>> SEQUENCE_BITS;
+            // A fresh millisecond restarts the sequence; otherwise count on, carrying into the millis
+            next = now > previousMillis ? now << SEQUENCE_BITS : previous + 1;
+        } while (!state.compareAndSet(previous, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+    }
+}
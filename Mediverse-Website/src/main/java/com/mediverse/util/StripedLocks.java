@@ -0,0 +1,31 @@
+package com.mediverse.util;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks picked by key hash.
+ *
+ * Work on the same key is serialized, while different keys usually land on
+ * different stripes and run in parallel. Memory does not grow with the number of keys.
+ */
+public class StripedLocks {
+
+    private final Lock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new Lock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock forKey(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return locks[hash & mask];
+    }
+}
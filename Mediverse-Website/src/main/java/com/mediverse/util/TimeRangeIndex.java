@@ -0,0 +1,71 @@
+package com.mediverse.util;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable set of half-open date-time ranges, merged and sorted once so that an overlap
+ * check is a single binary search. Build a new index to change it.
+ */
+public final class TimeRangeIndex {
+
+    public static final TimeRangeIndex EMPTY = new TimeRangeIndex(new LocalDateTime[0], new LocalDateTime[0]);
+
+    private final LocalDateTime[] starts;
+    private final LocalDateTime[] ends;
+
+    private TimeRangeIndex(LocalDateTime[] starts, LocalDateTime[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Build an index from [start, end) pairs, which may overlap
+     */
+    public static TimeRangeIndex of(List<LocalDateTime[]> ranges) {
+        if (ranges.isEmpty()) {
+            return EMPTY;
+        }
+        List<LocalDateTime[]> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparing((LocalDateTime[] range) -> range[0]));
+
+        List<LocalDateTime> mergedStarts = new ArrayList<>();
+        List<LocalDateTime> mergedEnds = new ArrayList<>();
+        for (LocalDateTime[] range : sorted) {
+            if (!range[1].isAfter(range[0])) {
+                continue;
+            }
+            int last = mergedEnds.size() - 1;
+            if (last >= 0 && !range[0].isAfter(mergedEnds.get(last))) {
+                if (range[1].isAfter(mergedEnds.get(last))) {
+                    mergedEnds.set(last, range[1]);
+                }
+            } else {
+                mergedStarts.add(range[0]);
+                mergedEnds.add(range[1]);
+            }
+        }
+        return new TimeRangeIndex(mergedStarts.toArray(new LocalDateTime[0]), mergedEnds.toArray(new LocalDateTime[0]));
+    }
+
+    /**
+     * Whether any range overlaps [from, to)
+     */
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        // Last range starting before the end of the query; earlier ones end before it starts
+        int index = Arrays.binarySearch(starts, to);
+        int candidate = index >= 0 ? index - 1 : -index - 2;
+        return candidate >= 0 && ends[candidate].isAfter(from);
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+}
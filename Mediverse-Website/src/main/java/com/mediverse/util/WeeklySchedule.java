@@ -0,0 +1,254 @@
+package com.mediverse.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A doctor's working week compiled from the free-form workingDays text.
+ *
+ * Holds a day-of-week bitmask for the quick "works that day?" check, sorted working
+ * intervals per day in minutes from midnight, and the 30-minute slot starts for each day,
+ * so nothing is parsed again when slots are listed or bookings are validated.
+ *
+ * Accepted forms, separated by commas or semicolons: day names or three-letter abbreviations
+ * ("Monday", "Tue"), ranges ("Mon-Fri"), the words weekdays/weekends/daily, each optionally
+ * followed by hours ("Sat 09:00-13:00"). JSON arrays and objects of the same values
+ * (["Mon","Tue"], {"Sat":"09:00-13:00"}) are read the same way. Days without hours use the
+ * default hours. A blank value means every day.
+ */
+public final class WeeklySchedule {
+
+    private static final Pattern ENTRY = Pattern.compile(
+        "^([a-z]+)(?:\\s*-\\s*([a-z]+))?(?:\\s*[:=]?\\s*(\\d{1,2}:\\d{2})\\s*-\\s*(\\d{1,2}:\\d{2}))?$");
+
+    private static final int[] NO_INTERVALS = new int[0];
+
+    private final int dayMask;
+
+    // Per day of week (Monday = 0): start/end minute pairs, sorted and non-overlapping
+    private final int[][] intervals;
+
+    private final List<List<LocalTime>> slotStarts;
+
+    private final int slotMinutes;
+
+    private WeeklySchedule(int[][] intervals, int slotMinutes) {
+        int mask = 0;
+        List<List<LocalTime>> slots = new ArrayList<>(7);
+        for (int day = 0; day < 7; day++) {
+            if (intervals[day].length > 0) {
+                mask |= 1 << day;
+            }
+            slots.add(slotStarts(intervals[day], slotMinutes));
+        }
+        this.dayMask = mask;
+        this.intervals = intervals;
+        this.slotStarts = slots;
+        this.slotMinutes = slotMinutes;
+    }
+
+    /**
+     * Compile a workingDays value. Throws IllegalArgumentException if any part is not understood.
+     */
+    public static WeeklySchedule parse(String workingDays, LocalTime defaultStart, LocalTime defaultEnd, int slotMinutes) {
+        int defaultFrom = minutes(defaultStart);
+        int defaultTo = minutes(defaultEnd);
+        if (defaultTo <= defaultFrom) {
+            throw new IllegalArgumentException("Working hours must end after they start");
+        }
+
+        List<List<int[]>> days = new ArrayList<>(7);
+        for (int day = 0; day < 7; day++) {
+            days.add(new ArrayList<>());
+        }
+
+        String text = workingDays == null ? "" : workingDays.replaceAll("[\\[\\]{}\"']", "").trim();
+        if (text.isEmpty()) {
+            for (List<int[]> day : days) {
+                day.add(new int[] {defaultFrom, defaultTo});
+            }
+        }
+        for (String token : text.split("[,;]")) {
+            String entry = token.trim().toLowerCase(Locale.ROOT);
+            if (entry.isEmpty()) {
+                continue;
+            }
+            Matcher matcher = ENTRY.matcher(entry);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Unrecognised working days entry: " + token.trim());
+            }
+            int from = defaultFrom;
+            int to = defaultTo;
+            if (matcher.group(3) != null) {
+                from = minutes(LocalTime.parse(pad(matcher.group(3))));
+                to = minutes(LocalTime.parse(pad(matcher.group(4))));
+                if (to <= from) {
+                    throw new IllegalArgumentException("Working hours must end after they start: " + token.trim());
+                }
+            }
+            for (int day : daysOf(matcher.group(1), matcher.group(2), token.trim())) {
+                days.get(day).add(new int[] {from, to});
+            }
+        }
+
+        int[][] compiled = new int[7][];
+        for (int day = 0; day < 7; day++) {
+            compiled[day] = merge(days.get(day));
+        }
+        return new WeeklySchedule(compiled, slotMinutes);
+    }
+
+    public boolean worksOn(DayOfWeek day) {
+        return (dayMask & (1 << (day.getValue() - 1))) != 0;
+    }
+
+    /**
+     * Whether the range falls completely inside one working interval of that day
+     */
+    public boolean covers(DayOfWeek day, LocalTime start, int durationMinutes) {
+        if (!worksOn(day)) {
+            return false;
+        }
+        int from = minutes(start);
+        int to = from + durationMinutes;
+        int[] dayIntervals = intervals[day.getValue() - 1];
+        for (int i = 0; i < dayIntervals.length; i += 2) {
+            if (from >= dayIntervals[i] && to <= dayIntervals[i + 1]) {
+                return true;
+            }
+            if (from < dayIntervals[i]) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Slot start times for the day, in order; empty on days off
+     */
+    public List<LocalTime> slotStarts(DayOfWeek day) {
+        return slotStarts.get(day.getValue() - 1);
+    }
+
+    /**
+     * Slot start times for the day where an appointment of the given length still ends within working hours
+     */
+    public List<LocalTime> slotStarts(DayOfWeek day, int durationMinutes) {
+        List<LocalTime> starts = slotStarts(day);
+        if (durationMinutes == slotMinutes) {
+            return starts;
+        }
+        return starts.stream()
+            .filter(start -> covers(day, start, durationMinutes))
+            .toList();
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public int getDayMask() {
+        return dayMask;
+    }
+
+    private static int[] daysOf(String first, String last, String token) {
+        switch (first) {
+            case "weekdays": return last == null ? range(0, 4) : invalid(token);
+            case "weekends": case "weekend": return last == null ? range(5, 6) : invalid(token);
+            case "daily": case "everyday": return last == null ? range(0, 6) : invalid(token);
+            default:
+        }
+        int start = dayIndex(first, token);
+        if (last == null) {
+            return new int[] {start};
+        }
+        int end = dayIndex(last, token);
+        // Ranges may wrap past Sunday, e.g. Sat-Mon
+        int length = Math.floorMod(end - start, 7) + 1;
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (start + i) % 7;
+        }
+        return result;
+    }
+
+    private static int dayIndex(String name, String token) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            String full = day.name().toLowerCase(Locale.ROOT);
+            if (full.equals(name) || (name.length() >= 3 && full.startsWith(name))) {
+                return day.getValue() - 1;
+            }
+        }
+        throw new IllegalArgumentException("Unrecognised day in working days entry: " + token);
+    }
+
+    private static int[] range(int from, int to) {
+        int[] result = new int[to - from + 1];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = from + i;
+        }
+        return result;
+    }
+
+    private static int[] invalid(String token) {
+        throw new IllegalArgumentException("Unrecognised working days entry: " + token);
+    }
+
+    private static int[] merge(List<int[]> ranges) {
+        if (ranges.isEmpty()) {
+            return NO_INTERVALS;
+        }
+        ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+        List<int[]> merged = new ArrayList<>();
+        for (int[] range : ranges) {
+            int[] lastRange = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (lastRange != null && range[0] <= lastRange[1]) {
+                lastRange[1] = Math.max(lastRange[1], range[1]);
+            } else {
+                merged.add(new int[] {range[0], range[1]});
+            }
+        }
+        int[] flat = new int[merged.size() * 2];
+        for (int i = 0; i < merged.size(); i++) {
+            flat[2 * i] = merged.get(i)[0];
+            flat[2 * i + 1] = merged.get(i)[1];
+        }
+        return flat;
+    }
+
+    private static List<LocalTime> slotStarts(int[] dayIntervals, int slotMinutes) {
+        List<LocalTime> slots = new ArrayList<>();
+        for (int i = 0; i < dayIntervals.length; i += 2) {
+            for (int start = dayIntervals[i]; start + slotMinutes <= dayIntervals[i + 1]; start += slotMinutes) {
+                slots.add(LocalTime.of(start / 60, start % 60));
+            }
+        }
+        return List.copyOf(slots);
+    }
+
+    private static int minutes(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static String pad(String time) {
+        return time.length() == 4 ? "0" + time : time;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("WeeklySchedule{");
+        for (DayOfWeek day : DayOfWeek.values()) {
+            int[] dayIntervals = intervals[day.getValue() - 1];
+            if (dayIntervals.length > 0) {
+                text.append(day).append('=').append(Arrays.toString(dayIntervals)).append(' ');
+            }
+        }
+        return text.append('}').toString();
+    }
+}
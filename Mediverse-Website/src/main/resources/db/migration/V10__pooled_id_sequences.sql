@@ -0,0 +1,15 @@
+-- Pooled id sequences for users, doctors, patients and appointments, so inserts can be batched.
+-- MySQL has no sequences, so Hibernate keeps each one as a single-row table. Each starts one
+-- allocation (50) past the current max id, since the first block handed out ends at next_val.
+
+CREATE TABLE users_seq (next_val bigint) ENGINE=InnoDB;
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM users;
+
+CREATE TABLE doctors_seq (next_val bigint) ENGINE=InnoDB;
+INSERT INTO doctors_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM doctors;
+
+CREATE TABLE patients_seq (next_val bigint) ENGINE=InnoDB;
+INSERT INTO patients_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM patients;
+
+CREATE TABLE appointments_seq (next_val bigint) ENGINE=InnoDB;
+INSERT INTO appointments_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM appointments;
@@ -0,0 +1,4 @@
+-- Per-user counter that signed-in sessions compare against, bumped whenever an admin change
+-- should rebuild the user's principal. Kept in the database so every app instance sees it.
+
+ALTER TABLE users ADD COLUMN principal_version bigint NOT NULL DEFAULT 0;
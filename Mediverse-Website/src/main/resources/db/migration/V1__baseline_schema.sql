@@ -0,0 +1,114 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update, before any migration.
+-- Existing databases are baselined at this version and skip this script, so everything added
+-- since goes in a later version.
+
+CREATE TABLE users (
+    id bigint NOT NULL AUTO_INCREMENT,
+    email varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    role enum ('PATIENT','DOCTOR','ADMIN') NOT NULL,
+    first_name varchar(255) NOT NULL,
+    last_name varchar(255) NOT NULL,
+    phone_number varchar(255),
+    created_at datetime(6),
+    updated_at datetime(6),
+    is_active bit,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE departments (
+    id bigint NOT NULL AUTO_INCREMENT,
+    name varchar(255) NOT NULL,
+    code varchar(10) NOT NULL,
+    description varchar(1000),
+    head_doctor varchar(255),
+    phone_number varchar(255),
+    email varchar(255),
+    is_active bit,
+    created_at datetime(6),
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_departments_name UNIQUE (name),
+    CONSTRAINT uk_departments_code UNIQUE (code)
+) ENGINE=InnoDB;
+
+CREATE TABLE branches (
+    id bigint NOT NULL AUTO_INCREMENT,
+    name varchar(255) NOT NULL,
+    address varchar(255) NOT NULL,
+    phone_number varchar(255),
+    email varchar(255),
+    operating_hours varchar(255),
+    is_active bit,
+    created_at datetime(6),
+    updated_at datetime(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE doctors (
+    id bigint NOT NULL AUTO_INCREMENT,
+    user_id bigint,
+    doctor_id varchar(255),
+    specialization varchar(255) NOT NULL,
+    license_number varchar(255),
+    qualification varchar(255),
+    experience_years integer,
+    consultation_fee float(53),
+    availability_start_time time(6),
+    availability_end_time time(6),
+    working_days varchar(255),
+    bio varchar(2000),
+    is_available bit,
+    department_id bigint,
+    created_at datetime(6),
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_doctors_user UNIQUE (user_id),
+    CONSTRAINT uk_doctors_doctor_id UNIQUE (doctor_id),
+    CONSTRAINT uk_doctors_license_number UNIQUE (license_number),
+    CONSTRAINT fk_doctors_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_doctors_department FOREIGN KEY (department_id) REFERENCES departments (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE patients (
+    id bigint NOT NULL AUTO_INCREMENT,
+    user_id bigint,
+    patient_id varchar(255),
+    date_of_birth date,
+    gender enum ('MALE','FEMALE','OTHER'),
+    blood_group varchar(255),
+    emergency_contact_name varchar(255),
+    emergency_contact_phone varchar(255),
+    medical_history varchar(2000),
+    allergies varchar(1000),
+    current_medications varchar(1000),
+    address varchar(500),
+    created_at datetime(6),
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_patients_user UNIQUE (user_id),
+    CONSTRAINT uk_patients_patient_id UNIQUE (patient_id),
+    CONSTRAINT fk_patients_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE appointments (
+    id bigint NOT NULL AUTO_INCREMENT,
+    appointment_id varchar(255),
+    patient_id bigint NOT NULL,
+    doctor_id bigint NOT NULL,
+    appointment_date_time datetime(6) NOT NULL,
+    status enum ('SCHEDULED','CONFIRMED','IN_PROGRESS','COMPLETED','CANCELLED','NO_SHOW'),
+    reason varchar(500),
+    notes varchar(2000),
+    prescription varchar(2000),
+    diagnosis varchar(1000),
+    duration_minutes integer,
+    consultation_fee float(53),
+    created_at datetime(6),
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_appointments_appointment_id UNIQUE (appointment_id),
+    CONSTRAINT fk_appointments_patient FOREIGN KEY (patient_id) REFERENCES patients (id),
+    CONSTRAINT fk_appointments_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,13 @@
+-- One row per claimed 5-minute block of a doctor's calendar. The primary key is what stops two
+-- appointments, from any app instance, holding the same block. Filled from upcoming
+-- appointments on first start (SlotLedgerService.backfillIfEmpty).
+
+CREATE TABLE appointment_slot_ledger (
+    doctor_id bigint NOT NULL,
+    slot_start datetime(6) NOT NULL,
+    appointment_id bigint NOT NULL,
+    created_at datetime(6),
+    PRIMARY KEY (doctor_id, slot_start)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_slot_ledger_appointment ON appointment_slot_ledger (appointment_id);
@@ -0,0 +1,19 @@
+-- Patients waiting for a slot with a doctor, booked automatically when one is released.
+
+CREATE TABLE waitlist_entries (
+    id bigint NOT NULL AUTO_INCREMENT,
+    patient_id bigint NOT NULL,
+    doctor_id bigint NOT NULL,
+    earliest_date date NOT NULL,
+    latest_date date NOT NULL,
+    status enum ('WAITING','BOOKED','CANCELLED','EXPIRED') NOT NULL,
+    appointment_id bigint,
+    created_at datetime(6) NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_waitlist_patient FOREIGN KEY (patient_id) REFERENCES patients (id),
+    CONSTRAINT fk_waitlist_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_waitlist_doctor_status ON waitlist_entries (doctor_id, status, created_at);
+CREATE INDEX idx_waitlist_patient ON waitlist_entries (patient_id);
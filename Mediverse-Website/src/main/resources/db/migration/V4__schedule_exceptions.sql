@@ -0,0 +1,18 @@
+-- Doctor leave and branch holidays that block booking over a time range.
+
+CREATE TABLE schedule_exceptions (
+    id bigint NOT NULL AUTO_INCREMENT,
+    doctor_id bigint,
+    branch_id bigint,
+    type enum ('LEAVE','HOLIDAY','HALF_DAY','OTHER') NOT NULL,
+    starts_at datetime(6) NOT NULL,
+    ends_at datetime(6) NOT NULL,
+    reason varchar(500),
+    created_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_schedule_exceptions_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id),
+    CONSTRAINT fk_schedule_exceptions_branch FOREIGN KEY (branch_id) REFERENCES branches (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_schedule_exception_doctor ON schedule_exceptions (doctor_id, ends_at);
+CREATE INDEX idx_schedule_exception_ends ON schedule_exceptions (ends_at);
@@ -0,0 +1,20 @@
+-- Resumable bulk reschedule jobs; last_appointment_id is the keyset cursor of the last committed page.
+
+CREATE TABLE reschedule_jobs (
+    id bigint NOT NULL AUTO_INCREMENT,
+    doctor_id bigint NOT NULL,
+    window_start datetime(6) NOT NULL,
+    window_end datetime(6) NOT NULL,
+    allow_other_doctors bit NOT NULL,
+    status enum ('PENDING','RUNNING','PAUSED','COMPLETED','FAILED') NOT NULL,
+    total_count integer NOT NULL,
+    moved_count integer NOT NULL,
+    unmoved_count integer NOT NULL,
+    last_appointment_id bigint NOT NULL,
+    error_message varchar(1000),
+    created_at datetime(6),
+    updated_at datetime(6),
+    finished_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_reschedule_jobs_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id)
+) ENGINE=InnoDB;
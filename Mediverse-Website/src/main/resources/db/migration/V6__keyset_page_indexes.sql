@@ -0,0 +1,4 @@
+-- Keyset pages for the admin lists: users by name, appointments by date with the id as tie-breaker.
+
+CREATE INDEX idx_user_name ON users (last_name, first_name, id);
+CREATE INDEX idx_appointment_date_time ON appointments (appointment_date_time, id);
@@ -0,0 +1,3 @@
+-- A doctor's appointments by date, for the today queue and the per-doctor day lookups.
+
+CREATE INDEX idx_appointment_doctor_date_time ON appointments (doctor_id, appointment_date_time);
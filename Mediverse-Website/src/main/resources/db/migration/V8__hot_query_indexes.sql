@@ -0,0 +1,8 @@
+-- Composite indexes for the filters the repositories use most.
+-- appointments (doctor_id, appointment_date_time) comes with V7.
+
+CREATE INDEX idx_appointment_patient_date_time ON appointments (patient_id, appointment_date_time);
+CREATE INDEX idx_appointment_status ON appointments (status);
+CREATE INDEX idx_doctor_department_available ON doctors (department_id, is_available);
+CREATE INDEX idx_doctor_specialization_available ON doctors (specialization, is_available);
+CREATE INDEX idx_user_role_active ON users (role, is_active);
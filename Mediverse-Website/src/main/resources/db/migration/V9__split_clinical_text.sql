@@ -0,0 +1,36 @@
+-- Move the long clinical text columns out of appointments and patients into side tables
+-- keyed by the owner's id, so list queries read narrow rows. Only rows with content are copied.
+
+CREATE TABLE appointment_details (
+    appointment_id bigint NOT NULL,
+    notes varchar(2000),
+    prescription varchar(2000),
+    diagnosis varchar(1000),
+    updated_at datetime(6),
+    PRIMARY KEY (appointment_id),
+    CONSTRAINT fk_appointment_details_appointment FOREIGN KEY (appointment_id) REFERENCES appointments (id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+INSERT INTO appointment_details (appointment_id, notes, prescription, diagnosis, updated_at)
+SELECT id, notes, prescription, diagnosis, updated_at
+FROM appointments
+WHERE COALESCE(TRIM(notes), '') <> '' OR COALESCE(TRIM(prescription), '') <> '' OR COALESCE(TRIM(diagnosis), '') <> '';
+
+ALTER TABLE appointments DROP COLUMN notes, DROP COLUMN prescription, DROP COLUMN diagnosis;
+
+CREATE TABLE patient_clinical_profiles (
+    patient_id bigint NOT NULL,
+    medical_history varchar(2000),
+    allergies varchar(1000),
+    current_medications varchar(1000),
+    updated_at datetime(6),
+    PRIMARY KEY (patient_id),
+    CONSTRAINT fk_patient_clinical_profiles_patient FOREIGN KEY (patient_id) REFERENCES patients (id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+INSERT INTO patient_clinical_profiles (patient_id, medical_history, allergies, current_medications, updated_at)
+SELECT id, medical_history, allergies, current_medications, updated_at
+FROM patients
+WHERE COALESCE(TRIM(medical_history), '') <> '' OR COALESCE(TRIM(allergies), '') <> '' OR COALESCE(TRIM(current_medications), '') <> '';
+
+ALTER TABLE patients DROP COLUMN medical_history, DROP COLUMN allergies, DROP COLUMN current_medications;
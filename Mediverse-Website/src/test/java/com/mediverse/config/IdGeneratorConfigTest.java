@@ -0,0 +1,37 @@
+package com.mediverse.config;
+
+import com.mediverse.util.IdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdGeneratorConfigTest {
+
+    private final IdGeneratorConfig config = new IdGeneratorConfig();
+
+    @Test
+    void missingNodeIdFailsOutsideASingleNodeProfile() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+
+        assertThrows(IllegalStateException.class, () -> config.idGenerator(-1, environment));
+        assertNotNull(config.idGenerator(7, environment));
+    }
+
+    @Test
+    void missingNodeIdFailsWhenNoProfileIsActive() {
+        assertThrows(IllegalStateException.class, () -> config.idGenerator(-1, new MockEnvironment()));
+    }
+
+    @Test
+    void missingNodeIdIsAllowedForASingleNode() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("single-node");
+
+        IdGenerator generator = config.idGenerator(-1, environment);
+        assertTrue(generator.nextId() > 0);
+    }
+}
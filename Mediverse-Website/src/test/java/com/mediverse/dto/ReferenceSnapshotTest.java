@@ -0,0 +1,83 @@
+package com.mediverse.dto;
+
+import com.mediverse.entity.Branch;
+import com.mediverse.entity.Department;
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.Role;
+import com.mediverse.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReferenceSnapshotTest {
+
+    @Test
+    void indexesDoctorsByDepartmentAndSpecialization() {
+        Department cardiology = department(1L, "Cardiology");
+        Department neurology = department(2L, "Neurology");
+        Doctor first = doctor(10L, "Ann", cardiology, "Cardiologist");
+        Doctor second = doctor(11L, "Ben", cardiology, "Surgeon");
+        Doctor third = doctor(12L, "Cai", neurology, "Surgeon");
+
+        ReferenceSnapshot snapshot = new ReferenceSnapshot(List.of(cardiology, neurology), List.of(first, second, third), List.of());
+
+        assertEquals(List.of(first, second), snapshot.getDoctorsInDepartment(1L));
+        assertEquals(List.of(second, third), snapshot.getDoctorsWithSpecialization("Surgeon"));
+        assertEquals(2L, snapshot.getDoctorCountsByDepartment().get(1L));
+        assertEquals(1L, snapshot.getDoctorCountsByDepartment().get(2L));
+        assertSame(third, snapshot.getDoctor(12L));
+        assertSame(neurology, snapshot.getDepartment(2L));
+
+        List<DoctorOptionDTO> options = snapshot.getDoctorOptionsInDepartment(2L);
+        assertEquals(1, options.size());
+        assertEquals("Cai", options.get(0).getFirstName());
+        assertEquals("Surgeon", options.get(0).getSpecialization());
+    }
+
+    @Test
+    void unknownKeysGiveEmptyResults() {
+        ReferenceSnapshot snapshot = new ReferenceSnapshot(List.of(department(1L, "Cardiology")), List.of(), List.of());
+
+        assertTrue(snapshot.getDoctorsInDepartment(1L).isEmpty());
+        assertTrue(snapshot.getDoctorOptionsInDepartment(99L).isEmpty());
+        assertTrue(snapshot.getDoctorsWithSpecialization("Dermatologist").isEmpty());
+        assertNull(snapshot.getDoctor(1L));
+        assertNull(snapshot.getDoctorCountsByDepartment().get(1L));
+    }
+
+    @Test
+    void laterChangesToTheSourceListsAreNotSeen() {
+        List<Branch> branches = new ArrayList<>();
+        Branch central = new Branch("Central", "1 Main Street", null);
+        central.setId(5L);
+        branches.add(central);
+
+        ReferenceSnapshot snapshot = new ReferenceSnapshot(List.of(), List.of(), branches);
+        branches.clear();
+
+        assertEquals(List.of(central), snapshot.getBranches());
+        assertSame(central, snapshot.getBranch(5L));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getBranches().clear());
+    }
+
+    private static Department department(Long id, String name) {
+        Department department = new Department(name, name + " department");
+        department.setId(id);
+        return department;
+    }
+
+    private static Doctor doctor(Long id, String firstName, Department department, String specialization) {
+        User user = new User(firstName.toLowerCase() + "@test.local", "secret", Role.DOCTOR, firstName, "Test");
+        Doctor doctor = new Doctor(user, specialization);
+        doctor.setId(id);
+        doctor.setDepartment(department);
+        return doctor;
+    }
+}
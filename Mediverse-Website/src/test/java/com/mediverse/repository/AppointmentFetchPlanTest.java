@@ -0,0 +1,148 @@
+package com.mediverse.repository;
+
+import com.mediverse.dto.AppointmentSummary;
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.Department;
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.Patient;
+import com.mediverse.entity.Role;
+import com.mediverse.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The appointment list queries behind the dashboards, schedules and histories must load
+ * everything their pages show in one select, however many rows there are. The dashboard
+ * summaries must do it without loading entities at all.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class AppointmentFetchPlanTest {
+
+    private static final int PATIENTS = 4;
+    private static final int DOCTORS = 3;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private final List<Patient> patients = new ArrayList<>();
+    private final List<Doctor> doctors = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        String run = Long.toString(System.nanoTime(), 36);
+        Department department = new Department("Fetch Plan " + run, "Query count test");
+        department.setCode(run.substring(Math.max(0, run.length() - 10)));
+        entityManager.persist(department);
+
+        for (int i = 0; i < DOCTORS; i++) {
+            User user = new User("doctor" + i + "." + run + "@test.local", "secret", Role.DOCTOR, "Doctor" + i, "Fetch");
+            entityManager.persist(user);
+            Doctor doctor = new Doctor(user, "General Medicine");
+            doctor.setDepartment(department);
+            entityManager.persist(doctor);
+            doctors.add(doctor);
+        }
+        for (int i = 0; i < PATIENTS; i++) {
+            User user = new User("patient" + i + "." + run + "@test.local", "secret", Role.PATIENT, "Patient" + i, "Fetch");
+            entityManager.persist(user);
+            Patient patient = new Patient(user);
+            entityManager.persist(patient);
+            patients.add(patient);
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusYears(5).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        int slot = 0;
+        for (Patient patient : patients) {
+            for (Doctor doctor : doctors) {
+                entityManager.persist(new Appointment(patient, doctor, start.plusMinutes(30L * slot++)));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void doctorAppointmentsLoadInOneSelect() {
+        assertSingleSelect(() -> appointmentRepository.findByDoctorIdOrderByDateAsc(doctors.get(0).getId()), PATIENTS);
+    }
+
+    @Test
+    public void patientAppointmentsLoadInOneSelect() {
+        assertSingleSelect(() -> appointmentRepository.findByPatientIdOrderByDateDesc(patients.get(0).getId()), DOCTORS);
+    }
+
+    @Test
+    public void recentAppointmentsLoadInOneSelect() {
+        assertSingleSelect(() -> appointmentRepository.findTop10ByOrderByAppointmentDateTimeDesc(), 10);
+    }
+
+    @Test
+    public void dashboardSummariesLoadNoEntities() {
+        statistics.clear();
+
+        List<AppointmentSummary> doctorRows = appointmentRepository.findSummariesByDoctorId(doctors.get(0).getId(), PageRequest.of(0, 10));
+        List<AppointmentSummary> patientRows = appointmentRepository.findSummariesByPatientId(patients.get(0).getId(), PageRequest.of(0, 5));
+
+        assertEquals(PATIENTS, doctorRows.size());
+        assertEquals(DOCTORS, patientRows.size());
+        assertEquals("Patient0 Fetch", patientRows.get(0).getPatientName());
+        assertEquals("General Medicine", doctorRows.get(0).getDoctorSpecialization());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount(), "Projections must not materialise managed entities");
+    }
+
+    @Test
+    public void doctorDayRangeOnlyReturnsThatDoctor() {
+        LocalDateTime day = LocalDateTime.now().plusYears(5).toLocalDate().atStartOfDay();
+        Long doctorId = doctors.get(1).getId();
+
+        List<AppointmentSummary> rows = appointmentRepository.findSummariesForDoctorBetween(doctorId, day, day.plusDays(1));
+
+        assertEquals(PATIENTS, rows.size());
+        rows.forEach(row -> assertEquals(doctorId, row.getDoctorId()));
+    }
+
+    private void assertSingleSelect(Supplier<List<Appointment>> query, int expectedRows) {
+        statistics.clear();
+
+        List<Appointment> appointments = query.get();
+        // Touch everything the templates render for each row
+        for (Appointment appointment : appointments) {
+            appointment.getPatient().getUser().getFirstName();
+            appointment.getPatient().getPatientId();
+            appointment.getDoctor().getUser().getLastName();
+            appointment.getDoctor().getSpecialization();
+            if (appointment.getDoctor().getDepartment() != null) {
+                appointment.getDoctor().getDepartment().getName();
+            }
+        }
+
+        assertEquals(expectedRows, appointments.size());
+        assertEquals(1, statistics.getPrepareStatementCount(),
+            "Expected a single select for " + appointments.size() + " appointments");
+    }
+}
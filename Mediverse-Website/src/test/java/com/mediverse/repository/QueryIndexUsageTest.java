@@ -0,0 +1,281 @@
+package com.mediverse.repository;
+
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.Role;
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Run the filtering queries of the appointment, doctor and user repositories, EXPLAIN the
+ * SQL Hibernate actually sent for each one and check that MySQL can answer it from an index.
+ *
+ * The statement is captured by a driver query interceptor, so it carries the bound values
+ * and a change to a @Query or to the mapping is checked as it will run. Indexes are looked
+ * up by their leading columns rather than by name, so databases baselined from
+ * ddl-auto=update pass as well. The plan may still pick a full scan on a near-empty table,
+ * so the check is that a matching index is among the candidate keys. Queries that read most
+ * of a table (all active users, all available doctors, name searches with a leading
+ * wildcard) are scans by design and are not listed.
+ */
+@SpringBootTest(properties = "spring.datasource.hikari.data-source-properties.queryInterceptors=" +
+    "com.mediverse.repository.QueryIndexUsageTest$StatementCapture")
+@ActiveProfiles("test")
+public class QueryIndexUsageTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 7, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+    private static final List<AppointmentStatus> ACTIVE = List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<IndexCase> repositoryQueries() {
+        return Stream.of(
+            // AppointmentRepository
+            new IndexCase("Appointment.findByAppointmentId", "appointments", List.of("appointment_id"),
+                r -> r.appointments().findByAppointmentId("APT-0")),
+            new IndexCase("Appointment.findByPatientIdOrderByDateDesc", "appointments", List.of("patient_id", "appointment_date_time"),
+                r -> r.appointments().findByPatientIdOrderByDateDesc(1L)),
+            new IndexCase("Appointment.findByPatientIdAndDateBetween", "appointments", List.of("patient_id", "appointment_date_time"),
+                r -> r.appointments().findByPatientIdAndDateBetween(1L, FROM, TO)),
+            new IndexCase("Appointment.findSummariesByPatientId", "appointments", List.of("patient_id", "appointment_date_time"),
+                r -> r.appointments().findSummariesByPatientId(1L, PageRequest.of(0, 5))),
+            new IndexCase("Appointment.findByDoctorIdOrderByDateAsc", "appointments", List.of("doctor_id", "appointment_date_time"),
+                r -> r.appointments().findByDoctorIdOrderByDateAsc(1L)),
+            new IndexCase("Appointment.findByDoctorIdAndDateBetween", "appointments", List.of("doctor_id", "appointment_date_time"),
+                r -> r.appointments().findByDoctorIdAndDateBetween(1L, FROM, TO)),
+            new IndexCase("Appointment.findSummariesForDoctorBetween", "appointments", List.of("doctor_id", "appointment_date_time"),
+                r -> r.appointments().findSummariesForDoctorBetween(1L, FROM, TO)),
+            new IndexCase("Appointment.findSummariesByDoctorId", "appointments", List.of("doctor_id", "appointment_date_time"),
+                r -> r.appointments().findSummariesByDoctorId(1L, PageRequest.of(0, 10))),
+            new IndexCase("Appointment.findBookedSlotsForDoctors", "appointments", List.of("doctor_id", "appointment_date_time"),
+                r -> r.appointments().findBookedSlotsForDoctors(List.of(1L, 2L), FROM, TO, AppointmentStatus.CANCELLED)),
+            new IndexCase("Appointment.findForReschedule", "appointments", List.of("doctor_id", "appointment_date_time"),
+                r -> r.appointments().findForReschedule(1L, FROM, TO, ACTIVE, 0L, PageRequest.of(0, 200))),
+            new IndexCase("Appointment.countForReschedule", "appointments", List.of("doctor_id", "appointment_date_time"),
+                r -> r.appointments().countForReschedule(1L, FROM, TO, ACTIVE)),
+            new IndexCase("Appointment.findPageLatestFirst(doctor)", "appointments", List.of("doctor_id", "appointment_date_time"),
+                r -> r.appointments().findPageLatestFirst(null, 1L, null, null, null, null, PageRequest.of(0, 26))),
+            new IndexCase("Appointment.findByStatus", "appointments", List.of("status"),
+                r -> r.appointments().findByStatus(AppointmentStatus.SCHEDULED)),
+            new IndexCase("Appointment.countByStatus", "appointments", List.of("status"),
+                r -> r.appointments().countByStatus(AppointmentStatus.SCHEDULED)),
+            new IndexCase("Appointment.findByAppointmentDateTimeBetween", "appointments", List.of("appointment_date_time"),
+                r -> r.appointments().findByAppointmentDateTimeBetween(FROM, TO)),
+            new IndexCase("Appointment.findByAppointmentDateTimeFromExcludingStatus", "appointments", List.of("appointment_date_time"),
+                r -> r.appointments().findByAppointmentDateTimeFromExcludingStatus(FROM, AppointmentStatus.CANCELLED)),
+            new IndexCase("Appointment.findTop10ByOrderByAppointmentDateTimeDesc", "appointments", List.of("appointment_date_time"),
+                r -> r.appointments().findTop10ByOrderByAppointmentDateTimeDesc()),
+            new IndexCase("Appointment.countByDepartmentId", "doctors", List.of("department_id"),
+                r -> r.appointments().countByDepartmentId(1L)),
+
+            // DoctorRepository
+            new IndexCase("Doctor.findByDoctorId", "doctors", List.of("doctor_id"),
+                r -> r.doctors().findByDoctorId("DOC-0")),
+            new IndexCase("Doctor.findByUserId", "doctors", List.of("user_id"),
+                r -> r.doctors().findByUserId(1L)),
+            new IndexCase("Doctor.findByUserEmail", "users", List.of("email"),
+                r -> r.doctors().findByUserEmail("nobody@test.local")),
+            new IndexCase("Doctor.findByDepartmentId", "doctors", List.of("department_id"),
+                r -> r.doctors().findByDepartmentId(1L)),
+            new IndexCase("Doctor.findAvailableDoctorsByDepartmentWithUser", "doctors", List.of("department_id", "is_available"),
+                r -> r.doctors().findAvailableDoctorsByDepartmentWithUser(1L)),
+            new IndexCase("Doctor.findBySpecialization", "doctors", List.of("specialization"),
+                r -> r.doctors().findBySpecialization("Cardiology")),
+            new IndexCase("Doctor.findAvailableDoctorsBySpecializationWithUser", "doctors", List.of("specialization", "is_available"),
+                r -> r.doctors().findAvailableDoctorsBySpecializationWithUser("Cardiology")),
+            new IndexCase("Doctor.findAllByIdWithUser", "doctors", List.of("id"),
+                r -> r.doctors().findAllByIdWithUser(List.of(1L, 2L))),
+            new IndexCase("Doctor.existsByLicenseNumber", "doctors", List.of("license_number"),
+                r -> r.doctors().existsByLicenseNumber("LIC-0")),
+
+            // UserRepository
+            new IndexCase("User.findByEmail", "users", List.of("email"),
+                r -> r.users().findByEmail("nobody@test.local")),
+            new IndexCase("User.findByRole", "users", List.of("role"),
+                r -> r.users().findByRole(Role.ADMIN)),
+            new IndexCase("User.countByRole", "users", List.of("role"),
+                r -> r.users().countByRole(Role.ADMIN)),
+            new IndexCase("User.findByRoleAndIsActiveTrue", "users", List.of("role", "is_active"),
+                r -> r.users().findByRoleAndIsActiveTrue(Role.ADMIN)),
+            new IndexCase("User.findPageNewestFirst(role)", "users", List.of("role"),
+                r -> r.users().findPageNewestFirst(Role.ADMIN, null, null, PageRequest.of(0, 26))),
+            new IndexCase("User.findPageByName", "users", List.of("last_name", "first_name", "id"),
+                r -> r.users().findPageByName(null, null, null, null, null, PageRequest.of(0, 26)))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    public void queryCanUseAnIndex(IndexCase query) {
+        Set<String> matching = indexesLeadingWith(query.table(), query.columns());
+        assertFalse(matching.isEmpty(), "No index on " + query.table() + " " + query.columns());
+
+        String sql = generatedSql(query);
+        Set<String> aliases = aliasesOf(sql, query.table());
+        assertFalse(aliases.isEmpty(), query.name() + " does not read " + query.table() + ": " + sql);
+
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql);
+        Set<String> keys = new HashSet<>();
+        for (Map<String, Object> row : plan) {
+            if (aliases.contains(String.valueOf(row.get("table")))) {
+                addKeys(keys, row.get("possible_keys"));
+                addKeys(keys, row.get("key"));
+            }
+        }
+        keys.retainAll(matching);
+        assertTrue(!keys.isEmpty() || missedUniqueLookup(plan), query.name() + " cannot use any of " + matching + ": " + sql);
+    }
+
+    /**
+     * The first statement the repository method sent, with its parameters bound
+     */
+    private String generatedSql(IndexCase query) {
+        List<String> statements = new ArrayList<>();
+        StatementCapture.CAPTURED.set(statements);
+        try {
+            query.call().accept(new Repositories(appointmentRepository, doctorRepository, userRepository));
+        } finally {
+            StatementCapture.CAPTURED.remove();
+        }
+        return statements.stream()
+            .filter(statement -> statement.regionMatches(true, 0, "select", 0, 6))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError(query.name() + " sent no select"));
+    }
+
+    /**
+     * Aliases the statement gives the table, which are what EXPLAIN reports it under
+     */
+    private static Set<String> aliasesOf(String sql, String table) {
+        Set<String> aliases = new HashSet<>();
+        Matcher matcher = Pattern.compile("\\b(?:from|join)\\s+" + Pattern.quote(table) + "\\s+(\\w+)", Pattern.CASE_INSENSITIVE).matcher(sql);
+        while (matcher.find()) {
+            aliases.add(matcher.group(1));
+        }
+        return aliases;
+    }
+
+    /**
+     * Names of the indexes on the table whose columns start with the given ones, in order
+     */
+    private Set<String> indexesLeadingWith(String table, List<String> columns) {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT INDEX_NAME, COLUMN_NAME FROM information_schema.STATISTICS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? ORDER BY INDEX_NAME, SEQ_IN_INDEX",
+            rs -> {
+                indexes.computeIfAbsent(rs.getString(1), name -> new ArrayList<>()).add(rs.getString(2).toLowerCase());
+            }, table);
+
+        Set<String> matching = new HashSet<>();
+        indexes.forEach((name, indexColumns) -> {
+            if (indexColumns.size() >= columns.size() && indexColumns.subList(0, columns.size()).equals(columns)) {
+                matching.add(name);
+            }
+        });
+        return matching;
+    }
+
+    /**
+     * A unique-key lookup for a value that is not there is answered while planning, and the
+     * plan then reports the miss instead of the key it probed
+     */
+    private static boolean missedUniqueLookup(List<Map<String, Object>> plan) {
+        return plan.stream().anyMatch(row -> String.valueOf(row.get("Extra")).contains("const table"));
+    }
+
+    private static void addKeys(Set<String> keys, Object value) {
+        if (value != null) {
+            for (String key : value.toString().split(",")) {
+                keys.add(key.trim());
+            }
+        }
+    }
+
+    record Repositories(AppointmentRepository appointments, DoctorRepository doctors, UserRepository users) {
+    }
+
+    record IndexCase(String name, String table, List<String> columns, Consumer<Repositories> call) {
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Driver interceptor that records the statements sent by the current thread while a
+     * capture is open. The supplied text is the query packet, so values are already bound.
+     */
+    public static class StatementCapture implements QueryInterceptor {
+
+        static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+        @Override
+        public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+            return this;
+        }
+
+        @Override
+        public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+            List<String> statements = CAPTURED.get();
+            if (statements != null) {
+                statements.add(sql.get().trim());
+            }
+            return null;
+        }
+
+        @Override
+        public boolean executeTopLevelOnly() {
+            return true;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet,
+                                                   ServerSession serverSession) {
+            return originalResultSet;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.mediverse.repository;
+
+import com.mediverse.MediverseApplication;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Upgrading a database that ddl-auto=update created before the migrations existed: it is
+ * baselined at V1, gets every later script, and the application then starts against it with
+ * ddl-auto=validate and a backfilled slot ledger.
+ *
+ * Runs in a scratch database on the configured server, dropped afterwards.
+ */
+public class SchemaMigrationTest {
+
+    private static final String CONFIGURED_DATABASE = "/mediverse_db?";
+
+    private String database;
+    private String url;
+    private JdbcTemplate jdbcTemplate;
+    private ConfigurableApplicationContext context;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        String configuredUrl = properties.getProperty("spring.datasource.url");
+        assertTrue(configuredUrl.contains(CONFIGURED_DATABASE), "Unexpected datasource url " + configuredUrl);
+
+        database = "mediverse_migration_" + Long.toString(System.nanoTime(), 36);
+        url = configuredUrl.replace(CONFIGURED_DATABASE, "/" + database + "?");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url,
+            properties.getProperty("spring.datasource.username"), properties.getProperty("spring.datasource.password"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // The schema as ddl-auto=update left it, with one booked appointment
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql")).execute(dataSource);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO users (id, email, password, role, first_name, last_name, is_active, created_at) " +
+            "VALUES (1, 'doctor@old.local', 'x', 'DOCTOR', 'Old', 'Doctor', 1, ?), " +
+            "(2, 'patient@old.local', 'x', 'PATIENT', 'Old', 'Patient', 1, ?)", now, now);
+        jdbcTemplate.update("INSERT INTO doctors (id, user_id, doctor_id, specialization, is_available) VALUES (1, 1, 'DOC-OLD', 'General', 1)");
+        jdbcTemplate.update("INSERT INTO patients (id, user_id, patient_id, medical_history) VALUES (1, 2, 'PAT-OLD', 'Asthma')");
+        jdbcTemplate.update("INSERT INTO appointments (id, appointment_id, patient_id, doctor_id, appointment_date_time, status, " +
+            "notes, duration_minutes) VALUES (1, 'APT-OLD', 1, 1, ?, 'SCHEDULED', 'Follow-up', 30)",
+            now.plusDays(7).withHour(10).withMinute(0).withSecond(0).withNano(0));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        jdbcTemplate.execute("DROP DATABASE IF EXISTS " + database);
+    }
+
+    @Test
+    public void preMigrationDatabaseIsBaselinedAndUpgraded() {
+        // Command-line arguments, so they win over application.properties
+        context = new SpringApplicationBuilder(MediverseApplication.class)
+            .profiles("test")
+            .run("--spring.datasource.url=" + url, "--server.port=0");
+
+        Flyway flyway = context.getBean(Flyway.class);
+        MigrationInfo[] applied = flyway.info().applied();
+        assertEquals("1", applied[0].getVersion().getVersion());
+        assertTrue(applied[0].getType().isBaseline(), "V1 should be a baseline, not run");
+        assertEquals(0, flyway.info().pending().length);
+
+        for (String table : new String[] { "appointment_slot_ledger", "waitlist_entries", "schedule_exceptions", "reschedule_jobs" }) {
+            assertEquals(1, count("SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", table),
+                table + " was not created");
+        }
+        for (String index : new String[] { "idx_user_name", "idx_appointment_date_time", "idx_appointment_doctor_date_time" }) {
+            assertTrue(count("SELECT COUNT(*) FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND INDEX_NAME = ?", index) > 0,
+                index + " was not created");
+        }
+
+        // Existing rows carried over: clinical text moved out, ledger filled on startup
+        assertEquals(1, count("SELECT COUNT(*) FROM appointment_details WHERE appointment_id = 1 AND notes = 'Follow-up'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM patient_clinical_profiles WHERE patient_id = 1 AND medical_history = 'Asthma'"));
+        assertEquals(6, count("SELECT COUNT(*) FROM appointment_slot_ledger WHERE appointment_id = 1"));
+    }
+
+    private int count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+}
@@ -0,0 +1,241 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.AppointmentBookingDTO;
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.Patient;
+import com.mediverse.entity.WaitlistStatus;
+import com.mediverse.repository.AppointmentRepository;
+import com.mediverse.repository.DoctorRepository;
+import com.mediverse.repository.PatientRepository;
+import com.mediverse.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers bookAppointment from many threads and checks that no slot is ever saved twice.
+ * Also checks that slot holds block other patients until the holder books, that edits
+ * stay within the doctor's working hours, and that waitlist bookings fit the released slot.
+ */
+public class AppointmentBookingStressTest {
+
+    private static final int THREADS = 300;
+    private static final int SLOTS_PER_DOCTOR = 16;
+    private static final int DOCTORS = 4;
+
+    private final Map<LocalDateTime, AtomicInteger>[] savesPerSlot = newSlotMaps();
+    private AppointmentService appointmentService;
+    private AppointmentRepository appointmentRepository;
+    private SlotIndexService slotIndexService;
+    private SlotHoldService slotHoldService;
+    private SlotLedgerService slotLedgerService;
+
+    @BeforeEach
+    public void setUp() {
+        appointmentRepository = mock(AppointmentRepository.class);
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        PatientRepository patientRepository = mock(PatientRepository.class);
+
+        when(patientRepository.findByUserEmail(anyString())).thenReturn(Optional.of(new Patient()));
+        when(doctorRepository.findById(anyLong())).thenAnswer(invocation -> {
+            Doctor doctor = new Doctor();
+            doctor.setId(invocation.getArgument(0));
+            return Optional.of(doctor);
+        });
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            int doctorIndex = appointment.getDoctor().getId().intValue() - 1;
+            savesPerSlot[doctorIndex]
+                .computeIfAbsent(appointment.getAppointmentDateTime(), slot -> new AtomicInteger())
+                .incrementAndGet();
+            // Widen the window between check and insert to make races likely
+            Thread.yield();
+            return appointment;
+        });
+
+        // The ledger key is covered against MySQL by SlotLedgerServiceTest; here it always reports the slot as free
+        slotLedgerService = mock(SlotLedgerService.class);
+        when(slotLedgerService.isFree(anyLong(), any(LocalDateTime.class), anyInt())).thenReturn(true);
+
+        slotHoldService = new SlotHoldService();
+
+        slotIndexService = new SlotIndexService();
+        ReflectionTestUtils.setField(slotIndexService, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(slotIndexService, "slotHoldService", slotHoldService);
+
+        appointmentService = new AppointmentService();
+        ReflectionTestUtils.setField(appointmentService, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(appointmentService, "doctorRepository", doctorRepository);
+        ReflectionTestUtils.setField(appointmentService, "patientRepository", patientRepository);
+        ReflectionTestUtils.setField(appointmentService, "slotIndexService", slotIndexService);
+        ReflectionTestUtils.setField(appointmentService, "slotLedgerService", slotLedgerService);
+        ReflectionTestUtils.setField(appointmentService, "slotHoldService", slotHoldService);
+        ReflectionTestUtils.setField(appointmentService, "doctorScheduleService", new DoctorScheduleService());
+        ReflectionTestUtils.setField(appointmentService, "scheduleExceptionService", new ScheduleExceptionService());
+        ReflectionTestUtils.setField(appointmentService, "todayQueueService", new TodayQueueService());
+        ReflectionTestUtils.setField(appointmentService, "eventPublisher", mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    public void concurrentBookingsNeverDoubleBookASlot() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(1);
+        int attemptsPerThread = SLOTS_PER_DOCTOR * 2;
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            // Most threads pile onto doctor 1, the rest spread over the others
+            long doctorId = t % 4 == 0 ? 1 + (t / 4) % DOCTORS : 1;
+            int offset = t;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        int slot = (offset + i) % SLOTS_PER_DOCTOR;
+                        AppointmentBookingDTO booking = new AppointmentBookingDTO(
+                            doctorId, date, LocalTime.of(9, 0).plusMinutes(30L * slot), "Stress test");
+                        try {
+                            appointmentService.bookAppointment(booking, "patient" + offset + "@test.com");
+                            booked.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS), "Booking threads did not finish in time");
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        for (Map<LocalDateTime, AtomicInteger> slots : savesPerSlot) {
+            slots.forEach((slot, saves) -> assertEquals(1, saves.get(), "Slot " + slot + " was double booked"));
+        }
+        assertEquals(SLOTS_PER_DOCTOR * DOCTORS, booked.get());
+        assertEquals(THREADS * attemptsPerThread, booked.get() + rejected.get());
+
+        double attemptsPerSecond = (booked.get() + rejected.get()) / (elapsedNanos / 1_000_000_000.0);
+        System.out.printf("Booking stress: %d attempts from %d threads, %d booked, %.0f attempts/sec%n",
+            booked.get() + rejected.get(), THREADS, booked.get(), attemptsPerSecond);
+    }
+
+    @Test
+    public void heldSlotSurvivesEvictionAndOnlyTheHolderCanBookIt() {
+        LocalDateTime slot = LocalDate.now().plusDays(1).atTime(10, 0);
+        appointmentService.placeHold(1L, slot, null, "holder@test.com");
+
+        // Dropping and rebuilding the cached days must not drop the hold with them
+        slotIndexService.evictDoctor(1L);
+        slotIndexService.rebuild();
+
+        AppointmentBookingDTO booking = new AppointmentBookingDTO(1L, slot.toLocalDate(), slot.toLocalTime(), "Hold test");
+        assertThrows(RuntimeException.class, () -> appointmentService.bookAppointment(booking, "other@test.com"));
+        assertFalse(appointmentService.getAvailableSlots(1L, slot.toLocalDate()).contains(slot.toLocalTime()));
+
+        appointmentService.bookAppointment(booking, "holder@test.com");
+        assertEquals(0, slotHoldService.activeHolds());
+        assertEquals(1, savesPerSlot[0].get(slot).get());
+    }
+
+    @Test
+    public void failedBookingKeepsTheHolderHold() {
+        LocalDateTime slot = LocalDate.now().plusDays(1).atTime(11, 0);
+        appointmentService.placeHold(1L, slot, null, "holder@test.com");
+
+        // Booked through another instance after the hold was placed
+        when(slotLedgerService.isFree(eq(1L), eq(slot), anyInt())).thenReturn(false);
+
+        AppointmentBookingDTO booking = new AppointmentBookingDTO(1L, slot.toLocalDate(), slot.toLocalTime(), "Hold test");
+        assertThrows(RuntimeException.class, () -> appointmentService.bookAppointment(booking, "holder@test.com"));
+        assertEquals(1, slotHoldService.activeHolds());
+        assertTrue(slotHoldService.isHeld(1L, slot, SlotIndexService.DEFAULT_SLOT_MINUTES, null));
+    }
+
+    @Test
+    public void editCannotMoveAnAppointmentOutsideWorkingHours() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Appointment appointment = appointmentService.bookAppointment(
+            new AppointmentBookingDTO(2L, date, LocalTime.of(9, 0), "Edit test"), "editor@test.com");
+        appointment.setId(42L);
+        when(appointmentRepository.findById(42L)).thenReturn(Optional.of(appointment));
+
+        // The default schedule is 09:00 to 17:00
+        RuntimeException e = assertThrows(RuntimeException.class, () ->
+            appointmentService.updateAppointment(42L, moved -> moved.setAppointmentDateTime(date.atTime(20, 0))));
+        assertEquals("Appointment time is outside doctor's working hours", e.getMessage());
+
+        appointmentService.updateAppointment(42L, moved -> moved.setAppointmentDateTime(date.atTime(10, 0)));
+        assertEquals(date.atTime(10, 0), appointment.getAppointmentDateTime());
+    }
+
+    @Test
+    public void waitlistBookingTakesTheLengthOfTheReleasedSlot() {
+        WaitlistRepository waitlistRepository = mock(WaitlistRepository.class);
+        when(waitlistRepository.transitionFromWaiting(7L, WaitlistStatus.BOOKED)).thenReturn(1);
+        ReflectionTestUtils.setField(appointmentService, "waitlistRepository", waitlistRepository);
+
+        // A 45-minute appointment was cancelled at 13:00, and 13:45 is still booked
+        LocalDateTime released = LocalDate.now().plusDays(1).atTime(13, 0);
+        slotIndexService.occupy(3L, released.plusMinutes(45), 30);
+
+        Appointment booked = appointmentService.bookFromWaitlist(7L, "waiting@test.com", 3L, released, 45);
+        assertEquals(45, booked.getDurationMinutes());
+        assertFalse(slotIndexService.isFree(3L, released.plusMinutes(30), 15));
+        assertTrue(slotIndexService.isFree(3L, released.plusMinutes(75), 15));
+
+        // A 20-minute gap at 15:00: the standard 30 minutes would run into 15:20
+        LocalDateTime shortGap = released.plusHours(2);
+        slotIndexService.occupy(3L, shortGap.plusMinutes(20), 30);
+        when(waitlistRepository.transitionFromWaiting(8L, WaitlistStatus.BOOKED)).thenReturn(1);
+        when(waitlistRepository.transitionFromWaiting(9L, WaitlistStatus.BOOKED)).thenReturn(1);
+        assertThrows(RuntimeException.class, () ->
+            appointmentService.bookFromWaitlist(8L, "waiting2@test.com", 3L, shortGap, SlotIndexService.DEFAULT_SLOT_MINUTES));
+        assertEquals(20, appointmentService.bookFromWaitlist(9L, "waiting3@test.com", 3L, shortGap, 20).getDurationMinutes());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<LocalDateTime, AtomicInteger>[] newSlotMaps() {
+        Map<LocalDateTime, AtomicInteger>[] maps = new Map[DOCTORS];
+        for (int i = 0; i < DOCTORS; i++) {
+            maps[i] = new ConcurrentHashMap<>();
+        }
+        return maps;
+    }
+}
@@ -0,0 +1,149 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.Patient;
+import com.mediverse.entity.Role;
+import com.mediverse.entity.User;
+import com.mediverse.repository.AppointmentDetailsRepository;
+import com.mediverse.repository.AppointmentRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mass cancel, mass complete and history removal change the right rows, keep the slot ledger
+ * in step, and never load the appointments they touch.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class AppointmentBulkChangeTest {
+
+    private static final int PER_DAY = 20;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private SlotLedgerService slotLedgerService;
+
+    @Autowired
+    private ClinicalRecordService clinicalRecordService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentDetailsRepository appointmentDetailsRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    public void setUp() {
+        String run = Long.toString(System.nanoTime(), 36);
+        User doctorUser = new User("doctor." + run + "@test.local", "secret", Role.DOCTOR, "Bulk", "Doctor");
+        entityManager.persist(doctorUser);
+        doctor = new Doctor(doctorUser, "General Medicine");
+        entityManager.persist(doctor);
+        User patientUser = new User("patient." + run + "@test.local", "secret", Role.PATIENT, "Bulk", "Patient");
+        entityManager.persist(patientUser);
+        patient = new Patient(patientUser);
+        entityManager.persist(patient);
+    }
+
+    @Test
+    public void cancelDayCancelsOpenAppointmentsAndFreesTheirSlots() {
+        LocalDateTime day = LocalDateTime.now().plusYears(5).toLocalDate().atStartOfDay();
+        List<Appointment> booked = book(day.withHour(9), AppointmentStatus.SCHEDULED);
+        Appointment completed = book(day.withHour(17), AppointmentStatus.COMPLETED).get(0);
+        Appointment nextDay = book(day.plusDays(1).withHour(9), AppointmentStatus.SCHEDULED).get(0);
+        Statistics statistics = clearAndCountLoads();
+
+        int cancelled = appointmentService.cancelDoctorAppointments(doctor.getId(), day, day.plusDays(1));
+
+        assertEquals(booked.size(), cancelled);
+        assertEquals(0, statistics.getEntityStatistics(Appointment.class.getName()).getLoadCount());
+        assertEquals(AppointmentStatus.CANCELLED, statusOf(booked.get(0)));
+        assertEquals(AppointmentStatus.COMPLETED, statusOf(completed));
+        assertEquals(AppointmentStatus.SCHEDULED, statusOf(nextDay));
+        assertTrue(slotLedgerService.isFree(doctor.getId(), day.withHour(9), 15 * PER_DAY));
+        assertFalse(slotLedgerService.isFree(doctor.getId(), day.withHour(17), 15));
+        assertFalse(slotLedgerService.isFree(doctor.getId(), day.plusDays(1).withHour(9), 15));
+    }
+
+    @Test
+    public void completeDayOnlyCompletesAppointmentsThatHaveStarted() {
+        LocalDateTime past = LocalDateTime.now().minusYears(5).toLocalDate().atStartOfDay();
+        List<Appointment> booked = book(past.withHour(9), AppointmentStatus.CONFIRMED);
+        Appointment cancelled = book(past.withHour(17), AppointmentStatus.CANCELLED).get(0);
+        LocalDateTime future = LocalDateTime.now().plusYears(5);
+        Appointment upcoming = book(future, AppointmentStatus.SCHEDULED).get(0);
+        clearAndCountLoads();
+
+        assertEquals(booked.size(), appointmentService.completeDoctorAppointments(doctor.getId(), past, future.plusDays(1)));
+        assertEquals(AppointmentStatus.COMPLETED, statusOf(booked.get(PER_DAY - 1)));
+        assertEquals(AppointmentStatus.CANCELLED, statusOf(cancelled));
+        assertEquals(AppointmentStatus.SCHEDULED, statusOf(upcoming));
+    }
+
+    @Test
+    public void deletingAPatientsHistoryRemovesItWithoutLoadingIt() {
+        LocalDateTime day = LocalDateTime.now().plusYears(5).toLocalDate().atStartOfDay();
+        List<Appointment> booked = book(day.withHour(9), AppointmentStatus.SCHEDULED);
+        clinicalRecordService.saveDetails(booked.get(0).getId(), "Deleted with the appointment", null, null);
+        Statistics statistics = clearAndCountLoads();
+
+        assertEquals(booked.size(), appointmentService.deletePatientAppointments(patient.getId()));
+
+        assertEquals(0, statistics.getEntityStatistics(Appointment.class.getName()).getLoadCount());
+        assertTrue(appointmentRepository.findByPatientIdOrderByDateDesc(patient.getId()).isEmpty());
+        assertFalse(appointmentDetailsRepository.existsById(booked.get(0).getId()));
+        assertTrue(slotLedgerService.isFree(doctor.getId(), day.withHour(9), 15 * PER_DAY));
+    }
+
+    // PER_DAY back-to-back 15-minute appointments from start, with their ledger claims
+    private List<Appointment> book(LocalDateTime start, AppointmentStatus status) {
+        List<Appointment> booked = new ArrayList<>();
+        for (int i = 0; i < PER_DAY; i++) {
+            Appointment appointment = new Appointment(patient, doctor, start.plusMinutes(15L * i).withSecond(0).withNano(0));
+            appointment.setDurationMinutes(15);
+            appointment.setStatus(status);
+            entityManager.persist(appointment);
+            slotLedgerService.claim(appointment);
+            booked.add(appointment);
+        }
+        return booked;
+    }
+
+    private Statistics clearAndCountLoads() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private AppointmentStatus statusOf(Appointment appointment) {
+        return appointmentRepository.findById(appointment.getId()).orElseThrow().getStatus();
+    }
+}
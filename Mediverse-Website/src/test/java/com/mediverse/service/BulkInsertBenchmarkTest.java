@@ -0,0 +1,129 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.Patient;
+import com.mediverse.entity.Role;
+import com.mediverse.entity.User;
+import com.mediverse.repository.AppointmentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inserts appointments one save per row, each in its own transaction as the app used to, and
+ * then through BulkWriteService, and reports rows/s for both. The bulk path also writes one
+ * ledger row per appointment.
+ *
+ * Writes to the configured database, so it only runs with -Dmediverse.benchmark=true.
+ * -Dmediverse.benchmark.rows sets the bulk row count (default 1,000,000); the row-by-row pass
+ * is capped at 10,000 rows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "mediverse.benchmark", matches = "true")
+public class BulkInsertBenchmarkTest {
+
+    private static final int ROW_BY_ROW_LIMIT = 10_000;
+    private static final int GENERATE_AT_ONCE = 20_000;
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2000, 1, 3, 9, 0);
+
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    public void setUp() {
+        String run = Long.toString(System.nanoTime(), 36);
+        transactionTemplate.executeWithoutResult(status -> {
+            User doctorUser = new User("bench.doctor." + run + "@test.local", "secret", Role.DOCTOR, "Bench", "Doctor");
+            entityManager.persist(doctorUser);
+            doctor = new Doctor(doctorUser, "General Medicine");
+            entityManager.persist(doctor);
+            User patientUser = new User("bench.patient." + run + "@test.local", "secret", Role.PATIENT, "Bench", "Patient");
+            entityManager.persist(patientUser);
+            patient = new Patient(patientUser);
+            entityManager.persist(patient);
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM appointment_slot_ledger WHERE doctor_id = ?", doctor.getId());
+        jdbcTemplate.update("DELETE FROM appointments WHERE doctor_id = ?", doctor.getId());
+        jdbcTemplate.update("DELETE FROM patients WHERE id = ?", patient.getId());
+        jdbcTemplate.update("DELETE FROM doctors WHERE id = ?", doctor.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", patient.getUser().getId(), doctor.getUser().getId());
+    }
+
+    @Test
+    public void bulkInsertOutpacesRowByRowSaves() {
+        int rows = Integer.getInteger("mediverse.benchmark.rows", 1_000_000);
+        int rowByRowRows = Math.min(rows, ROW_BY_ROW_LIMIT);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < rowByRowRows; i++) {
+            appointmentRepository.save(appointment(i));
+        }
+        double rowByRowRate = rowsPerSecond(rowByRowRows, System.nanoTime() - started);
+
+        int inserted = 0;
+        started = System.nanoTime();
+        for (int from = 0; from < rows; from += GENERATE_AT_ONCE) {
+            List<Appointment> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + GENERATE_AT_ONCE, rows); i++) {
+                batch.add(appointment(rowByRowRows + i));
+            }
+            inserted += bulkWriteService.insertAppointments(batch);
+        }
+        double bulkRate = rowsPerSecond(inserted, System.nanoTime() - started);
+
+        System.out.printf("Row by row: %,d rows at %,.0f rows/s%n", rowByRowRows, rowByRowRate);
+        System.out.printf("Bulk:       %,d rows at %,.0f rows/s (%.1fx)%n", inserted, bulkRate, bulkRate / rowByRowRate);
+
+        assertEquals(rows, inserted);
+        assertTrue(bulkRate > rowByRowRate, "Bulk inserts should be faster than one save per row");
+    }
+
+    // Five-minute appointments, one after another, so each claims a single ledger block
+    private Appointment appointment(int index) {
+        Appointment appointment = new Appointment(patient, doctor, FIRST_SLOT.plusMinutes(5L * index));
+        appointment.setDurationMinutes(5);
+        appointment.setStatus(AppointmentStatus.COMPLETED);
+        appointment.setReason("Benchmark");
+        return appointment;
+    }
+
+    private static double rowsPerSecond(int rows, long nanos) {
+        return rows * 1_000_000_000.0 / Math.max(1, nanos);
+    }
+}
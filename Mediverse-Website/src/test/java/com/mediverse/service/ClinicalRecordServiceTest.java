@@ -0,0 +1,147 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.AppointmentDetails;
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.Patient;
+import com.mediverse.entity.PatientClinicalProfile;
+import com.mediverse.entity.Role;
+import com.mediverse.entity.User;
+import com.mediverse.repository.AppointmentDetailsRepository;
+import com.mediverse.repository.AppointmentRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Clinical text lives in its own tables: it round-trips through the service, cleared records
+ * leave no row behind, and loading appointments does not load it.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class ClinicalRecordServiceTest {
+
+    @Autowired
+    private ClinicalRecordService clinicalRecordService;
+
+    @Autowired
+    private AppointmentDetailsRepository appointmentDetailsRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Patient patient;
+    private Appointment appointment;
+
+    @BeforeEach
+    public void setUp() {
+        String run = Long.toString(System.nanoTime(), 36);
+        User doctorUser = new User("doctor." + run + "@test.local", "secret", Role.DOCTOR, "Clinical", "Doctor");
+        entityManager.persist(doctorUser);
+        Doctor doctor = new Doctor(doctorUser, "General Medicine");
+        entityManager.persist(doctor);
+        User patientUser = new User("patient." + run + "@test.local", "secret", Role.PATIENT, "Clinical", "Patient");
+        entityManager.persist(patientUser);
+        patient = new Patient(patientUser);
+        entityManager.persist(patient);
+        appointment = new Appointment(patient, doctor, LocalDateTime.now().plusYears(5).withNano(0));
+        entityManager.persist(appointment);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void appointmentDetailsRoundTrip() {
+        clinicalRecordService.saveDetails(appointment.getId(), "Follow up in two weeks", "Migraine", "Ibuprofen");
+        entityManager.flush();
+        entityManager.clear();
+
+        AppointmentDetails details = clinicalRecordService.detailsFor(appointment.getId());
+        assertEquals("Follow up in two weeks", details.getNotes());
+        assertEquals("Migraine", details.getDiagnosis());
+        assertEquals("Ibuprofen", details.getPrescription());
+
+        Map<Long, AppointmentDetails> byAppointment = clinicalRecordService.detailsFor(List.of(appointment.getId(), -1L));
+        assertEquals(1, byAppointment.size());
+        assertEquals("Migraine", byAppointment.get(appointment.getId()).getDiagnosis());
+    }
+
+    @Test
+    public void clearedDetailsLeaveNoRow() {
+        clinicalRecordService.saveDetails(appointment.getId(), "Temporary", null, null);
+        entityManager.flush();
+        assertTrue(appointmentDetailsRepository.existsById(appointment.getId()));
+
+        clinicalRecordService.saveDetails(appointment.getId(), " ", "", null);
+        entityManager.flush();
+        assertFalse(appointmentDetailsRepository.existsById(appointment.getId()));
+        assertNull(clinicalRecordService.detailsFor(appointment.getId()).getNotes());
+    }
+
+    @Test
+    public void emptyDetailsAreNotStored() {
+        clinicalRecordService.saveDetails(appointment.getId(), null, null, null);
+        entityManager.flush();
+
+        assertFalse(appointmentDetailsRepository.existsById(appointment.getId()));
+    }
+
+    @Test
+    public void loadingAnAppointmentDoesNotLoadItsDetails() {
+        clinicalRecordService.saveDetails(appointment.getId(), "Private", null, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        appointmentRepository.findById(appointment.getId()).orElseThrow();
+
+        assertEquals(0, statistics.getEntityStatistics(AppointmentDetails.class.getName()).getLoadCount());
+    }
+
+    @Test
+    public void patientProfileRoundTrip() {
+        clinicalRecordService.saveProfile(patient.getId(), "Asthma", "Penicillin", "Salbutamol");
+        entityManager.flush();
+        entityManager.clear();
+
+        PatientClinicalProfile profile = clinicalRecordService.profileFor(patient.getId());
+        assertEquals("Asthma", profile.getMedicalHistory());
+        assertEquals("Penicillin", profile.getAllergies());
+        assertEquals("Salbutamol", profile.getCurrentMedications());
+        assertNull(clinicalRecordService.profileFor(null).getAllergies());
+    }
+
+    @Test
+    public void deletingAnAppointmentDeletesItsDetails() {
+        clinicalRecordService.saveDetails(appointment.getId(), "Goes with the appointment", null, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        appointmentRepository.deleteById(appointment.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertFalse(appointmentDetailsRepository.existsById(appointment.getId()));
+    }
+}
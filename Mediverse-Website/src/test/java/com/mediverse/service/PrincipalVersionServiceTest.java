@@ -0,0 +1,74 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.UserPrincipal;
+import com.mediverse.entity.Role;
+import com.mediverse.entity.User;
+import com.mediverse.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrincipalVersionServiceTest {
+
+    private final PrincipalVersionService versions = new PrincipalVersionService();
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(versions, "userRepository", userRepository);
+        when(userRepository.findPrincipalVersionById(1L)).thenReturn(Optional.of(3L));
+        when(userRepository.findPrincipalVersionById(2L)).thenReturn(Optional.of(0L));
+    }
+
+    @Test
+    void principalGoesStaleOnlyWhenItsUserChangesAfterItWasBuilt() {
+        UserPrincipal first = principal(1L, 3L);
+        UserPrincipal other = principal(2L, 0L);
+        assertFalse(versions.isStale(first));
+        assertFalse(versions.isStale(other));
+
+        // No transaction is active, so the cached version is dropped at once
+        when(userRepository.findPrincipalVersionById(1L)).thenReturn(Optional.of(4L));
+        versions.userChanged(1L);
+        verify(userRepository).incrementPrincipalVersion(1L);
+        assertTrue(versions.isStale(first));
+        assertFalse(versions.isStale(other));
+
+        UserPrincipal rebuilt = principal(1L, 4L);
+        assertFalse(versions.isStale(rebuilt));
+    }
+
+    @Test
+    void storedVersionIsReadOncePerRecheckInterval() {
+        UserPrincipal first = principal(1L, 3L);
+        for (int i = 0; i < 5; i++) {
+            assertFalse(versions.isStale(first));
+        }
+        verify(userRepository, times(1)).findPrincipalVersionById(1L);
+    }
+
+    @Test
+    void deletedUserIsStale() {
+        when(userRepository.findPrincipalVersionById(1L)).thenReturn(Optional.empty());
+        assertTrue(versions.isStale(principal(1L, 3L)));
+    }
+
+    private static UserPrincipal principal(Long userId, long version) {
+        User user = new User();
+        user.setId(userId);
+        user.setEmail("user" + userId + "@example.com");
+        user.setRole(Role.PATIENT);
+        user.setIsActive(true);
+        return new UserPrincipal(user, null, 10L + userId, version);
+    }
+}
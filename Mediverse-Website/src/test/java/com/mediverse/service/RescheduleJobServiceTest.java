@@ -0,0 +1,281 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.Department;
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.Patient;
+import com.mediverse.entity.RescheduleJob;
+import com.mediverse.entity.RescheduleJobStatus;
+import com.mediverse.entity.Role;
+import com.mediverse.entity.User;
+import com.mediverse.repository.AppointmentRepository;
+import com.mediverse.repository.DepartmentRepository;
+import com.mediverse.repository.DoctorRepository;
+import com.mediverse.repository.PatientRepository;
+import com.mediverse.repository.RescheduleJobRepository;
+import com.mediverse.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Runs reschedule jobs end to end against the database: pages commit together with the job's
+ * cursor, a failed job resumes where it stopped, a conflicting page falls back to single moves,
+ * and colleagues in the same department are used when allowed.
+ *
+ * Not transactional, since the jobs run on the async executor in their own transactions;
+ * everything created here is removed afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class RescheduleJobServiceTest {
+
+    // Test doctors work 08:00 to 20:00 every day, 24 half-hour slots
+    private static final LocalTime DAY_START = LocalTime.of(8, 0);
+    private static final int SLOTS_PER_DAY = 24;
+
+    @Autowired
+    private RescheduleJobService rescheduleJobService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private SlotLedgerService slotLedgerService;
+
+    @MockitoSpyBean
+    private SlotSearchService slotSearchService;
+
+    @Autowired
+    private RescheduleJobRepository rescheduleJobRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Doctor> doctors = new ArrayList<>();
+    private final List<Department> departments = new ArrayList<>();
+    private String run;
+    private Department department;
+    private Patient patient;
+    private LocalDate day;
+
+    @BeforeEach
+    public void setUp() {
+        run = Long.toString(System.nanoTime(), 36);
+        day = LocalDate.now().plusYears(5);
+        transactionTemplate.executeWithoutResult(status -> {
+            department = department("Reschedule", "R");
+            User patientUser = userRepository.save(new User("patient." + run + "@test.local", "secret", Role.PATIENT, "Moved", "Patient"));
+            patient = patientRepository.save(new Patient(patientUser));
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Doctor doctor : doctors) {
+                appointmentService.deleteDoctorAppointments(doctor.getId());
+                doctorRepository.deleteById(doctor.getId());
+                userRepository.deleteById(doctor.getUser().getId());
+            }
+            patientRepository.deleteById(patient.getId());
+            userRepository.deleteById(patient.getUser().getId());
+            departmentRepository.deleteById(department.getId());
+            departments.forEach(extra -> departmentRepository.deleteById(extra.getId()));
+        });
+    }
+
+    @Test
+    public void failedJobKeepsCommittedPagesAndResumesAfterThem() throws InterruptedException {
+        Doctor doctor = doctor("Paged", department);
+        int count = RescheduleJobService.BATCH_SIZE + 50;
+        List<Appointment> booked = book(doctor, day.atTime(DAY_START), count);
+        LocalDateTime windowEnd = day.plusDays(count / SLOTS_PER_DAY + 1).atStartOfDay();
+
+        // Fail while planning the second page, after the first one has been written
+        AtomicInteger plans = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (plans.incrementAndGet() == RescheduleJobService.BATCH_SIZE + 10) {
+                throw new IllegalStateException("Injected failure");
+            }
+            return invocation.callRealMethod();
+        }).when(slotSearchService).findEarliestSlots(anyList(), any(LocalDateTime.class), anyInt(), anyInt());
+
+        RescheduleJob job = rescheduleJobService.start(doctor.getId(), day.atStartOfDay(), windowEnd, false);
+        RescheduleJob failed = awaitStatus(job.getId(), RescheduleJobStatus.FAILED);
+
+        assertEquals(count, failed.getTotalCount());
+        assertEquals(RescheduleJobService.BATCH_SIZE, failed.getMovedCount());
+        assertEquals(booked.get(RescheduleJobService.BATCH_SIZE - 1).getId(), failed.getLastAppointmentId());
+        assertEquals("Injected failure", failed.getErrorMessage());
+        for (int i = 0; i < count; i++) {
+            LocalDateTime expected = i < RescheduleJobService.BATCH_SIZE
+                ? slotAfter(windowEnd, i) : booked.get(i).getAppointmentDateTime();
+            assertEquals(expected, startOf(booked.get(i)), "Appointment " + i + " after the failure");
+        }
+
+        rescheduleJobService.resume(job.getId());
+        RescheduleJob completed = awaitStatus(job.getId(), RescheduleJobStatus.COMPLETED);
+
+        assertEquals(count, completed.getMovedCount());
+        assertEquals(0, completed.getUnmovedCount());
+        assertEquals(booked.get(count - 1).getId(), completed.getLastAppointmentId());
+        for (int i = 0; i < count; i++) {
+            assertEquals(slotAfter(windowEnd, i), startOf(booked.get(i)), "Appointment " + i + " after resuming");
+        }
+        assertTrue(slotLedgerService.isFree(doctor.getId(), day.atTime(DAY_START), 30 * SLOTS_PER_DAY));
+        assertFalse(slotLedgerService.isFree(doctor.getId(), slotAfter(windowEnd, count - 1), 30));
+    }
+
+    @Test
+    public void conflictingPageFallsBackToSingleMoves() throws InterruptedException {
+        Doctor doctor = doctor("Conflict", department);
+        List<Appointment> booked = book(doctor, day.atTime(DAY_START), 5);
+        LocalDateTime windowEnd = day.plusDays(1).atStartOfDay();
+
+        // Another instance claimed the first slot after the window; this instance's index has not seen it
+        jdbcTemplate.update("INSERT INTO appointment_slot_ledger (doctor_id, slot_start, appointment_id, created_at) VALUES (?, ?, ?, ?)",
+            doctor.getId(), slotAfter(windowEnd, 0), -1L, LocalDateTime.now());
+
+        RescheduleJob job = rescheduleJobService.start(doctor.getId(), day.atStartOfDay(), windowEnd, false);
+        RescheduleJob completed = awaitStatus(job.getId(), RescheduleJobStatus.COMPLETED);
+
+        assertEquals(4, completed.getMovedCount());
+        assertEquals(1, completed.getUnmovedCount());
+        assertEquals(booked.get(4).getId(), completed.getLastAppointmentId());
+        // The conflicting move was skipped and left its appointment and ledger claim untouched
+        assertEquals(day.atTime(DAY_START), startOf(booked.get(0)));
+        assertFalse(slotLedgerService.isFree(doctor.getId(), day.atTime(DAY_START), 30));
+        for (int i = 1; i < 5; i++) {
+            assertEquals(slotAfter(windowEnd, i), startOf(booked.get(i)), "Appointment " + i);
+        }
+    }
+
+    @Test
+    public void movesToAFreeColleagueInTheSameDepartment() throws InterruptedException {
+        Doctor doctor = doctor("Leaving", department);
+        Doctor colleague = doctor("Colleague", department);
+        Department elsewhere = transactionTemplate.execute(status -> department("Elsewhere", "E"));
+        Doctor otherDepartment = doctor("Elsewhere", elsewhere);
+        List<Appointment> booked = book(doctor, day.atTime(DAY_START), 2);
+        LocalDateTime windowEnd = day.plusDays(1).atStartOfDay();
+
+        RescheduleJob job = rescheduleJobService.start(doctor.getId(), day.atStartOfDay(), windowEnd, true);
+        RescheduleJob completed = awaitStatus(job.getId(), RescheduleJobStatus.COMPLETED);
+
+        assertEquals(2, completed.getMovedCount());
+        for (Appointment appointment : booked) {
+            // The colleague is free at the original time, which beats the first slot after the window
+            assertEquals(colleague.getId(), doctorOf(appointment));
+            assertEquals(appointment.getAppointmentDateTime(), startOf(appointment));
+            assertFalse(slotLedgerService.isFree(colleague.getId(), appointment.getAppointmentDateTime(), 30));
+            assertTrue(slotLedgerService.isFree(doctor.getId(), appointment.getAppointmentDateTime(), 30));
+        }
+        assertTrue(appointmentRepository.findByDoctorIdOrderByDateAsc(otherDepartment.getId()).isEmpty());
+        departments.add(elsewhere);
+    }
+
+    private Department department(String name, String codePrefix) {
+        Department created = new Department(name + " " + run, "Reschedule test");
+        created.setCode(codePrefix + run.substring(Math.max(0, run.length() - 9)));
+        return departmentRepository.save(created);
+    }
+
+    private Doctor doctor(String name, Department doctorDepartment) {
+        Doctor doctor = transactionTemplate.execute(status -> {
+            User user = userRepository.save(new User(name.toLowerCase() + "." + run + "@test.local", "secret", Role.DOCTOR, name, "Doctor"));
+            Doctor created = new Doctor(user, "General Medicine");
+            created.setDepartment(doctorDepartment);
+            created.setAvailabilityStartTime(DAY_START);
+            created.setAvailabilityEndTime(DAY_START.plusMinutes(30L * SLOTS_PER_DAY));
+            return doctorRepository.save(created);
+        });
+        doctors.add(doctor);
+        return doctor;
+    }
+
+    // Back-to-back half-hour appointments from start, filling whole days, with their ledger claims
+    private List<Appointment> book(Doctor doctor, LocalDateTime start, int count) {
+        return transactionTemplate.execute(status -> {
+            List<Appointment> booked = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Appointment appointment = new Appointment(patient, doctor, slotAfter(start.toLocalDate().atStartOfDay(), i));
+                appointment.setDurationMinutes(30);
+                appointment.setStatus(AppointmentStatus.SCHEDULED);
+                appointment = appointmentRepository.save(appointment);
+                slotLedgerService.claim(appointment);
+                booked.add(appointment);
+            }
+            return booked;
+        });
+    }
+
+    // The i-th working slot from the start of the given day
+    private static LocalDateTime slotAfter(LocalDateTime dayStart, int i) {
+        return dayStart.toLocalDate().plusDays(i / SLOTS_PER_DAY).atTime(DAY_START).plusMinutes(30L * (i % SLOTS_PER_DAY));
+    }
+
+    private LocalDateTime startOf(Appointment appointment) {
+        return jdbcTemplate.queryForObject("SELECT appointment_date_time FROM appointments WHERE id = ?",
+            LocalDateTime.class, appointment.getId());
+    }
+
+    private Long doctorOf(Appointment appointment) {
+        return jdbcTemplate.queryForObject("SELECT doctor_id FROM appointments WHERE id = ?", Long.class, appointment.getId());
+    }
+
+    private RescheduleJob awaitStatus(Long jobId, RescheduleJobStatus expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (true) {
+            RescheduleJob job = rescheduleJobRepository.findById(jobId).orElseThrow();
+            if (job.getStatus() == expected) {
+                return job;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                fail("Job " + jobId + " is " + job.getStatus() + ", expected " + expected);
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.SlotHoldDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SlotHoldServiceTest {
+
+    private static final int ROUNDS = 20_000;
+
+    /**
+     * Each round one thread takes and drops holds on a doctor, emptying the doctor's hold set,
+     * while another takes a hold on the same doctor. Expiry drops holds through the same path as
+     * an early release. Every hold that was kept must still be seen afterwards.
+     */
+    @Test
+    public void holdTakenWhileAnotherIsDroppedIsNeverLost() throws Exception {
+        SlotHoldService slotHoldService = new SlotHoldService();
+        LocalDateTime slot = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime keptSlot = slot.plusHours(2);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> churn = executor.submit(() -> {
+                for (long doctorId = 1; doctorId <= ROUNDS; doctorId++) {
+                    barrier.await();
+                    for (int i = 0; i < 3; i++) {
+                        SlotHoldDTO hold = slotHoldService.hold(doctorId, slot, 30, "churn@test.local");
+                        slotHoldService.release(hold.getHoldId(), "churn@test.local");
+                    }
+                }
+                return null;
+            });
+            Future<?> keep = executor.submit(() -> {
+                for (long doctorId = 1; doctorId <= ROUNDS; doctorId++) {
+                    barrier.await();
+                    slotHoldService.hold(doctorId, keptSlot, 30, "patient" + doctorId + "@test.local");
+                }
+                return null;
+            });
+            churn.get();
+            keep.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int lost = 0;
+        for (long doctorId = 1; doctorId <= ROUNDS; doctorId++) {
+            if (!slotHoldService.isHeld(doctorId, keptSlot, 30, null)) {
+                lost++;
+            }
+        }
+        assertEquals(0, lost, "Holds missing from their doctor's set");
+        assertEquals(ROUNDS, slotHoldService.activeHolds());
+    }
+}
@@ -0,0 +1,66 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.Doctor;
+import com.mediverse.repository.AppointmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A doctor-wide eviction inside a transaction waits for the commit, so a day reloaded from
+ * the old rows in the meantime is still dropped afterwards.
+ */
+public class SlotIndexServiceTest {
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void evictDoctorInATransactionTakesEffectAfterCommit() {
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        SlotIndexService slotIndexService = new SlotIndexService();
+        ReflectionTestUtils.setField(slotIndexService, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(slotIndexService, "slotHoldService", new SlotHoldService());
+
+        LocalDateTime slot = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        Doctor doctor = new Doctor();
+        doctor.setId(1L);
+        Appointment appointment = new Appointment(null, doctor, slot);
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setDurationMinutes(30);
+
+        // A reload before the commit still sees the appointment that is being cancelled
+        when(appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetween(eq(1L), any(), any()))
+            .thenReturn(List.of(appointment));
+
+        TransactionSynchronizationManager.initSynchronization();
+        slotIndexService.evictDoctor(1L);
+        assertFalse(slotIndexService.isFree(1L, slot, 30));
+
+        when(appointmentRepository.findByDoctorIdAndAppointmentDateTimeBetween(eq(1L), any(), any()))
+            .thenReturn(List.of());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertTrue(slotIndexService.isFree(1L, slot, 30));
+    }
+}
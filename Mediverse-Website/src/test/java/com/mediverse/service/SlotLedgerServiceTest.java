@@ -0,0 +1,135 @@
+package com.mediverse.service;
+
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.Doctor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The slot ledger against the database: the primary key on (doctor_id, slot_start) is what
+ * turns a second claim on a block into a failed booking, released blocks can be claimed
+ * again, and appointments longer than one block conflict wherever any of their blocks meet.
+ *
+ * The ledger has no foreign keys, so claims are made for a doctor id that no real doctor
+ * uses and appointments that are never saved. Each claim runs in its own transaction, as a
+ * booking would.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class SlotLedgerServiceTest {
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2035, 3, 5, 9, 0);
+
+    @Autowired
+    private SlotLedgerService slotLedgerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long doctorId;
+
+    @BeforeEach
+    public void setUp() {
+        doctorId = -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        slotLedgerService.releaseForDoctor(doctorId);
+    }
+
+    @Test
+    public void secondClaimOnTheSameBlockIsRejected() {
+        Appointment first = appointment(1L, NINE, 30);
+        claim(first);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> claim(appointment(2L, NINE, 30)));
+        assertEquals("This appointment slot is not available", e.getMessage());
+        assertEquals(List.of(1L), claimants());
+
+        // The rejection comes from the key itself, not from a check made before inserting
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+            "INSERT INTO appointment_slot_ledger (doctor_id, slot_start, appointment_id) VALUES (?, ?, ?)",
+            doctorId, NINE, 3L));
+    }
+
+    @Test
+    public void releasedBlocksCanBeClaimedAgain() {
+        Appointment first = appointment(1L, NINE, 30);
+        claim(first);
+        assertFalse(slotLedgerService.isFree(doctorId, NINE, 30));
+
+        transactionTemplate.executeWithoutResult(status -> slotLedgerService.release(first));
+        assertTrue(slotLedgerService.isFree(doctorId, NINE, 30));
+
+        claim(appointment(2L, NINE, 30));
+        assertEquals(List.of(2L), claimants());
+    }
+
+    @Test
+    public void longerAppointmentsConflictWhereverTheirBlocksOverlap() {
+        // 09:00-09:45 holds nine blocks
+        claim(appointment(1L, NINE, 45));
+
+        // 09:30-10:00 shares its first three blocks, and none of its own blocks are kept
+        assertThrows(RuntimeException.class, () -> claim(appointment(2L, NINE.plusMinutes(30), 30)));
+        assertEquals(0, blocksOf(2L));
+
+        // A start inside a block still claims that block
+        assertThrows(RuntimeException.class, () -> claim(appointment(3L, NINE.plusMinutes(42), 20)));
+        assertEquals(0, blocksOf(3L));
+
+        // 09:45-10:00 only touches the end of the first one
+        claim(appointment(4L, NINE.plusMinutes(45), 15));
+        assertEquals(9, blocksOf(1L));
+        assertEquals(3, blocksOf(4L));
+        assertFalse(slotLedgerService.isFree(doctorId, NINE.plusMinutes(40), 10));
+        assertTrue(slotLedgerService.isFree(doctorId, NINE.plusMinutes(60), 30));
+    }
+
+    private void claim(Appointment appointment) {
+        transactionTemplate.executeWithoutResult(status -> slotLedgerService.claim(appointment));
+    }
+
+    private Appointment appointment(Long id, LocalDateTime start, int durationMinutes) {
+        Doctor doctor = new Doctor();
+        doctor.setId(doctorId);
+        Appointment appointment = new Appointment(null, doctor, start);
+        appointment.setId(id);
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setDurationMinutes(durationMinutes);
+        return appointment;
+    }
+
+    private List<Long> claimants() {
+        return jdbcTemplate.queryForList(
+            "SELECT DISTINCT appointment_id FROM appointment_slot_ledger WHERE doctor_id = ? ORDER BY appointment_id",
+            Long.class, doctorId);
+    }
+
+    private int blocksOf(Long appointmentId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM appointment_slot_ledger WHERE doctor_id = ? AND appointment_id = ?",
+            Integer.class, doctorId, appointmentId);
+    }
+}
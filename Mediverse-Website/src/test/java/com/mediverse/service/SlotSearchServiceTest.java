@@ -0,0 +1,105 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.AvailableSlotDTO;
+import com.mediverse.dto.BookedSlotView;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.Doctor;
+import com.mediverse.repository.AppointmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A search through a fully booked stretch reads the doctors' days a block at a time,
+ * not one query per doctor per day.
+ */
+public class SlotSearchServiceTest {
+
+    private static final int BOOKED_DAYS = 10;
+
+    @Test
+    public void bookedDaysAreLoadedInBlocksForAllDoctors() {
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        AppointmentService appointmentService = mock(AppointmentService.class);
+        SlotIndexService slotIndexService = new SlotIndexService();
+        ReflectionTestUtils.setField(slotIndexService, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(slotIndexService, "slotHoldService", new SlotHoldService());
+        SlotSearchService slotSearchService = new SlotSearchService();
+        ReflectionTestUtils.setField(slotSearchService, "appointmentService", appointmentService);
+        ReflectionTestUtils.setField(slotSearchService, "slotIndexService", slotIndexService);
+
+        List<LocalTime> slots = List.of(LocalTime.of(9, 0), LocalTime.of(9, 30));
+        when(appointmentService.candidateSlots(any(), any(), anyInt())).thenReturn(slots);
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        List<Doctor> doctors = new ArrayList<>();
+        List<BookedSlotView> booked = new ArrayList<>();
+        for (long doctorId = 1; doctorId <= 3; doctorId++) {
+            Doctor doctor = new Doctor();
+            doctor.setId(doctorId);
+            doctors.add(doctor);
+            for (int day = 0; day < BOOKED_DAYS; day++) {
+                for (LocalTime slot : slots) {
+                    booked.add(bookedSlot(doctorId, firstDay.plusDays(day).atTime(slot)));
+                }
+            }
+        }
+        when(appointmentRepository.findBookedSlotsForDoctors(any(), any(), any(), eq(AppointmentStatus.CANCELLED)))
+            .thenAnswer(invocation -> {
+                Collection<Long> doctorIds = invocation.getArgument(0);
+                LocalDateTime start = invocation.getArgument(1);
+                LocalDateTime end = invocation.getArgument(2);
+                return booked.stream()
+                    .filter(slot -> doctorIds.contains(slot.getDoctorId())
+                        && !slot.getAppointmentDateTime().isBefore(start) && slot.getAppointmentDateTime().isBefore(end))
+                    .toList();
+            });
+
+        List<AvailableSlotDTO> found = slotSearchService.findEarliestSlots(doctors, firstDay.atStartOfDay(), 30, 4);
+
+        LocalDateTime firstFree = firstDay.plusDays(BOOKED_DAYS).atTime(9, 0);
+        assertEquals(4, found.size());
+        assertEquals(firstFree, found.get(0).getSlotStart());
+        assertEquals(firstFree, found.get(2).getSlotStart());
+        assertEquals(firstFree.plusMinutes(30), found.get(3).getSlotStart());
+        // Days 1-7 and 8-14 for all three doctors, nothing per day
+        verify(appointmentRepository, times(2)).findBookedSlotsForDoctors(any(), any(), any(), any());
+        verify(appointmentRepository, never()).findByDoctorIdAndAppointmentDateTimeBetween(anyLong(), any(), any());
+    }
+
+    private static BookedSlotView bookedSlot(Long doctorId, LocalDateTime start) {
+        return new BookedSlotView() {
+            @Override
+            public Long getDoctorId() {
+                return doctorId;
+            }
+
+            @Override
+            public LocalDateTime getAppointmentDateTime() {
+                return start;
+            }
+
+            @Override
+            public Integer getDurationMinutes() {
+                return 30;
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.mediverse.service;
+
+import com.mediverse.dto.AppointmentStatusCounts;
+import com.mediverse.dto.PatientVisitSummary;
+import com.mediverse.entity.Appointment;
+import com.mediverse.entity.AppointmentStatus;
+import com.mediverse.entity.Doctor;
+import com.mediverse.entity.Patient;
+import com.mediverse.entity.Role;
+import com.mediverse.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Dashboard counts come from one grouped query each and agree with the rows behind them
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class StatisticsServiceTest {
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private Doctor doctor;
+    private Patient frequentPatient;
+
+    @BeforeEach
+    public void setUp() {
+        String run = Long.toString(System.nanoTime(), 36);
+        User doctorUser = new User("doctor." + run + "@test.local", "secret", Role.DOCTOR, "Stats", "Doctor");
+        entityManager.persist(doctorUser);
+        doctor = new Doctor(doctorUser, "General Medicine");
+        entityManager.persist(doctor);
+
+        frequentPatient = newPatient("frequent." + run, "Frequent");
+        Patient oncePatient = newPatient("once." + run, "Once");
+
+        LocalDateTime start = LocalDateTime.now().plusYears(5).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        AppointmentStatus[] statuses = {AppointmentStatus.COMPLETED, AppointmentStatus.COMPLETED, AppointmentStatus.SCHEDULED};
+        for (int i = 0; i < statuses.length; i++) {
+            Appointment appointment = new Appointment(frequentPatient, doctor, start.plusMinutes(30L * i));
+            appointment.setStatus(statuses[i]);
+            entityManager.persist(appointment);
+        }
+        entityManager.persist(new Appointment(oncePatient, doctor, start.plusDays(1)));
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void doctorStatusCountsInOneQuery() {
+        AppointmentStatusCounts counts = statisticsService.appointmentCountsForDoctor(doctor.getId());
+
+        assertEquals(4, counts.getTotal());
+        assertEquals(2, counts.getCompleted());
+        assertEquals(2, counts.getScheduled());
+        assertEquals(0, counts.getCancelled());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void patientVisitsAreCountedPerPatient() {
+        List<PatientVisitSummary> visits = statisticsService.patientVisitsForDoctor(doctor.getId());
+
+        assertEquals(2, visits.size());
+        PatientVisitSummary frequent = visits.stream()
+            .filter(visit -> visit.getPatientId().equals(frequentPatient.getId()))
+            .findFirst().orElseThrow();
+        assertEquals(3, frequent.getVisitCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private Patient newPatient(String email, String firstName) {
+        User user = new User(email + "@test.local", "secret", Role.PATIENT, firstName, "Patient");
+        entityManager.persist(user);
+        Patient patient = new Patient(user);
+        entityManager.persist(patient);
+        return patient;
+    }
+}
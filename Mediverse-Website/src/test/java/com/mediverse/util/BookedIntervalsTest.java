@@ -0,0 +1,83 @@
+package com.mediverse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conflict checks for variable-length bookings, and agreement with the nested-stream
+ * overlap check the slot listing used before the index existed.
+ */
+class BookedIntervalsTest {
+
+    @Test
+    void longBookingBlocksEveryOverlappingStart() {
+        BookedIntervals booked = new BookedIntervals();
+        assertTrue(booked.occupy(LocalTime.of(10, 0), 60));
+
+        assertFalse(booked.isFree(LocalTime.of(10, 30), 30));
+        assertFalse(booked.isFree(LocalTime.of(9, 45), 30));
+        assertTrue(booked.isFree(LocalTime.of(9, 30), 30));
+        assertTrue(booked.isFree(LocalTime.of(11, 0), 90));
+        assertFalse(booked.occupy(LocalTime.of(10, 59), 1));
+    }
+
+    @Test
+    void releaseRemovesOnlyTheExactRange() {
+        BookedIntervals booked = new BookedIntervals();
+        booked.occupy(LocalTime.of(9, 0), 45);
+        booked.occupy(LocalTime.of(9, 45), 15);
+
+        assertFalse(booked.release(LocalTime.of(9, 0), 30));
+        assertTrue(booked.release(LocalTime.of(9, 0), 45));
+        assertTrue(booked.isFree(LocalTime.of(9, 0), 45));
+        assertFalse(booked.isFree(LocalTime.of(9, 30), 30));
+    }
+
+    @Test
+    void overlappingLoadsAreMergedAndRefuseRelease() {
+        BookedIntervals booked = new BookedIntervals();
+        booked.occupy(LocalTime.of(9, 0), 60);
+        assertFalse(booked.occupy(LocalTime.of(9, 30), 60));
+
+        assertFalse(booked.isFree(LocalTime.of(10, 15), 15));
+        assertEquals(1, booked.size());
+        assertFalse(booked.release(LocalTime.of(9, 0), 60));
+    }
+
+    @Test
+    void agreesWithNestedStreamCheck() {
+        // A busy day: 200 bookings of 5 or 7 minutes
+        List<int[]> appointments = new ArrayList<>();
+        BookedIntervals booked = new BookedIntervals();
+        for (int i = 0; i < 200; i++) {
+            int start = i * 7;
+            int duration = 5 + (i % 2) * 2;
+            appointments.add(new int[] {start, start + duration});
+            booked.occupy(LocalTime.of(start / 60, start % 60), duration);
+        }
+        List<LocalTime> candidates = new ArrayList<>();
+        for (int minute = 0; minute + 30 <= 1400; minute += 5) {
+            candidates.add(LocalTime.of(minute / 60, minute % 60));
+        }
+
+        for (int duration : new int[] {1, 2, 5, 20}) {
+            List<LocalTime> fromStreams = candidates.stream()
+                .filter(slot -> {
+                    int from = slot.getHour() * 60 + slot.getMinute();
+                    return appointments.stream().noneMatch(app -> app[0] < from + duration && app[1] > from);
+                })
+                .toList();
+            List<LocalTime> fromIntervals = candidates.stream()
+                .filter(slot -> booked.isFree(slot, duration))
+                .toList();
+            assertEquals(fromStreams, fromIntervals, duration + " minute slots");
+        }
+    }
+}
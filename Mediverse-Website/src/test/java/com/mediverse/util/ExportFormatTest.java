@@ -0,0 +1,55 @@
+package com.mediverse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExportFormatTest {
+
+    private static final List<String> COLUMNS = List.of("id", "name", "when", "fee", "active");
+
+    @Test
+    void csvHasAHeaderAndQuotesOnlyWhereNeeded() throws IOException {
+        String csv = export(ExportFormat.CSV,
+            Arrays.asList(1L, "O'Brien, \"Jr\"", LocalDateTime.of(2025, 3, 3, 9, 30), 12.5, true),
+            Arrays.asList(2L, "Line\nbreak", null, null, false));
+
+        assertEquals("id,name,when,fee,active\r\n"
+            + "1,\"O'Brien, \"\"Jr\"\"\",2025-03-03T09:30,12.5,true\r\n"
+            + "2,\"Line\nbreak\",,,false\r\n", csv);
+    }
+
+    @Test
+    void ndjsonWritesOneTypedObjectPerLine() throws IOException {
+        String ndjson = export(ExportFormat.NDJSON,
+            Arrays.asList(1L, "Zoë \"Z\"", LocalDateTime.of(2025, 3, 3, 9, 30), 12.5, true),
+            Arrays.asList(2L, null, null, null, false));
+
+        assertEquals("{\"id\":1,\"name\":\"Zoë \\\"Z\\\"\",\"when\":\"2025-03-03T09:30\",\"fee\":12.5,\"active\":true}\n"
+            + "{\"id\":2,\"name\":null,\"when\":null,\"fee\":null,\"active\":false}\n", ndjson);
+    }
+
+    @Test
+    void noRowsLeavesOnlyTheCsvHeader() throws IOException {
+        assertEquals("id,name,when,fee,active\r\n", export(ExportFormat.CSV));
+        assertEquals("", export(ExportFormat.NDJSON));
+    }
+
+    @SafeVarargs
+    private static String export(ExportFormat format, List<Object>... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportFormat.RowWriter writer = format.open(out, COLUMNS);
+        for (List<Object> row : rows) {
+            writer.write(row);
+        }
+        writer.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
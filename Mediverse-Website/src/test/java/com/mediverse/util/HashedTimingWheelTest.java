@@ -0,0 +1,60 @@
+package com.mediverse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    void expiresOnlyAfterDeadline() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, 8, 0);
+        wheel.schedule("a", 2500);
+        // Deadline beyond one turn of the wheel needs a second round
+        wheel.schedule("b", 20_000);
+
+        assertTrue(wheel.expire(2000).isEmpty());
+        assertEquals(List.of("a"), wheel.expire(3000));
+        assertTrue(wheel.expire(19_000).isEmpty());
+        assertEquals(List.of("b"), wheel.expire(20_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, 8, 0);
+        HashedTimingWheel.Timeout<String> timeout = wheel.schedule("a", 1000);
+
+        assertTrue(wheel.cancel(timeout));
+        assertFalse(wheel.cancel(timeout));
+        assertTrue(wheel.expire(5000).isEmpty());
+    }
+
+    @Test
+    void handlesManyLiveHolds() {
+        int holds = 50_000;
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(TICK, 512, 0);
+        List<HashedTimingWheel.Timeout<Integer>> timeouts = new ArrayList<>();
+        for (int i = 0; i < holds; i++) {
+            // Spread over five minutes like real holds
+            timeouts.add(wheel.schedule(i, (i % 300 + 1) * TICK));
+        }
+        for (int i = 0; i < holds; i += 2) {
+            wheel.cancel(timeouts.get(i));
+        }
+
+        int expired = 0;
+        for (long now = 0; now <= 300 * TICK; now += TICK) {
+            expired += wheel.expire(now).size();
+        }
+        assertEquals(holds / 2, expired);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,39 @@
+package com.mediverse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+
+    @Test
+    void valuesSurviveTheRoundTrip() {
+        LocalDateTime when = LocalDateTime.of(2025, 3, 3, 9, 30);
+        String token = KeysetCursor.encode("O'Brien. Jr", "Zoë", when, 42L);
+
+        assertTrue(token.matches("[A-Za-z0-9_.-]*"), token);
+        assertArrayEquals(new String[] { "O'Brien. Jr", "Zoë", when.toString(), "42" }, KeysetCursor.decode(token, 4));
+    }
+
+    @Test
+    void emptyAndNullValuesAreKept() {
+        String[] values = KeysetCursor.decode(KeysetCursor.encode("", null, 7L), 3);
+
+        assertEquals("", values[0]);
+        assertEquals("", values[1]);
+        assertEquals("7", values[2]);
+    }
+
+    @Test
+    void wrongShapeIsRejected() {
+        String token = KeysetCursor.encode(1L, 2L);
+
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(token, 3));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not*base64", 1));
+    }
+}
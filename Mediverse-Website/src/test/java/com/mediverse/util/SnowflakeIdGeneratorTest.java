@@ -0,0 +1,113 @@
+package com.mediverse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uniqueness checks plus a contention benchmark for the business id generator.
+ * The benchmark prints throughput next to the old currentTimeMillis scheme's collision count.
+ */
+class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS = 32;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @Test
+    void idsAreUniqueUnderContention() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        long elapsedNanos = runConcurrently(() -> {
+            for (int i = 0; i < IDS_PER_THREAD; i++) {
+                ids.add(generator.nextId());
+            }
+        });
+
+        int total = THREADS * IDS_PER_THREAD;
+        assertEquals(total, ids.size());
+        System.out.printf("Snowflake ids: %d threads, %d ids, %.0f ids/sec%n",
+            THREADS, total, total / (elapsedNanos / 1_000_000_000.0));
+    }
+
+    @Test
+    void legacyMillisecondIdsCollideUnderTheSameLoad() throws Exception {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        AtomicLong collisions = new AtomicLong();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < IDS_PER_THREAD; i++) {
+                if (!ids.add("APP" + System.currentTimeMillis())) {
+                    collisions.incrementAndGet();
+                }
+            }
+        });
+
+        System.out.printf("currentTimeMillis ids: %d collisions out of %d%n", collisions.get(), THREADS * IDS_PER_THREAD);
+        assertTrue(collisions.get() > 0);
+    }
+
+    @Test
+    void nodesNeverCollideInTheSameMillisecond() {
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1, () -> SnowflakeIdGenerator.EPOCH_MILLIS + 1000);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2, () -> SnowflakeIdGenerator.EPOCH_MILLIS + 1000);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(first.nextId());
+            ids.add(second.nextId());
+        }
+        assertEquals(20_000, ids.size());
+    }
+
+    @Test
+    void idsKeepIncreasingWhenTheClockStepsBack() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH_MILLIS + 5000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, clock::get);
+
+        long before = generator.nextId();
+        clock.addAndGet(-2000);
+        long after = generator.nextId();
+
+        assertTrue(after > before);
+    }
+
+    @Test
+    void prefixIsKept() {
+        assertTrue(new SnowflakeIdGenerator(0).nextId("APP").startsWith("APP"));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    private static long runConcurrently(Runnable work) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    work.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        return elapsed;
+    }
+}
@@ -0,0 +1,52 @@
+package com.mediverse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeRangeIndexTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 3, 3, 0, 0);
+
+    @Test
+    void overlapsIsHalfOpenAtBothEnds() {
+        TimeRangeIndex index = TimeRangeIndex.of(List.<LocalDateTime[]>of(range(MONDAY.plusHours(9), MONDAY.plusHours(13))));
+
+        assertTrue(index.overlaps(MONDAY.plusHours(12), MONDAY.plusHours(14)));
+        assertTrue(index.overlaps(MONDAY.plusHours(8), MONDAY.plusHours(10)));
+        assertTrue(index.overlaps(MONDAY, MONDAY.plusDays(1)));
+        assertFalse(index.overlaps(MONDAY.plusHours(13), MONDAY.plusHours(14)));
+        assertFalse(index.overlaps(MONDAY.plusHours(8), MONDAY.plusHours(9)));
+    }
+
+    @Test
+    void overlappingAndTouchingRangesAreMerged() {
+        TimeRangeIndex index = TimeRangeIndex.of(List.of(
+            range(MONDAY.plusDays(2), MONDAY.plusDays(3)),
+            range(MONDAY, MONDAY.plusDays(1)),
+            range(MONDAY.plusHours(12), MONDAY.plusDays(2)),
+            range(MONDAY.plusDays(5), MONDAY.plusDays(6))));
+
+        assertEquals(2, index.size());
+        assertTrue(index.overlaps(MONDAY.plusDays(1).plusHours(9), MONDAY.plusDays(1).plusHours(10)));
+        assertFalse(index.overlaps(MONDAY.plusDays(3), MONDAY.plusDays(5)));
+        assertTrue(index.overlaps(MONDAY.plusDays(4), MONDAY.plusDays(5).plusMinutes(1)));
+    }
+
+    @Test
+    void emptyIndexBlocksNothing() {
+        TimeRangeIndex index = TimeRangeIndex.of(List.<LocalDateTime[]>of(range(MONDAY.plusHours(2), MONDAY.plusHours(2))));
+
+        assertTrue(index.isEmpty());
+        assertFalse(index.overlaps(MONDAY, MONDAY.plusDays(1)));
+    }
+
+    private static LocalDateTime[] range(LocalDateTime start, LocalDateTime end) {
+        return new LocalDateTime[] { start, end };
+    }
+}
@@ -0,0 +1,61 @@
+package com.mediverse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeeklyScheduleTest {
+
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+    private static final LocalTime FIVE = LocalTime.of(17, 0);
+
+    @Test
+    void commaSeparatedDayNames() {
+        WeeklySchedule schedule = WeeklySchedule.parse("Monday,Tuesday,Wednesday,Thursday,Friday", NINE, FIVE, 30);
+
+        assertTrue(schedule.worksOn(DayOfWeek.FRIDAY));
+        assertFalse(schedule.worksOn(DayOfWeek.SATURDAY));
+        assertEquals(16, schedule.slotStarts(DayOfWeek.MONDAY).size());
+        assertTrue(schedule.slotStarts(DayOfWeek.SUNDAY).isEmpty());
+    }
+
+    @Test
+    void rangesWithPerDayHours() {
+        WeeklySchedule schedule = WeeklySchedule.parse("Mon-Fri, Sat 09:00-12:00", NINE, FIVE, 30);
+
+        assertTrue(schedule.covers(DayOfWeek.SATURDAY, LocalTime.of(11, 30), 30));
+        assertFalse(schedule.covers(DayOfWeek.SATURDAY, LocalTime.of(12, 0), 30));
+        assertTrue(schedule.covers(DayOfWeek.WEDNESDAY, LocalTime.of(16, 30), 30));
+        assertFalse(schedule.covers(DayOfWeek.WEDNESDAY, LocalTime.of(16, 45), 30));
+    }
+
+    @Test
+    void jsonFormsAndSplitShifts() {
+        WeeklySchedule array = WeeklySchedule.parse("[\"Mon\", \"Thu\"]", NINE, FIVE, 30);
+        assertEquals(0b0001001, array.getDayMask());
+
+        WeeklySchedule object = WeeklySchedule.parse("{\"Tue\":\"08:00-10:00\", \"tue\":\"14:00-15:00\"}", NINE, FIVE, 30);
+        assertEquals(List.of(LocalTime.of(8, 0), LocalTime.of(8, 30), LocalTime.of(9, 0), LocalTime.of(9, 30),
+            LocalTime.of(14, 0), LocalTime.of(14, 30)), object.slotStarts(DayOfWeek.TUESDAY));
+        assertFalse(object.covers(DayOfWeek.TUESDAY, LocalTime.of(12, 0), 30));
+    }
+
+    @Test
+    void blankMeansEveryDay() {
+        WeeklySchedule schedule = WeeklySchedule.parse(" ", NINE, FIVE, 30);
+        assertEquals(0b1111111, schedule.getDayMask());
+    }
+
+    @Test
+    void rejectsUnreadableEntries() {
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.parse("Funday", NINE, FIVE, 30));
+        assertThrows(IllegalArgumentException.class, () -> WeeklySchedule.parse("Mon 17:00-09:00", NINE, FIVE, 30));
+    }
+}